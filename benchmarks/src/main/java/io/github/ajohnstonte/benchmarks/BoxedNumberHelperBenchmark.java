@@ -0,0 +1,104 @@
+package io.github.ajohnstonte.benchmarks;
+
+import io.github.ajohnstonte.helper.BoxedNumberHelper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link BoxedNumberHelper}'s parsers with the JDK's, which throw
+ * on invalid input and so must be caught to fall back to a default. Each
+ * invocation parses the same {@value #COUNT} strings, generated from a fixed
+ * seed, of which the given percentage are invalid.
+ *
+ * @author ajohnston
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@State(Scope.Benchmark)
+public class BoxedNumberHelperBenchmark
+{
+  private static final int COUNT = 1024;
+
+  @Param({ "0", "10", "100" })
+  private int invalidPercent;
+
+  private String[] strings;
+
+  @Setup
+  public void setUp()
+  {
+    Random random = new Random(42L);
+    strings = new String[COUNT];
+    for (int i = 0; i < COUNT; i++)
+    {
+      String number = Integer.toString(random.nextInt());
+      strings[i] = random.nextInt(100) < invalidPercent
+          ? number.substring(0, number.length() / 2) + "x"
+          : number;
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void helperParseInt(Blackhole blackhole)
+  {
+    for (String string : strings)
+    {
+      blackhole.consume(BoxedNumberHelper.parseInt(string, null));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void jdkParseInt(Blackhole blackhole)
+  {
+    for (String string : strings)
+    {
+      Integer value;
+      try
+      {
+        value = Integer.valueOf(string);
+      }
+      catch (NumberFormatException e)
+      {
+        value = null;
+      }
+      blackhole.consume(value);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void helperParseLong(Blackhole blackhole)
+  {
+    for (String string : strings)
+    {
+      blackhole.consume(BoxedNumberHelper.parseLong(string, null));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void jdkParseLong(Blackhole blackhole)
+  {
+    for (String string : strings)
+    {
+      Long value;
+      try
+      {
+        value = Long.valueOf(string);
+      }
+      catch (NumberFormatException e)
+      {
+        value = null;
+      }
+      blackhole.consume(value);
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package io.github.ajohnstonte.benchmarks;
+
+import io.github.ajohnstonte.gemini.input.QueryStringValues;
+import io.github.ajohnstonte.gemini.input.ValidationResult;
+import io.github.ajohnstonte.gemini.input.requestform.NumberField;
+import io.github.ajohnstonte.gemini.input.requestform.RequestForm;
+import io.github.ajohnstonte.gemini.input.requestform.SelectField;
+import io.github.ajohnstonte.gemini.input.requestform.TextField;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Processes forms of 5, 50 and 500 fields, given either entirely valid or
+ * entirely invalid input. The fields cycle through a number field, a text
+ * field and a select field, each with the validators typical of a real form.
+ *
+ * @author ajohnston
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@State(Scope.Benchmark)
+public class RequestFormBenchmark
+{
+  @Param({ "5", "50", "500" })
+  private int     fieldCount;
+
+  @Param({ "true", "false" })
+  private boolean valid;
+
+  private RequestForm form;
+  private String      queryString;
+
+  @Setup
+  public void setUp()
+  {
+    form = newForm(fieldCount);
+    StringBuilder query = new StringBuilder();
+    for (int i = 0; i < fieldCount; i++)
+    {
+      if (i > 0)
+      {
+        query.append('&');
+      }
+      query.append(name(i)).append('=').append(value(i, valid));
+    }
+    queryString = query.toString();
+  }
+
+  /**
+   * Processes a form built once, as a form held by a long-lived handler
+   * would be.
+   */
+  @Benchmark
+  public ValidationResult process()
+  {
+    return form.process(new QueryStringValues(queryString));
+  }
+
+  /**
+   * Builds the form and processes it, as a form instantiated for each
+   * request would be.
+   */
+  @Benchmark
+  public ValidationResult buildAndProcess()
+  {
+    return newForm(fieldCount).process(new QueryStringValues(queryString));
+  }
+
+  private static RequestForm newForm(int fieldCount)
+  {
+    RequestForm form = new RequestForm();
+    for (int i = 0; i < fieldCount; i++)
+    {
+      switch (i % 3)
+      {
+        case 0:
+          new NumberField<>(form, name(i), Long.class)
+              .setMin(0L)
+              .setMax(1_000L)
+              .setRequired(true);
+          break;
+        case 1:
+          new TextField<>(form, name(i), String.class)
+              .setMaxLength(32)
+              .setRequired(true);
+          break;
+        default:
+          SelectField<String> select = new SelectField<>(form, name(i), String.class);
+          for (int option = 0; option < 10; option++)
+          {
+            select.addOption("option" + option);
+          }
+          select.setRequired(true);
+          break;
+      }
+    }
+    return form;
+  }
+
+  private static String name(int index)
+  {
+    return "field" + index;
+  }
+
+  private static String value(int index, boolean valid)
+  {
+    switch (index % 3)
+    {
+      case 0:
+        return valid ? "500" : "5000";
+      case 1:
+        return valid ? "a+short+value" : "a+value+well+beyond+the+maximum+length";
+      default:
+        return valid ? "option7" : "option70";
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package io.github.ajohnstonte.benchmarks;
+
+import io.github.ajohnstonte.gemini.input.MapValues;
+import io.github.ajohnstonte.gemini.input.ValidationResult;
+import io.github.ajohnstonte.gemini.input.requestform.RequestForm;
+import io.github.ajohnstonte.gemini.input.requestform.SelectField;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Processes a form with a single select field of 10, 1,000 or 100,000
+ * options, given a single permitted value, a single value that isn't an
+ * option, or 100 values at once.
+ *
+ * @author ajohnston
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@State(Scope.Benchmark)
+public class SelectFieldBenchmark
+{
+  private static final int SELECTED_COUNT = 100;
+
+  @Param({ "10", "1000", "100000" })
+  private int optionCount;
+
+  private RequestForm               form;
+  private Map<String, List<String>> permitted;
+  private Map<String, List<String>> notPermitted;
+  private Map<String, List<String>> multiple;
+
+  @Setup
+  public void setUp()
+  {
+    form = new RequestForm();
+    SelectField<String[]> select = new SelectField<>(form, "choice", String[].class);
+    for (int i = 0; i < optionCount; i++)
+    {
+      select.addOption("option" + i);
+    }
+    select.setAllowMultipleValues(true);
+    // The last option, so that nothing is found early by a linear search.
+    permitted = values(Collections.singletonList("option" + (optionCount - 1)));
+    notPermitted = values(Collections.singletonList("missing"));
+    Random random = new Random(42L);
+    List<String> selected = new ArrayList<>(SELECTED_COUNT);
+    for (int i = 0; i < SELECTED_COUNT; i++)
+    {
+      selected.add("option" + random.nextInt(optionCount));
+    }
+    multiple = values(selected);
+  }
+
+  @Benchmark
+  public ValidationResult permittedValue()
+  {
+    return form.process(new MapValues(permitted));
+  }
+
+  @Benchmark
+  public ValidationResult valueNotPermitted()
+  {
+    return form.process(new MapValues(notPermitted));
+  }
+
+  @Benchmark
+  public ValidationResult multipleValues()
+  {
+    return form.process(new MapValues(multiple));
+  }
+
+  private static Map<String, List<String>> values(List<String> choices)
+  {
+    return Collections.singletonMap("choice", choices);
+  }
+}
@@ -0,0 +1,126 @@
+package io.github.ajohnstonte.benchmarks;
+
+import com.techempower.data.ConnectorFactory;
+import com.techempower.gemini.*;
+import com.techempower.gemini.context.Attachments;
+import com.techempower.gemini.monitor.GeminiMonitor;
+import com.techempower.gemini.mustache.MustacheManager;
+import com.techempower.gemini.pyxis.BasicUser;
+import com.techempower.gemini.session.SessionManager;
+import com.techempower.gemini.simulation.SimClient;
+import com.techempower.log.ComponentLog;
+import io.github.ajohnstonte.gemini.simulation.GetSimRequest;
+import io.github.ajohnstonte.gemini.simulation.SimParameters;
+
+/**
+ * Builds Gemini contexts for simulated requests, with an application that
+ * has no dispatcher, database or logging, for benchmarks that need a
+ * {@link Context} or its query.
+ *
+ * @author ajohnston
+ */
+final class SimContexts
+{
+  private SimContexts()
+  {
+  }
+
+  static Context context(SimParameters parameters)
+  {
+    GeminiApplication application = new GeminiApplication()
+    {
+      @Override
+      protected Dispatcher constructDispatcher()
+      {
+        return null;
+      }
+
+      @Override
+      protected ConnectorFactory constructConnectorFactory()
+      {
+        return null;
+      }
+
+      @Override
+      protected MustacheManager constructMustacheManager()
+      {
+        return null;
+      }
+
+      @Override
+      protected SessionManager constructSessionManager()
+      {
+        return null;
+      }
+
+      @Override
+      protected GeminiMonitor constructMonitor()
+      {
+        return null;
+      }
+
+      @Override
+      public Context getContext(Request request)
+      {
+        return null;
+      }
+
+      @Override
+      public ComponentLog getLog(String componentCode)
+      {
+        return new ComponentLog(getApplicationLog(), componentCode)
+        {
+          @Override
+          public void log(String logString, int debugLevel)
+          {
+          }
+
+          @Override
+          public void log(String logString)
+          {
+          }
+
+          @Override
+          public void log(String debugString, int debugLevel, Throwable exception)
+          {
+          }
+
+          @Override
+          public void log(String debugString, Throwable exception)
+          {
+          }
+        };
+      }
+    };
+    Simulation simulation = new Simulation()
+    {
+      @Override
+      public GeminiApplication getApplication()
+      {
+        return application;
+      }
+
+      @Override
+      protected String getDocroot()
+      {
+        return "";
+      }
+
+      @Override
+      protected Class<? extends BasicUser> getUserClass()
+      {
+        return null;
+      }
+    };
+    Request request = new GetSimRequest(simulation, "", parameters,
+        new SimClient(1), application);
+    return new Context(application, request)
+    {
+      @Override
+      public Attachments files()
+      {
+        return null;
+      }
+    };
+  }
+}
@@ -0,0 +1,108 @@
+package io.github.ajohnstonte.benchmarks;
+
+import io.github.ajohnstonte.gemini.simulation.SimParameters;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds, reads and modifies {@link SimParameters} of 10 or 100 parameters,
+ * as simulated requests in tests do.
+ *
+ * @author ajohnston
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@State(Scope.Benchmark)
+public class SimParametersBenchmark
+{
+  @Param({ "10", "100" })
+  private int parameterCount;
+
+  private String[]      names;
+  private SimParameters parameters;
+
+  @Setup
+  public void setUp()
+  {
+    names = new String[parameterCount];
+    for (int i = 0; i < parameterCount; i++)
+    {
+      names[i] = "parameter" + i;
+    }
+    parameters = build();
+  }
+
+  @Benchmark
+  public SimParameters append()
+  {
+    return build();
+  }
+
+  @Benchmark
+  public void get(Blackhole blackhole)
+  {
+    for (String name : names)
+    {
+      blackhole.consume(parameters.get(name));
+    }
+  }
+
+  @Benchmark
+  public void getAll(Blackhole blackhole)
+  {
+    for (String name : names)
+    {
+      blackhole.consume(parameters.getAll(name));
+    }
+  }
+
+  @Benchmark
+  public SimParameters setEach()
+  {
+    SimParameters parameters = build();
+    for (String name : names)
+    {
+      parameters.set(name, "changed");
+    }
+    return parameters;
+  }
+
+  @Benchmark
+  public SimParameters deleteEach()
+  {
+    SimParameters parameters = build();
+    for (String name : names)
+    {
+      parameters.delete(name);
+    }
+    return parameters;
+  }
+
+  @Benchmark
+  public Map<String, String> toMap()
+  {
+    return parameters.toMap();
+  }
+
+  @Benchmark
+  public String encode()
+  {
+    return parameters.toString();
+  }
+
+  private SimParameters build()
+  {
+    SimParameters parameters = new SimParameters();
+    for (int i = 0; i < names.length; i++)
+    {
+      parameters.append(names[i], "value " + i);
+    }
+    return parameters;
+  }
+}
@@ -0,0 +1,114 @@
+package io.github.ajohnstonte.benchmarks;
+
+import com.techempower.gemini.context.Query;
+import io.github.ajohnstonte.gemini.input.MapValues;
+import io.github.ajohnstonte.gemini.input.QueryValues;
+import io.github.ajohnstonte.gemini.input.Values;
+import io.github.ajohnstonte.gemini.simulation.SimParameters;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads every parameter of a request of 10 or 100 parameters through
+ * {@link MapValues} and {@link QueryValues}, as single strings, as string
+ * arrays, and parsed as ints. A fresh {@link Values} is used for each
+ * invocation, so that values parsed once per name are parsed again, as they
+ * would be for each request.
+ *
+ * @author ajohnston
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@State(Scope.Benchmark)
+public class ValuesBenchmark
+{
+  @Param({ "10", "100" })
+  private int parameterCount;
+
+  private String[]                  names;
+  private Map<String, List<String>> map;
+  private Query                     query;
+
+  @Setup
+  public void setUp()
+  {
+    Random random = new Random(42L);
+    names = new String[parameterCount];
+    map = new HashMap<>();
+    SimParameters parameters = new SimParameters();
+    for (int i = 0; i < parameterCount; i++)
+    {
+      names[i] = "parameter" + i;
+      String value = Integer.toString(random.nextInt(1_000_000));
+      map.put(names[i], Collections.singletonList(value));
+      parameters.append(names[i], value);
+    }
+    query = SimContexts.context(parameters).query();
+  }
+
+  @Benchmark
+  public void mapGet(Blackhole blackhole)
+  {
+    get(new MapValues(map), blackhole);
+  }
+
+  @Benchmark
+  public void queryGet(Blackhole blackhole)
+  {
+    get(new QueryValues(query), blackhole);
+  }
+
+  @Benchmark
+  public void mapGetStrings(Blackhole blackhole)
+  {
+    getStrings(new MapValues(map), blackhole);
+  }
+
+  @Benchmark
+  public void queryGetStrings(Blackhole blackhole)
+  {
+    getStrings(new QueryValues(query), blackhole);
+  }
+
+  @Benchmark
+  public void mapGetInts(Blackhole blackhole)
+  {
+    getInts(new MapValues(map), blackhole);
+  }
+
+  @Benchmark
+  public void queryGetInts(Blackhole blackhole)
+  {
+    getInts(new QueryValues(query), blackhole);
+  }
+
+  private void get(Values values, Blackhole blackhole)
+  {
+    for (String name : names)
+    {
+      blackhole.consume(values.get(name));
+    }
+  }
+
+  private void getStrings(Values values, Blackhole blackhole)
+  {
+    for (String name : names)
+    {
+      blackhole.consume(values.getStrings(name));
+    }
+  }
+
+  private void getInts(Values values, Blackhole blackhole)
+  {
+    for (String name : names)
+    {
+      blackhole.consume(values.getInts(name));
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package io.github.ajohnstonte.gemini.input;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A read-only view of a byte buffer as characters, one per byte, used to
+ * parse ASCII values such as numbers directly out of the buffer. Indexes are
+ * absolute positions within the buffer, and the buffer's position is never
+ * changed.
+ *
+ * @author ajohnston
+ */
+class ByteBufferCharSequence
+    implements CharSequence
+{
+  private final ByteBuffer buffer;
+
+  ByteBufferCharSequence(ByteBuffer buffer)
+  {
+    this.buffer = buffer;
+  }
+
+  @Override
+  public int length()
+  {
+    return buffer.limit();
+  }
+
+  @Override
+  public char charAt(int index)
+  {
+    return (char)(buffer.get(index) & 0xFF);
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end)
+  {
+    byte[] bytes = new byte[end - start];
+    for (int i = start; i < end; i++)
+    {
+      bytes[i - start] = buffer.get(i);
+    }
+    return new String(bytes, StandardCharsets.ISO_8859_1);
+  }
+
+  @Override
+  public String toString()
+  {
+    return subSequence(0, length()).toString();
+  }
+}
@@ -0,0 +1,488 @@
+package io.github.ajohnstonte.gemini.input;
+
+import io.github.ajohnstonte.helper.BoxedNumberHelper;
+import io.github.ajohnstonte.helper.EnumLookup;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the records of a UTF-8 CSV or TSV file through a memory mapping,
+ * presenting each record as {@link Values} keyed by the names in the file's
+ * header row. Intended for validating large files with a form, one record
+ * at a time:
+ * <pre>
+ * try (DelimitedFileReader reader = DelimitedFileReader.csv(path))
+ * {
+ *   while (reader.next())
+ *   {
+ *     form.setValuesFrom(reader.getRecord());
+ *     ...
+ *   }
+ * }
+ * </pre>
+ * Records are never split into Strings. Reading a record only finds the
+ * boundaries of its columns within the mapped file; a column is decoded
+ * when it is read as a String, and numbers are parsed directly from the
+ * mapping. The same {@link Record} instance is reused for every record, so
+ * values must be read before moving on to the next record.
+ *   <p>
+ * The file is mapped in windows of at most {@link #DEFAULT_WINDOW_SIZE}
+ * bytes, so files of any size may be read with little heap. A single record
+ * must fit within one window.
+ *   <p>
+ * CSV columns may be quoted, in which case they may contain commas, line
+ * breaks and doubled quotes. TSV columns are never quoted. Line breaks may
+ * be either "\n" or "\r\n", and blank lines are skipped.
+ *
+ * @author ajohnston
+ */
+public class DelimitedFileReader
+    implements Closeable
+{
+  /**
+   * The largest portion of the file mapped at once.
+   */
+  public static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+
+  private final FileChannel            channel;
+  private final long                   fileSize;
+  private final byte                   delimiter;
+  private final boolean                quoting;
+  private final int                    windowSize;
+  private final Record                 record;
+  private final Map<String, Integer>   columnIndexes;
+  private final List<String>           columnNames;
+  private       MappedByteBuffer       window;
+  private       ByteBufferCharSequence windowChars;
+  private       long                   windowStart;
+  /**
+   * The position within the window of the next record.
+   */
+  private       int                    position;
+  private       long                   recordNumber;
+  private       int                    columnCount;
+  private       int[]                  starts  = new int[16];
+  private       int[]                  ends    = new int[16];
+  private       boolean[]              escaped = new boolean[16];
+  private       byte[]                 scratch = new byte[256];
+
+  protected DelimitedFileReader(Path path, char delimiter, boolean quoting,
+                                int windowSize)
+      throws IOException
+  {
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    this.fileSize = channel.size();
+    this.delimiter = (byte)delimiter;
+    this.quoting = quoting;
+    this.windowSize = windowSize;
+    this.record = new Record();
+    try
+    {
+      map(0);
+      String[] names = readRecord() ? header() : new String[0];
+      Map<String, Integer> indexes = new HashMap<>(names.length * 2);
+      for (int i = 0; i < names.length; i++)
+      {
+        // If a name is repeated, the first column wins.
+        indexes.putIfAbsent(names[i], i);
+      }
+      this.columnIndexes = indexes;
+      this.columnNames = Collections.unmodifiableList(Arrays.asList(names));
+      this.recordNumber = 0;
+    }
+    catch (IOException | RuntimeException e)
+    {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Opens a comma-separated file, whose columns may be quoted.
+   */
+  public static DelimitedFileReader csv(Path path)
+      throws IOException
+  {
+    return new DelimitedFileReader(path, ',', true, DEFAULT_WINDOW_SIZE);
+  }
+
+  /**
+   * Opens a tab-separated file.
+   */
+  public static DelimitedFileReader tsv(Path path)
+      throws IOException
+  {
+    return new DelimitedFileReader(path, '\t', false, DEFAULT_WINDOW_SIZE);
+  }
+
+  /**
+   * @return the column names from the header row, in order
+   */
+  public List<String> getColumnNames()
+  {
+    return columnNames;
+  }
+
+  /**
+   * Advances to the next record.
+   *
+   * @return false if there are no more records
+   */
+  public boolean next()
+      throws IOException
+  {
+    if (readRecord())
+    {
+      recordNumber++;
+      return true;
+    }
+    columnCount = 0;
+    return false;
+  }
+
+  /**
+   * @return the current record. The same instance is returned for every
+   * record.
+   */
+  public Record getRecord()
+  {
+    return record;
+  }
+
+  /**
+   * @return the number of the current record, starting from 1 for the first
+   * record after the header
+   */
+  public long getRecordNumber()
+  {
+    return recordNumber;
+  }
+
+  @Override
+  public void close()
+      throws IOException
+  {
+    // The mapping itself is released once it is no longer referenced.
+    window = null;
+    windowChars = null;
+    channel.close();
+  }
+
+  private String[] header()
+  {
+    String[] names = new String[columnCount];
+    for (int i = 0; i < columnCount; i++)
+    {
+      names[i] = column(i);
+    }
+    return names;
+  }
+
+  private void map(long start)
+      throws IOException
+  {
+    windowStart = start;
+    window = channel.map(FileChannel.MapMode.READ_ONLY, start,
+        Math.min(windowSize, fileSize - start));
+    windowChars = new ByteBufferCharSequence(window);
+    position = 0;
+  }
+
+  /**
+   * Finds the boundaries of the columns of the next non-blank record,
+   * moving the window forward if the record runs past its end.
+   */
+  private boolean readRecord()
+      throws IOException
+  {
+    while (true)
+    {
+      int end = scanRecord();
+      if (end >= 0)
+      {
+        if (columnCount == 1 && starts[0] == ends[0] && !escaped[0]
+            && end > position && !isQuoted(position))
+        {
+          // A blank line.
+          position = end;
+          continue;
+        }
+        position = end;
+        return true;
+      }
+      long recordStart = windowStart + position;
+      if (recordStart >= fileSize)
+      {
+        return false;
+      }
+      if (position == 0 && window.limit() == windowSize)
+      {
+        throw new IOException("Record " + (recordNumber + 1)
+            + " is larger than " + windowSize + " bytes.");
+      }
+      map(recordStart);
+    }
+  }
+
+  private boolean isQuoted(int index)
+  {
+    return quoting && window.get(index) == '"';
+  }
+
+  /**
+   * Scans the record starting at the current position.
+   *
+   * @return the position following the record, or -1 if the record isn't
+   * entirely within the window. Returns -1 at the end of the file.
+   * @throws IOException if a quoted column is still open at the end of the
+   * file
+   */
+  private int scanRecord()
+      throws IOException
+  {
+    final MappedByteBuffer buffer = window;
+    final int limit = buffer.limit();
+    final boolean lastWindow = windowStart + limit >= fileSize;
+    if (position >= limit)
+    {
+      return -1;
+    }
+    columnCount = 0;
+    int i = position;
+    while (true)
+    {
+      int start = i;
+      int end;
+      boolean columnEscaped = false;
+      if (quoting && i < limit && buffer.get(i) == '"')
+      {
+        start = ++i;
+        while (true)
+        {
+          if (i >= limit)
+          {
+            if (lastWindow)
+            {
+              throw new IOException("Record " + (recordNumber + 1)
+                  + " at offset " + (windowStart + position)
+                  + " has a quoted column that is never closed.");
+            }
+            return -1;
+          }
+          if (buffer.get(i) == '"')
+          {
+            if (i + 1 < limit && buffer.get(i + 1) == '"')
+            {
+              columnEscaped = true;
+              i += 2;
+              continue;
+            }
+            if (i + 1 >= limit && !lastWindow)
+            {
+              return -1;
+            }
+            end = i++;
+            break;
+          }
+          i++;
+        }
+        // Anything between the closing quote and the delimiter is ignored.
+        while (i < limit && buffer.get(i) != delimiter && buffer.get(i) != '\n')
+        {
+          i++;
+        }
+      }
+      else
+      {
+        while (i < limit && buffer.get(i) != delimiter && buffer.get(i) != '\n')
+        {
+          i++;
+        }
+        end = i;
+        if (end > start && buffer.get(end - 1) == '\r'
+            && (i < limit || lastWindow))
+        {
+          end--;
+        }
+      }
+      addColumn(start, end, columnEscaped);
+      if (i >= limit)
+      {
+        return lastWindow ? i : -1;
+      }
+      if (buffer.get(i++) == '\n')
+      {
+        return i;
+      }
+    }
+  }
+
+  private void addColumn(int start, int end, boolean columnEscaped)
+  {
+    if (columnCount == starts.length)
+    {
+      starts = Arrays.copyOf(starts, columnCount * 2);
+      ends = Arrays.copyOf(ends, columnCount * 2);
+      escaped = Arrays.copyOf(escaped, columnCount * 2);
+    }
+    starts[columnCount] = start;
+    ends[columnCount] = end;
+    escaped[columnCount] = columnEscaped;
+    columnCount++;
+  }
+
+  /**
+   * Decodes a column of the current record.
+   */
+  private String column(int index)
+  {
+    final int start = starts[index];
+    final int length = ends[index] - start;
+    if (scratch.length < length)
+    {
+      scratch = new byte[Math.max(length, scratch.length * 2)];
+    }
+    int decodedLength = 0;
+    for (int i = 0; i < length; i++)
+    {
+      byte b = window.get(start + i);
+      scratch[decodedLength++] = b;
+      if (escaped[index] && b == '"')
+      {
+        // Skip the second of a doubled quote.
+        i++;
+      }
+    }
+    return new String(scratch, 0, decodedLength, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * The values of the current record, keyed by column name. A column that
+   * is empty, or missing from a short record, has no value.
+   */
+  public class Record
+      extends Values
+  {
+    private Record()
+    {
+      // Only created by the reader.
+    }
+
+    /**
+     * @return the index of the named column within the current record, or
+     * -1 if the record doesn't have a non-empty value for it
+     */
+    private int index(String name)
+    {
+      Integer index = columnIndexes.get(name);
+      return index != null && index < columnCount && starts[index] < ends[index]
+          ? index
+          : -1;
+    }
+
+    @Override
+    public boolean has(String name)
+    {
+      return index(name) >= 0;
+    }
+
+    @Override
+    public String get(String name, String defaultValue)
+    {
+      int index = index(name);
+      return index >= 0 ? column(index) : defaultValue;
+    }
+
+    @Override
+    public String[] getStrings(String name, String[] defaultValue)
+    {
+      int index = index(name);
+      return index >= 0 ? new String[]{ column(index) } : defaultValue;
+    }
+
+    @Override
+    public int[] getInts(String name)
+    {
+      return has(name) ? new int[]{ getInt(name, 0) } : null;
+    }
+
+    @Override
+    public long[] getLongs(String name)
+    {
+      return has(name) ? new long[]{ getLong(name, 0L) } : null;
+    }
+
+    @Override
+    public Integer getInt(String name, Integer defaultValue)
+    {
+      int index = index(name);
+      if (index < 0)
+      {
+        return defaultValue;
+      }
+      return escaped[index]
+          ? BoxedNumberHelper.parseInt(column(index), defaultValue)
+          : BoxedNumberHelper.parseInt(windowChars, starts[index], ends[index],
+              defaultValue);
+    }
+
+    @Override
+    public Long getLong(String name, Long defaultValue)
+    {
+      int index = index(name);
+      if (index < 0)
+      {
+        return defaultValue;
+      }
+      return escaped[index]
+          ? BoxedNumberHelper.parseLong(column(index), defaultValue)
+          : BoxedNumberHelper.parseLong(windowChars, starts[index], ends[index],
+              defaultValue);
+    }
+
+    @Override
+    public Double getDouble(String name, Double defaultValue)
+    {
+      int index = index(name);
+      if (index < 0)
+      {
+        return defaultValue;
+      }
+      return escaped[index]
+          ? BoxedNumberHelper.parseDouble(column(index), defaultValue)
+          : BoxedNumberHelper.parseDouble(windowChars, starts[index], ends[index],
+              defaultValue);
+    }
+
+    @Override
+    public Float getFloat(String name, Float defaultValue)
+    {
+      int index = index(name);
+      if (index < 0)
+      {
+        return defaultValue;
+      }
+      return escaped[index]
+          ? BoxedNumberHelper.parseFloat(column(index), defaultValue)
+          : BoxedNumberHelper.parseFloat(windowChars, starts[index], ends[index],
+              defaultValue);
+    }
+
+    @Override
+    public <O extends Enum<O>> O getEnum(String name, Class<O> type, O defaultValue)
+    {
+      return EnumLookup.of(type).get(get(name), defaultValue);
+    }
+  }
+}
@@ -0,0 +1,293 @@
+package io.github.ajohnstonte.gemini.input;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes an application/x-www-form-urlencoded body, such as the body of a
+ * POST, as it is read. Names and values are percent-decoded as UTF-8 one
+ * chunk at a time, so the raw body is never held in memory as a whole.
+ *   <p>
+ * The given {@link InputLimits} are enforced while reading: once a limit is
+ * reached an {@link InputLimitExceededException} is thrown, without reading
+ * or buffering any further. If the size of the input is known up front, an
+ * oversized body is rejected before any of it is read.
+ *   <p>
+ * As with {@link QueryStringValues}, a '%' that isn't followed by two hex
+ * digits is kept as-is, and empty parameters (as in "a=1&amp;&amp;b=2") are
+ * skipped.
+ *
+ * @author ajohnston
+ */
+public class FormUrlEncodedDecoder
+{
+  private static final int BUFFER_SIZE = 8_192;
+
+  private final InputLimits               limits;
+  private final Map<String, List<String>> values;
+  private       byte[]                    token;
+  private       int                       tokenLength;
+  /**
+   * The number of encoded bytes making up the current token.
+   */
+  private       int                       encodedLength;
+  private       String                    name;
+  private       int                       escape = -1;
+  private       int                       escapeDigits;
+  private       byte                      escapeFirst;
+  private       long                      totalBytes;
+  private       int                       parameters;
+
+  protected FormUrlEncodedDecoder(InputLimits limits)
+  {
+    this.limits = limits != null ? limits : new InputLimits();
+    this.values = new LinkedHashMap<>();
+    this.token = new byte[64];
+  }
+
+  /**
+   * Decodes the given stream until its end. The stream is not closed.
+   */
+  public static Values decode(InputStream in, InputLimits limits)
+      throws IOException
+  {
+    return decode(in, -1, limits);
+  }
+
+  /**
+   * Decodes the given stream until its end. The stream is not closed.
+   *
+   * @param contentLength the declared size of the input, such as from a
+   *                      Content-Length header, or -1 if unknown. Input
+   *                      declared larger than the limit is rejected
+   *                      without being read.
+   */
+  public static Values decode(InputStream in, long contentLength,
+                              InputLimits limits)
+      throws IOException
+  {
+    FormUrlEncodedDecoder decoder = new FormUrlEncodedDecoder(limits);
+    decoder.checkTotalBytes(contentLength);
+    byte[] buffer = new byte[BUFFER_SIZE];
+    int read;
+    while ((read = in.read(buffer)) != -1)
+    {
+      decoder.accept(buffer, 0, read);
+    }
+    return decoder.finish();
+  }
+
+  /**
+   * Decodes the remaining bytes of the given buffer, leaving its position at
+   * its limit.
+   */
+  public static Values decode(ByteBuffer buffer, InputLimits limits)
+      throws InputLimitExceededException
+  {
+    FormUrlEncodedDecoder decoder = new FormUrlEncodedDecoder(limits);
+    decoder.checkTotalBytes(buffer.remaining());
+    if (buffer.hasArray())
+    {
+      decoder.accept(buffer.array(), buffer.arrayOffset() + buffer.position(),
+          buffer.remaining());
+      buffer.position(buffer.limit());
+    }
+    else
+    {
+      byte[] chunk = new byte[Math.min(BUFFER_SIZE, buffer.remaining())];
+      while (buffer.hasRemaining())
+      {
+        int length = Math.min(chunk.length, buffer.remaining());
+        buffer.get(chunk, 0, length);
+        decoder.accept(chunk, 0, length);
+      }
+    }
+    return decoder.finish();
+  }
+
+  /**
+   * Decodes the next chunk of input.
+   */
+  protected void accept(byte[] bytes, int offset, int length)
+      throws InputLimitExceededException
+  {
+    checkTotalBytes(totalBytes += length);
+    final int end = offset + length;
+    for (int i = offset; i < end; i++)
+    {
+      final byte b = bytes[i];
+      if (b == '&')
+      {
+        endParameter();
+        continue;
+      }
+      if (b == '=' && name == null)
+      {
+        endName();
+        continue;
+      }
+      encodedLength++;
+      checkTokenLength();
+      if (escape >= 0)
+      {
+        int digit = hexDigit(b);
+        if (digit >= 0)
+        {
+          escape = (escape << 4) | digit;
+          escapeFirst = b;
+          if (++escapeDigits == 2)
+          {
+            append((byte)escape);
+            escape = -1;
+          }
+          continue;
+        }
+        // Not an escape after all, so keep what was read as-is.
+        flushEscape();
+      }
+      if (b == '%')
+      {
+        escape = 0;
+        escapeDigits = 0;
+      }
+      else
+      {
+        append(b == '+' ? (byte)' ' : b);
+      }
+    }
+  }
+
+  /**
+   * Completes the final parameter.
+   *
+   * @return the decoded values
+   */
+  protected Values finish()
+      throws InputLimitExceededException
+  {
+    endParameter();
+    return new MapValues(values);
+  }
+
+  private void endName()
+  {
+    flushEscape();
+    name = tokenString();
+  }
+
+  private void endParameter()
+      throws InputLimitExceededException
+  {
+    flushEscape();
+    if (name == null)
+    {
+      if (tokenLength == 0 && encodedLength == 0)
+      {
+        // An empty parameter.
+        return;
+      }
+      name = tokenString();
+    }
+    if (InputLimits.exceeds(++parameters, limits.getMaxParameters()))
+    {
+      throw new InputLimitExceededException("maxParameters",
+          limits.getMaxParameters());
+    }
+    List<String> valuesAtName = values.computeIfAbsent(name,
+        key -> new ArrayList<>(1));
+    if (InputLimits.exceeds(valuesAtName.size() + 1,
+        limits.getMaxValuesPerName()))
+    {
+      throw new InputLimitExceededException("maxValuesPerName",
+          limits.getMaxValuesPerName());
+    }
+    valuesAtName.add(tokenString());
+    name = null;
+  }
+
+  private void checkTotalBytes(long totalBytes)
+      throws InputLimitExceededException
+  {
+    if (InputLimits.exceeds(totalBytes, limits.getMaxTotalBytes()))
+    {
+      throw new InputLimitExceededException("maxTotalBytes",
+          limits.getMaxTotalBytes());
+    }
+  }
+
+  private void checkTokenLength()
+      throws InputLimitExceededException
+  {
+    if (name == null)
+    {
+      if (InputLimits.exceeds(encodedLength, limits.getMaxNameLength()))
+      {
+        throw new InputLimitExceededException("maxNameLength",
+            limits.getMaxNameLength());
+      }
+    }
+    else if (InputLimits.exceeds(encodedLength, limits.getMaxValueLength()))
+    {
+      throw new InputLimitExceededException("maxValueLength",
+          limits.getMaxValueLength());
+    }
+  }
+
+  /**
+   * Appends an incomplete escape as it was read.
+   */
+  private void flushEscape()
+  {
+    if (escape >= 0)
+    {
+      append((byte)'%');
+      if (escapeDigits == 1)
+      {
+        append(escapeFirst);
+      }
+      escape = -1;
+    }
+  }
+
+  private void append(byte b)
+  {
+    if (tokenLength == token.length)
+    {
+      // Never more than the encoded length, which has already been checked.
+      token = Arrays.copyOf(token, token.length * 2);
+    }
+    token[tokenLength++] = b;
+  }
+
+  private String tokenString()
+  {
+    String string = new String(token, 0, tokenLength, StandardCharsets.UTF_8);
+    tokenLength = 0;
+    encodedLength = 0;
+    return string;
+  }
+
+  private static int hexDigit(byte b)
+  {
+    if (b >= '0' && b <= '9')
+    {
+      return b - '0';
+    }
+    if (b >= 'a' && b <= 'f')
+    {
+      return b - 'a' + 10;
+    }
+    if (b >= 'A' && b <= 'F')
+    {
+      return b - 'A' + 10;
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,48 @@
+package io.github.ajohnstonte.gemini.input;
+
+import java.io.IOException;
+
+/**
+ * Thrown when user-provided input exceeds one of its {@link InputLimits}.
+ * Input is read no further once this has been thrown. Oversized and hostile
+ * submissions are expected, so no stack trace is filled in; the limit and
+ * its maximum say all there is to say.
+ *
+ * @author ajohnston
+ */
+public class InputLimitExceededException
+    extends IOException
+{
+  private final String limit;
+  private final long   maximum;
+
+  public InputLimitExceededException(String limit, long maximum)
+  {
+    super("Input exceeds its " + limit + " limit of " + maximum + ".");
+    this.limit = limit;
+    this.maximum = maximum;
+  }
+
+  @Override
+  public synchronized Throwable fillInStackTrace()
+  {
+    return this;
+  }
+
+  /**
+   * @return the name of the limit that was exceeded, such as
+   * "maxTotalBytes"
+   */
+  public String getLimit()
+  {
+    return limit;
+  }
+
+  /**
+   * @return the value of the limit that was exceeded
+   */
+  public long getMaximum()
+  {
+    return maximum;
+  }
+}
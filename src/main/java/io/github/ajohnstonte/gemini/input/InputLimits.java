@@ -0,0 +1,319 @@
+package io.github.ajohnstonte.gemini.input;
+
+/**
+ * Limits enforced while reading user-provided input, such as by
+ * {@link FormUrlEncodedDecoder}. Input exceeding any of these is rejected as
+ * soon as the limit is reached, rather than after it has been buffered.
+ * Input that has already been read can be checked against these with
+ * {@link Values#checkLimits(InputLimits)}.
+ *   <p>
+ * The defaults are generous enough for ordinary forms. A limit of zero or
+ * less is treated as no limit.
+ *
+ * @author ajohnston
+ */
+public class InputLimits
+{
+  private int  maxParameters     = 1_000;
+  private int  maxValuesPerName  = 100;
+  private int  maxNameLength     = 1_024;
+  private int  maxValueLength    = 1_048_576;
+  private long maxTotalBytes     = 2_097_152;
+
+  /**
+   * @return the maximum number of parameters, counting each value of a
+   * repeated name separately
+   */
+  public int getMaxParameters()
+  {
+    return maxParameters;
+  }
+
+  public InputLimits setMaxParameters(int maxParameters)
+  {
+    this.maxParameters = maxParameters;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of values under a single name
+   */
+  public int getMaxValuesPerName()
+  {
+    return maxValuesPerName;
+  }
+
+  public InputLimits setMaxValuesPerName(int maxValuesPerName)
+  {
+    this.maxValuesPerName = maxValuesPerName;
+    return this;
+  }
+
+  /**
+   * @return the maximum length of a parameter name, in encoded bytes
+   */
+  public int getMaxNameLength()
+  {
+    return maxNameLength;
+  }
+
+  public InputLimits setMaxNameLength(int maxNameLength)
+  {
+    this.maxNameLength = maxNameLength;
+    return this;
+  }
+
+  /**
+   * @return the maximum length of a single parameter value, in encoded bytes
+   */
+  public int getMaxValueLength()
+  {
+    return maxValueLength;
+  }
+
+  public InputLimits setMaxValueLength(int maxValueLength)
+  {
+    this.maxValueLength = maxValueLength;
+    return this;
+  }
+
+  /**
+   * @return the maximum size of the input as a whole, in encoded bytes
+   */
+  public long getMaxTotalBytes()
+  {
+    return maxTotalBytes;
+  }
+
+  public InputLimits setMaxTotalBytes(long maxTotalBytes)
+  {
+    this.maxTotalBytes = maxTotalBytes;
+    return this;
+  }
+
+  /**
+   * @return a new counter for checking a single input against these limits
+   */
+  public Counter newCounter()
+  {
+    return new Counter(this);
+  }
+
+  /**
+   * @return true if the given amount exceeds the given limit, where a limit
+   * of zero or less means no limit
+   */
+  static boolean exceeds(long amount, long limit)
+  {
+    return limit > 0 && amount > limit;
+  }
+
+  /**
+   * Checks the parameters of a single input against the limits as they are
+   * counted, throwing as soon as one is exceeded. Lengths are in whatever
+   * unit the input is measured in: encoded bytes for raw input, or
+   * characters for input that has already been decoded.
+   */
+  public static class Counter
+  {
+    private final InputLimits  limits;
+    private final NameCounts   valuesPerName;
+    private       int          parameters;
+    private       long         totalBytes;
+
+    private Counter(InputLimits limits)
+    {
+      this.limits = limits;
+      this.valuesPerName = limits.getMaxValuesPerName() > 0
+          ? new NameCounts()
+          : null;
+    }
+
+    /**
+     * @return true if the names of parameters are needed, for counting the
+     * values under each name. If false, null may be given as the name.
+     */
+    public boolean isCountingNames()
+    {
+      return valuesPerName != null;
+    }
+
+    /**
+     * Counts a single parameter.
+     *
+     * @param name        the parameter's name, which may be null if names
+     *                    aren't being counted
+     * @param nameLength  the length of the parameter's name
+     * @param valueLength the length of the parameter's value
+     */
+    public void add(CharSequence name, int nameLength, int valueLength)
+        throws InputLimitExceededException
+    {
+      count(name, 0, name != null ? name.length() : 0, nameLength,
+          valueLength);
+    }
+
+    /**
+     * Counts a single parameter whose name is a slice of some larger input,
+     * such as a raw query string, without copying the name out of it.
+     *
+     * @param source      the input holding the parameter's name
+     * @param nameStart   the index of the name's first character
+     * @param nameEnd     the index after the name's last character
+     * @param valueLength the length of the parameter's value
+     */
+    public void add(CharSequence source, int nameStart, int nameEnd,
+                    int valueLength)
+        throws InputLimitExceededException
+    {
+      count(source, nameStart, nameEnd, nameEnd - nameStart, valueLength);
+    }
+
+    private void count(CharSequence source, int nameStart, int nameEnd,
+                       int nameLength, int valueLength)
+        throws InputLimitExceededException
+    {
+      if (exceeds(++parameters, limits.getMaxParameters()))
+      {
+        throw new InputLimitExceededException("maxParameters",
+            limits.getMaxParameters());
+      }
+      if (exceeds(nameLength, limits.getMaxNameLength()))
+      {
+        throw new InputLimitExceededException("maxNameLength",
+            limits.getMaxNameLength());
+      }
+      if (exceeds(valueLength, limits.getMaxValueLength()))
+      {
+        throw new InputLimitExceededException("maxValueLength",
+            limits.getMaxValueLength());
+      }
+      addBytes(nameLength + valueLength);
+      if (valuesPerName != null
+          && exceeds(valuesPerName.increment(source, nameStart, nameEnd),
+              limits.getMaxValuesPerName()))
+      {
+        throw new InputLimitExceededException("maxValuesPerName",
+            limits.getMaxValuesPerName());
+      }
+    }
+
+    /**
+     * Counts input towards the total size alone, such as for input whose
+     * parameters can't be enumerated.
+     */
+    public void addBytes(long bytes)
+        throws InputLimitExceededException
+    {
+      if (exceeds(totalBytes += bytes, limits.getMaxTotalBytes()))
+      {
+        throw new InputLimitExceededException("maxTotalBytes",
+            limits.getMaxTotalBytes());
+      }
+    }
+  }
+
+  /**
+   * Counts the values under each name, where names are slices of the input
+   * they were read from. An open-addressed table of the slices, so that no
+   * name is copied out of its input to be counted.
+   */
+  private static final class NameCounts
+  {
+    private CharSequence[] sources = new CharSequence[16];
+    private int[]          starts  = new int[16];
+    private int[]          ends    = new int[16];
+    private int[]          hashes  = new int[16];
+    private int[]          counts  = new int[16];
+    private int            size;
+
+    /**
+     * @return the number of values counted under the name, including this
+     * one
+     */
+    int increment(CharSequence source, int start, int end)
+    {
+      if (source == null)
+      {
+        source = "null";
+        start = 0;
+        end = 4;
+      }
+      int hash = 0;
+      for (int i = start; i < end; i++)
+      {
+        hash = 31 * hash + source.charAt(i);
+      }
+      int mask = sources.length - 1;
+      int slot = (hash ^ (hash >>> 16)) & mask;
+      while (sources[slot] != null)
+      {
+        if (hashes[slot] == hash
+            && matches(sources[slot], starts[slot], ends[slot], source, start, end))
+        {
+          return ++counts[slot];
+        }
+        slot = (slot + 1) & mask;
+      }
+      sources[slot] = source;
+      starts[slot] = start;
+      ends[slot] = end;
+      hashes[slot] = hash;
+      counts[slot] = 1;
+      if (++size * 2 > sources.length)
+      {
+        grow();
+      }
+      return 1;
+    }
+
+    private static boolean matches(CharSequence a, int aStart, int aEnd,
+                                   CharSequence b, int bStart, int bEnd)
+    {
+      if (aEnd - aStart != bEnd - bStart)
+      {
+        return false;
+      }
+      for (int i = 0; i < aEnd - aStart; i++)
+      {
+        if (a.charAt(aStart + i) != b.charAt(bStart + i))
+        {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private void grow()
+    {
+      CharSequence[] oldSources = sources;
+      int[] oldStarts = starts;
+      int[] oldEnds = ends;
+      int[] oldHashes = hashes;
+      int[] oldCounts = counts;
+      int capacity = oldSources.length * 2;
+      sources = new CharSequence[capacity];
+      starts = new int[capacity];
+      ends = new int[capacity];
+      hashes = new int[capacity];
+      counts = new int[capacity];
+      int mask = capacity - 1;
+      for (int i = 0; i < oldSources.length; i++)
+      {
+        if (oldSources[i] != null)
+        {
+          int slot = (oldHashes[i] ^ (oldHashes[i] >>> 16)) & mask;
+          while (sources[slot] != null)
+          {
+            slot = (slot + 1) & mask;
+          }
+          sources[slot] = oldSources[i];
+          starts[slot] = oldStarts[i];
+          ends[slot] = oldEnds[i];
+          hashes[slot] = oldHashes[i];
+          counts[slot] = oldCounts[i];
+        }
+      }
+    }
+  }
+}
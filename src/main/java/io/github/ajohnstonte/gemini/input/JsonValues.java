@@ -0,0 +1,819 @@
+package io.github.ajohnstonte.gemini.input;
+
+import io.github.ajohnstonte.helper.BoxedNumberHelper;
+import io.github.ajohnstonte.helper.EnumLookup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An implementation of the {@link Values} class that reads from a JSON
+ * document, such as the body of an API request, without building a tree.
+ *   <p>
+ * Names are either the name of a member of the top-level object, or a
+ * dotted path to a member of a nested object, such as "address.city". A
+ * member whose value is a string, number or boolean has that single value,
+ * and a member whose value is an array has each of the array's string,
+ * number and boolean elements as its values. Null, object and nested array
+ * values are treated as missing.
+ *   <p>
+ * The document is scanned only for the names that are asked for, either as
+ * each is first requested or all at once when given to the constructor, and
+ * everything else is skipped over without being decoded. Only the boundaries
+ * of matching values are recorded; strings are unescaped when read, and
+ * numbers are parsed directly from the document by the typed accessors.
+ *   <p>
+ * A malformed document is not rejected outright: values found before the
+ * problem are still available, and {@link #isMalformed()} reports it. Like
+ * the values of a request, instances are not thread-safe.
+ *
+ * @author ajohnston
+ */
+public class JsonValues
+    extends Values
+{
+  private static final Slice[] NONE = new Slice[0];
+
+  private final CharSequence         json;
+  private final Map<String, Slice[]> found;
+  private       boolean              malformed;
+
+  public JsonValues(CharSequence json)
+  {
+    this.json = json != null ? json : "";
+    this.found = new HashMap<>();
+  }
+
+  /**
+   * Constructor. Finds the values of all of the given names in a single
+   * pass over the document, such as the names of a form's fields.
+   */
+  public JsonValues(CharSequence json, Collection<String> names)
+  {
+    this(json);
+    scan(names);
+  }
+
+  /**
+   * @return true if the document was found to be malformed while scanning
+   * it. Only as much of the document as needed is scanned, so problems may
+   * go unnoticed until a later name is requested.
+   */
+  public boolean isMalformed()
+  {
+    return malformed;
+  }
+
+  @Override
+  public boolean has(String name)
+  {
+    return slices(name).length > 0;
+  }
+
+  @Override
+  public String get(String name, String defaultValue)
+  {
+    Slice[] slices = slices(name);
+    return slices.length > 0 ? slices[0].getString(json) : defaultValue;
+  }
+
+  @Override
+  public String[] getStrings(String name, String[] defaultValue)
+  {
+    Slice[] slices = slices(name);
+    if (slices.length == 0)
+    {
+      return defaultValue;
+    }
+    String[] values = new String[slices.length];
+    for (int i = 0; i < slices.length; i++)
+    {
+      values[i] = slices[i].getString(json);
+    }
+    return values;
+  }
+
+  @Override
+  public int[] getInts(String name)
+  {
+    Slice[] slices = slices(name);
+    if (slices.length == 0)
+    {
+      return null;
+    }
+    int[] values = new int[slices.length];
+    for (int i = 0; i < slices.length; i++)
+    {
+      values[i] = slices[i].escaped
+          ? BoxedNumberHelper.parseInt(slices[i].getString(json), 0)
+          : BoxedNumberHelper.parseInt(json, slices[i].start, slices[i].end, 0);
+    }
+    return values;
+  }
+
+  @Override
+  public long[] getLongs(String name)
+  {
+    Slice[] slices = slices(name);
+    if (slices.length == 0)
+    {
+      return null;
+    }
+    long[] values = new long[slices.length];
+    for (int i = 0; i < slices.length; i++)
+    {
+      values[i] = slices[i].escaped
+          ? BoxedNumberHelper.parseLong(slices[i].getString(json), 0L)
+          : BoxedNumberHelper.parseLong(json, slices[i].start, slices[i].end, 0L);
+    }
+    return values;
+  }
+
+  @Override
+  public Integer getInt(String name, Integer defaultValue)
+  {
+    Slice slice = first(name);
+    if (slice == null)
+    {
+      return defaultValue;
+    }
+    return slice.escaped
+        ? BoxedNumberHelper.parseInt(slice.getString(json), defaultValue)
+        : BoxedNumberHelper.parseInt(json, slice.start, slice.end, defaultValue);
+  }
+
+  @Override
+  public Long getLong(String name, Long defaultValue)
+  {
+    Slice slice = first(name);
+    if (slice == null)
+    {
+      return defaultValue;
+    }
+    return slice.escaped
+        ? BoxedNumberHelper.parseLong(slice.getString(json), defaultValue)
+        : BoxedNumberHelper.parseLong(json, slice.start, slice.end, defaultValue);
+  }
+
+  @Override
+  public Double getDouble(String name, Double defaultValue)
+  {
+    Slice slice = first(name);
+    if (slice == null)
+    {
+      return defaultValue;
+    }
+    return slice.escaped
+        ? BoxedNumberHelper.parseDouble(slice.getString(json), defaultValue)
+        : BoxedNumberHelper.parseDouble(json, slice.start, slice.end, defaultValue);
+  }
+
+  @Override
+  public Float getFloat(String name, Float defaultValue)
+  {
+    Slice slice = first(name);
+    if (slice == null)
+    {
+      return defaultValue;
+    }
+    return slice.escaped
+        ? BoxedNumberHelper.parseFloat(slice.getString(json), defaultValue)
+        : BoxedNumberHelper.parseFloat(json, slice.start, slice.end, defaultValue);
+  }
+
+  @Override
+  public <O extends Enum<O>> O getEnum(String name, Class<O> type, O defaultValue)
+  {
+    return EnumLookup.of(type).get(get(name), defaultValue);
+  }
+
+  /**
+   * The members of the document aren't enumerated, so only its total size
+   * is counted.
+   */
+  @Override
+  protected void countParameters(InputLimits.Counter counter)
+      throws InputLimitExceededException
+  {
+    counter.addBytes(json.length());
+  }
+
+  private Slice first(String name)
+  {
+    Slice[] slices = slices(name);
+    return slices.length > 0 ? slices[0] : null;
+  }
+
+  private Slice[] slices(String name)
+  {
+    Slice[] slices = found.get(name);
+    if (slices == null)
+    {
+      scan(Collections.singleton(name));
+      slices = found.get(name);
+    }
+    return slices;
+  }
+
+  /**
+   * Scans the document once for all of the given names that haven't already
+   * been scanned for.
+   */
+  private void scan(Collection<String> names)
+  {
+    PathNode root = new PathNode(null);
+    boolean any = false;
+    for (String name : names)
+    {
+      if (!found.containsKey(name))
+      {
+        root.add(name);
+        any = true;
+      }
+    }
+    if (!any)
+    {
+      return;
+    }
+    Map<String, List<Slice>> matches = new HashMap<>();
+    Scanner scanner = new Scanner(json);
+    try
+    {
+      scanner.skipWhitespace();
+      scanner.readValue(root, matches);
+    }
+    catch (MalformedJsonException e)
+    {
+      malformed = true;
+    }
+    for (String name : names)
+    {
+      if (!found.containsKey(name))
+      {
+        List<Slice> slices = matches.get(name);
+        found.put(name, slices != null ? slices.toArray(NONE) : NONE);
+      }
+    }
+  }
+
+  /**
+   * A requested path, as a tree of member names.
+   */
+  private static class PathNode
+  {
+    private final String         segment;
+    private final List<PathNode> children = new ArrayList<>(2);
+    private       String         name;
+
+    PathNode(String segment)
+    {
+      this.segment = segment;
+    }
+
+    void add(String name)
+    {
+      PathNode node = this;
+      int start = 0;
+      while (true)
+      {
+        int dot = name.indexOf('.', start);
+        String segment = name.substring(start, dot >= 0 ? dot : name.length());
+        PathNode child = null;
+        for (PathNode existing : node.children)
+        {
+          if (existing.segment.equals(segment))
+          {
+            child = existing;
+            break;
+          }
+        }
+        if (child == null)
+        {
+          child = new PathNode(segment);
+          node.children.add(child);
+        }
+        node = child;
+        if (dot < 0)
+        {
+          break;
+        }
+        start = dot + 1;
+      }
+      node.name = name;
+    }
+  }
+
+  /**
+   * The boundaries of a single string, number or boolean value. For strings,
+   * excludes the quotes.
+   */
+  private static class Slice
+  {
+    private final int     start;
+    private final int     end;
+    private final boolean escaped;
+    private       String  string;
+
+    Slice(int start, int end, boolean escaped)
+    {
+      this.start = start;
+      this.end = end;
+      this.escaped = escaped;
+    }
+
+    String getString(CharSequence json)
+    {
+      if (string == null)
+      {
+        string = escaped
+            ? unescape(json, start, end)
+            : json.subSequence(start, end).toString();
+      }
+      return string;
+    }
+  }
+
+  private static class MalformedJsonException
+      extends RuntimeException
+  {
+    MalformedJsonException()
+    {
+      super(null, null, false, false);
+    }
+  }
+
+  /**
+   * Reads through the document, recording the values of the requested paths
+   * and skipping everything else.
+   */
+  private static class Scanner
+  {
+    private final CharSequence json;
+    private final int          length;
+    private       int          position;
+    /**
+     * Whether the most recently read string contained escapes.
+     */
+    private       boolean      escaped;
+
+    Scanner(CharSequence json)
+    {
+      this.json = json;
+      this.length = json.length();
+    }
+
+    /**
+     * Reads the value at the current position, recording it if it belongs
+     * to a requested name.
+     */
+    void readValue(PathNode node, Map<String, List<Slice>> matches)
+    {
+      char c = peek();
+      if (c == '{' && !node.children.isEmpty())
+      {
+        readObject(node, matches);
+      }
+      else if (c == '[' && node.name != null)
+      {
+        readArray(node.name, matches);
+      }
+      else if (node.name != null && c != '{' && c != '[')
+      {
+        Slice slice = readScalar();
+        if (slice != null)
+        {
+          matches.computeIfAbsent(node.name, key -> new ArrayList<>(1))
+              .add(slice);
+        }
+      }
+      else
+      {
+        skipValue();
+      }
+    }
+
+    private void readObject(PathNode node, Map<String, List<Slice>> matches)
+    {
+      position++;
+      skipWhitespace();
+      if (peek() == '}')
+      {
+        position++;
+        return;
+      }
+      while (true)
+      {
+        expect('"');
+        int start = position;
+        int end = readStringEnd();
+        PathNode child = findChild(node, start, end);
+        skipWhitespace();
+        expect(':');
+        skipWhitespace();
+        if (child != null)
+        {
+          readValue(child, matches);
+        }
+        else
+        {
+          skipValue();
+        }
+        skipWhitespace();
+        char c = next();
+        if (c == '}')
+        {
+          return;
+        }
+        if (c != ',')
+        {
+          throw new MalformedJsonException();
+        }
+        skipWhitespace();
+      }
+    }
+
+    private void readArray(String name, Map<String, List<Slice>> matches)
+    {
+      position++;
+      skipWhitespace();
+      if (peek() == ']')
+      {
+        position++;
+        return;
+      }
+      while (true)
+      {
+        char c = peek();
+        if (c == '{' || c == '[')
+        {
+          skipValue();
+        }
+        else
+        {
+          Slice slice = readScalar();
+          if (slice != null)
+          {
+            matches.computeIfAbsent(name, key -> new ArrayList<>())
+                .add(slice);
+          }
+        }
+        skipWhitespace();
+        c = next();
+        if (c == ']')
+        {
+          return;
+        }
+        if (c != ',')
+        {
+          throw new MalformedJsonException();
+        }
+        skipWhitespace();
+      }
+    }
+
+    /**
+     * @return the string, number or boolean at the current position, or null
+     * if it is null
+     */
+    private Slice readScalar()
+    {
+      if (peek() == '"')
+      {
+        position++;
+        int start = position;
+        int end = readStringEnd();
+        return new Slice(start, end, escaped);
+      }
+      int start = readLiteral();
+      if (matches(start, position, "null"))
+      {
+        return null;
+      }
+      return new Slice(start, position, false);
+    }
+
+    /**
+     * Skips the value at the current position, including any nested values,
+     * without recursing.
+     */
+    private void skipValue()
+    {
+      int depth = 0;
+      do
+      {
+        char c = peek();
+        if (c == '"')
+        {
+          position++;
+          readStringEnd();
+        }
+        else if (c == '{' || c == '[')
+        {
+          position++;
+          depth++;
+        }
+        else if (c == '}' || c == ']')
+        {
+          if (depth == 0)
+          {
+            throw new MalformedJsonException();
+          }
+          position++;
+          depth--;
+        }
+        else if (c == ',' || c == ':')
+        {
+          if (depth == 0)
+          {
+            throw new MalformedJsonException();
+          }
+          position++;
+        }
+        else if (isLiteralChar(c))
+        {
+          readLiteral();
+        }
+        else
+        {
+          throw new MalformedJsonException();
+        }
+        skipWhitespace();
+      }
+      while (depth > 0);
+    }
+
+    /**
+     * Reads to the end of the string whose opening quote has been read.
+     *
+     * @return the position of the closing quote
+     */
+    private int readStringEnd()
+    {
+      escaped = false;
+      while (position < length)
+      {
+        char c = json.charAt(position++);
+        if (c == '"')
+        {
+          return position - 1;
+        }
+        if (c == '\\')
+        {
+          escaped = true;
+          position++;
+        }
+      }
+      throw new MalformedJsonException();
+    }
+
+    private PathNode findChild(PathNode node, int start, int end)
+    {
+      if (escaped)
+      {
+        String key = unescape(json, start, end);
+        for (PathNode child : node.children)
+        {
+          if (child.segment.equals(key))
+          {
+            return child;
+          }
+        }
+        return null;
+      }
+      for (PathNode child : node.children)
+      {
+        if (matches(start, end, child.segment))
+        {
+          return child;
+        }
+      }
+      return null;
+    }
+
+    private boolean matches(int start, int end, String string)
+    {
+      if (end - start != string.length())
+      {
+        return false;
+      }
+      for (int i = start; i < end; i++)
+      {
+        if (json.charAt(i) != string.charAt(i - start))
+        {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    void skipWhitespace()
+    {
+      while (position < length)
+      {
+        char c = json.charAt(position);
+        if (c != ' ' && c != '\t' && c != '\n' && c != '\r')
+        {
+          return;
+        }
+        position++;
+      }
+    }
+
+    private char peek()
+    {
+      if (position >= length)
+      {
+        throw new MalformedJsonException();
+      }
+      return json.charAt(position);
+    }
+
+    private char next()
+    {
+      char c = peek();
+      position++;
+      return c;
+    }
+
+    private void expect(char expected)
+    {
+      if (next() != expected)
+      {
+        throw new MalformedJsonException();
+      }
+    }
+
+    /**
+     * Reads the literal at the current position, which must be true, false,
+     * null or a number.
+     *
+     * @return the start of the literal, with the position left at its end
+     */
+    private int readLiteral()
+    {
+      int start = position;
+      while (position < length && isLiteralChar(json.charAt(position)))
+      {
+        position++;
+      }
+      if (!matches(start, position, "true")
+          && !matches(start, position, "false")
+          && !matches(start, position, "null")
+          && !isNumber(start, position))
+      {
+        throw new MalformedJsonException();
+      }
+      return start;
+    }
+
+    /**
+     * @return true if the characters from start to end follow JSON's number
+     * grammar
+     */
+    private boolean isNumber(int start, int end)
+    {
+      int i = start;
+      if (i < end && json.charAt(i) == '-')
+      {
+        i++;
+      }
+      if (i < end && json.charAt(i) == '0')
+      {
+        i++;
+      }
+      else
+      {
+        int digits = i;
+        i = skipDigits(i, end);
+        if (i == digits)
+        {
+          return false;
+        }
+      }
+      if (i < end && json.charAt(i) == '.')
+      {
+        int digits = ++i;
+        i = skipDigits(i, end);
+        if (i == digits)
+        {
+          return false;
+        }
+      }
+      if (i < end && (json.charAt(i) == 'e' || json.charAt(i) == 'E'))
+      {
+        i++;
+        if (i < end && (json.charAt(i) == '+' || json.charAt(i) == '-'))
+        {
+          i++;
+        }
+        int digits = i;
+        i = skipDigits(i, end);
+        if (i == digits)
+        {
+          return false;
+        }
+      }
+      return i == end;
+    }
+
+    private int skipDigits(int i, int end)
+    {
+      while (i < end && json.charAt(i) >= '0' && json.charAt(i) <= '9')
+      {
+        i++;
+      }
+      return i;
+    }
+
+    private static boolean isLiteralChar(char c)
+    {
+      return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z')
+          || c == '-' || c == '+' || c == '.' || c == 'E';
+    }
+  }
+
+  /**
+   * Decodes the escapes within a string. Invalid escapes are kept as-is.
+   */
+  static String unescape(CharSequence json, int start, int end)
+  {
+    StringBuilder unescaped = new StringBuilder(end - start);
+    int i = start;
+    while (i < end)
+    {
+      char c = json.charAt(i++);
+      if (c != '\\' || i >= end)
+      {
+        unescaped.append(c);
+        continue;
+      }
+      char escape = json.charAt(i++);
+      switch (escape)
+      {
+        case 'b':
+          unescaped.append('\b');
+          break;
+        case 'f':
+          unescaped.append('\f');
+          break;
+        case 'n':
+          unescaped.append('\n');
+          break;
+        case 'r':
+          unescaped.append('\r');
+          break;
+        case 't':
+          unescaped.append('\t');
+          break;
+        case 'u':
+          int code = i + 4 <= end ? hexValue(json, i, i + 4) : -1;
+          if (code >= 0)
+          {
+            unescaped.append((char)code);
+            i += 4;
+          }
+          else
+          {
+            unescaped.append('\\').append(escape);
+          }
+          break;
+        default:
+          // Includes \", \\ and \/.
+          unescaped.append(escape);
+      }
+    }
+    return unescaped.toString();
+  }
+
+  private static int hexValue(CharSequence chars, int start, int end)
+  {
+    int value = 0;
+    for (int i = start; i < end; i++)
+    {
+      char c = chars.charAt(i);
+      int digit;
+      if (c >= '0' && c <= '9')
+      {
+        digit = c - '0';
+      }
+      else if (c >= 'a' && c <= 'f')
+      {
+        digit = c - 'a' + 10;
+      }
+      else if (c >= 'A' && c <= 'F')
+      {
+        digit = c - 'A' + 10;
+      }
+      else
+      {
+        return -1;
+      }
+      value = (value << 4) | digit;
+    }
+    return value;
+  }
+}
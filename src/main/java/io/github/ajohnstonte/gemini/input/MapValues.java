@@ -1,14 +1,19 @@
 package io.github.ajohnstonte.gemini.input;
 
 import com.techempower.helper.CollectionHelper;
+import io.github.ajohnstonte.helper.EnumLookup;
+import io.github.ajohnstonte.helper.PerfectHash;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
- * An implementation of the {@link Values} class using a {@link Map}.
+ * An implementation of the {@link Values} class using a {@link Map}. Arrays
+ * of values are built and parsed once per name, then copied each time they
+ * are handed out.
  *
  * @author ajohnston
  */
@@ -17,6 +22,7 @@ public class MapValues
 {
   private static final List<String>              EMPTY_LIST = Collections.emptyList();
   private              Map<String, List<String>> values;
+  private final        ParsedValues              parsed = new ParsedValues();
   
   public MapValues(Map<String, List<String>> values)
   {
@@ -32,7 +38,7 @@ public class MapValues
   @Override
   public String get(String name, String defaultValue)
   {
-    List<String> valuesAtKey = values.getOrDefault(name, EMPTY_LIST);
+    List<String> valuesAtKey = list(name);
     String value = valuesAtKey.size() > 0 ? valuesAtKey.get(0) : null;
     return value != null ? value : defaultValue;
   }
@@ -40,43 +46,119 @@ public class MapValues
   @Override
   public String[] getStrings(String name, String[] defaultValue)
   {
-    List<String> valuesAtKey = values.getOrDefault(name, EMPTY_LIST);
-    return valuesAtKey.size() > 0 ? valuesAtKey.toArray(new String[0]) : defaultValue;
+    String[] strings = strings(name);
+    return strings != null ? strings.clone() : defaultValue;
+  }
+  
+  /**
+   * @return a read-only list over a copy of the name's values, so that
+   * later changes to the caller's list aren't seen through it
+   */
+  @Override
+  public List<String> getStringList(String name)
+  {
+    String[] strings = strings(name);
+    if (strings == null)
+    {
+      return null;
+    }
+    ParsedValues.Entry entry = parsed.get(name);
+    if (entry.stringList == null)
+    {
+      entry.stringList = Collections.unmodifiableList(Arrays.asList(strings));
+    }
+    return entry.stringList;
   }
   
   @Override
   public int[] getInts(String name)
   {
-    final String[] values = getStrings(name);
-    return (values != null)
-        ? CollectionHelper.toIntArray(values)
-        : null;
+    final String[] values = strings(name);
+    if (values == null)
+    {
+      return null;
+    }
+    ParsedValues.Entry entry = parsed.get(name);
+    if (entry.ints == null)
+    {
+      entry.ints = CollectionHelper.toIntArray(values);
+    }
+    return entry.ints.clone();
   }
   
   @Override
   public long[] getLongs(String name)
   {
-    final String[] values = getStrings(name);
-    return (values != null)
-        ? CollectionHelper.toLongArray(values)
-        : null;
+    final String[] values = strings(name);
+    if (values == null)
+    {
+      return null;
+    }
+    ParsedValues.Entry entry = parsed.get(name);
+    if (entry.longs == null)
+    {
+      entry.longs = CollectionHelper.toLongArray(values);
+    }
+    return entry.longs.clone();
   }
   
   @Override
-  public <O extends Enum<O>> O getEnum(String name, Class<O> type, O defaultValue)
+  public String[][] collect(PerfectHash names)
   {
-    final String value = get(name);
-    if (value == null)
+    String[][] slots = new String[names.size()][];
+    for (String name : values.keySet())
     {
-      return defaultValue;
+      int slot = names.indexOf(name);
+      if (slot >= 0)
+      {
+        slots[slot] = strings(name);
+      }
     }
-    try
+    return slots;
+  }
+  
+  @Override
+  protected void countParameters(InputLimits.Counter counter)
+      throws InputLimitExceededException
+  {
+    for (Map.Entry<String, List<String>> entry : values.entrySet())
     {
-      return Enum.valueOf(type, value);
+      String name = entry.getKey();
+      for (String value : list(name))
+      {
+        counter.add(name, name.length(), value != null ? value.length() : 0);
+      }
     }
-    catch (IllegalArgumentException e)
+  }
+  
+  private List<String> list(String name)
+  {
+    List<String> valuesAtKey = values.get(name);
+    return valuesAtKey != null ? valuesAtKey : EMPTY_LIST;
+  }
+  
+  /**
+   * @return the shared array of values for the name, or null if there are
+   * none
+   */
+  private String[] strings(String name)
+  {
+    List<String> valuesAtKey = list(name);
+    if (valuesAtKey.isEmpty())
+    {
+      return null;
+    }
+    ParsedValues.Entry entry = parsed.get(name);
+    if (entry.strings == null)
     {
-      return defaultValue;
+      entry.strings = valuesAtKey.toArray(new String[0]);
     }
+    return entry.strings;
+  }
+  
+  @Override
+  public <O extends Enum<O>> O getEnum(String name, Class<O> type, O defaultValue)
+  {
+    return EnumLookup.of(type).get(get(name), defaultValue);
   }
 }
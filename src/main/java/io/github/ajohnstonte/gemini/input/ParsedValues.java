@@ -0,0 +1,38 @@
+package io.github.ajohnstonte.gemini.input;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The values of each name as they have been read and parsed so far, so that
+ * reading the same name repeatedly, such as once per validator and once more
+ * to bind the field, costs a single parse. Lives as long as the
+ * {@link Values} that owns it.
+ *
+ * @author ajohnston
+ */
+class ParsedValues
+{
+  private final Map<String, Entry> entries = new HashMap<>();
+
+  /**
+   * @return the entry for the given name, created empty if needed
+   */
+  Entry get(String name)
+  {
+    return entries.computeIfAbsent(name, key -> new Entry());
+  }
+
+  /**
+   * The forms of a single name's values that have been computed so far. The
+   * arrays are shared, so must be copied before being handed out.
+   */
+  static class Entry
+  {
+    String[]     strings;
+    List<String> stringList;
+    int[]        ints;
+    long[]       longs;
+  }
+}
@@ -0,0 +1,514 @@
+package io.github.ajohnstonte.gemini.input;
+
+import io.github.ajohnstonte.helper.BoxedNumberHelper;
+import io.github.ajohnstonte.helper.EnumLookup;
+import io.github.ajohnstonte.helper.PerfectHash;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An implementation of the {@link Values} class that reads directly from a
+ * raw, URL-encoded query string or form body, such as
+ * <code>a=1&amp;b=two+words&amp;c=%E2%9C%93</code>.
+ *   <p>
+ * Nothing is copied when constructed. The boundaries of the parameters are
+ * indexed on first access, and values are only percent-decoded when they are
+ * actually read, so that requests carrying many parameters the form doesn't
+ * care about cost little more than a single scan. Numeric values are parsed
+ * straight out of the query string where they contain no escapes, and
+ * arrays of values are built once per name, then copied each time they are
+ * handed out.
+ *   <p>
+ * Like the values of a request, instances are not thread-safe.
+ *
+ * @author ajohnston
+ */
+public class QueryStringValues
+    extends Values
+{
+  private static final int[] NONE = new int[0];
+
+  private final CharSequence       queryString;
+  /**
+   * For each parameter, the start and end of its name, followed by the start
+   * and end of its value.
+   */
+  private       int[]              bounds;
+  private       int                count = -1;
+  private       String[]           decodedNames;
+  private       String[]           decodedValues;
+  private       Map<String, int[]> parametersByName;
+  private       int[]              matches;
+  private final ParsedValues       parsed = new ParsedValues();
+
+  public QueryStringValues(CharSequence queryString)
+  {
+    this.queryString = queryString != null ? queryString : "";
+  }
+
+  /**
+   * @return the raw query string these values are read from
+   */
+  public CharSequence getQueryString()
+  {
+    return queryString;
+  }
+
+  @Override
+  public boolean has(String name)
+  {
+    return parameters(name).length > 0;
+  }
+
+  @Override
+  public String get(String name, String defaultValue)
+  {
+    int[] parameters = parameters(name);
+    return parameters.length > 0 ? value(parameters[0]) : defaultValue;
+  }
+
+  @Override
+  public String[] getStrings(String name, String[] defaultValue)
+  {
+    String[] strings = strings(name);
+    return strings != null ? strings.clone() : defaultValue;
+  }
+
+  @Override
+  public List<String> getStringList(String name)
+  {
+    String[] strings = strings(name);
+    if (strings == null)
+    {
+      return null;
+    }
+    ParsedValues.Entry entry = parsed.get(name);
+    if (entry.stringList == null)
+    {
+      entry.stringList = Collections.unmodifiableList(Arrays.asList(strings));
+    }
+    return entry.stringList;
+  }
+
+  @Override
+  public int[] getInts(String name)
+  {
+    int[] parameters = parameters(name);
+    if (parameters.length == 0)
+    {
+      return null;
+    }
+    ParsedValues.Entry entry = parsed.get(name);
+    if (entry.ints == null)
+    {
+      int[] values = new int[parameters.length];
+      for (int i = 0; i < parameters.length; i++)
+      {
+        int parameter = parameters[i];
+        values[i] = needsDecoding(valueStart(parameter), valueEnd(parameter))
+            ? BoxedNumberHelper.parseInt(value(parameter), 0)
+            : BoxedNumberHelper.parseInt(queryString, valueStart(parameter),
+                valueEnd(parameter), 0);
+      }
+      entry.ints = values;
+    }
+    return entry.ints.clone();
+  }
+
+  @Override
+  public long[] getLongs(String name)
+  {
+    int[] parameters = parameters(name);
+    if (parameters.length == 0)
+    {
+      return null;
+    }
+    ParsedValues.Entry entry = parsed.get(name);
+    if (entry.longs == null)
+    {
+      long[] values = new long[parameters.length];
+      for (int i = 0; i < parameters.length; i++)
+      {
+        int parameter = parameters[i];
+        values[i] = needsDecoding(valueStart(parameter), valueEnd(parameter))
+            ? BoxedNumberHelper.parseLong(value(parameter), 0L)
+            : BoxedNumberHelper.parseLong(queryString, valueStart(parameter),
+                valueEnd(parameter), 0L);
+      }
+      entry.longs = values;
+    }
+    return entry.longs.clone();
+  }
+
+  @Override
+  public Integer getInt(String name, Integer defaultValue)
+  {
+    int[] parameters = parameters(name);
+    if (parameters.length == 0)
+    {
+      return defaultValue;
+    }
+    int parameter = parameters[0];
+    return needsDecoding(valueStart(parameter), valueEnd(parameter))
+        ? BoxedNumberHelper.parseInt(value(parameter), defaultValue)
+        : BoxedNumberHelper.parseInt(queryString, valueStart(parameter),
+            valueEnd(parameter), defaultValue);
+  }
+
+  @Override
+  public Long getLong(String name, Long defaultValue)
+  {
+    int[] parameters = parameters(name);
+    if (parameters.length == 0)
+    {
+      return defaultValue;
+    }
+    int parameter = parameters[0];
+    return needsDecoding(valueStart(parameter), valueEnd(parameter))
+        ? BoxedNumberHelper.parseLong(value(parameter), defaultValue)
+        : BoxedNumberHelper.parseLong(queryString, valueStart(parameter),
+            valueEnd(parameter), defaultValue);
+  }
+
+  @Override
+  public <O extends Enum<O>> O getEnum(String name, Class<O> type, O defaultValue)
+  {
+    return EnumLookup.of(type).get(get(name), defaultValue);
+  }
+
+  /**
+   * Matches each parameter's name against the hash in place, so only the
+   * values of known names are ever decoded.
+   */
+  @Override
+  public String[][] collect(PerfectHash names)
+  {
+    if (count < 0)
+    {
+      index();
+    }
+    int[] slotOf = new int[count];
+    int[] slotSizes = new int[names.size()];
+    for (int i = 0; i < count; i++)
+    {
+      int start = nameStart(i);
+      int end = nameEnd(i);
+      int slot;
+      if (needsDecoding(start, end))
+      {
+        if (decodedNames[i] == null)
+        {
+          decodedNames[i] = decode(queryString, start, end);
+        }
+        slot = names.indexOf(decodedNames[i]);
+      }
+      else
+      {
+        slot = names.indexOf(queryString, start, end);
+      }
+      slotOf[i] = slot;
+      if (slot >= 0)
+      {
+        slotSizes[slot]++;
+      }
+    }
+    String[][] slots = new String[names.size()][];
+    for (int i = 0; i < count; i++)
+    {
+      int slot = slotOf[i];
+      if (slot >= 0)
+      {
+        if (slots[slot] == null)
+        {
+          slots[slot] = new String[slotSizes[slot]];
+          slotSizes[slot] = 0;
+        }
+        slots[slot][slotSizes[slot]++] = value(i);
+      }
+    }
+    return slots;
+  }
+
+  /**
+   * Counts the parameters by their encoded lengths, without copying their
+   * names out of the query string.
+   */
+  @Override
+  protected void countParameters(InputLimits.Counter counter)
+      throws InputLimitExceededException
+  {
+    if (count < 0)
+    {
+      index();
+    }
+    for (int i = 0; i < count; i++)
+    {
+      counter.add(queryString, nameStart(i), nameEnd(i),
+          valueEnd(i) - valueStart(i));
+    }
+  }
+
+  /**
+   * @return the indexes of the parameters with the given name, in the order
+   * they appear. Remembered for each name that is requested.
+   */
+  protected int[] parameters(String name)
+  {
+    if (count < 0)
+    {
+      index();
+    }
+    int[] parameters = parametersByName.get(name);
+    if (parameters == null)
+    {
+      // Gathered in a buffer reused across names, which doubles as needed,
+      // so that a name repeated many times is still copied out only once.
+      int[] matches = this.matches;
+      int found = 0;
+      for (int i = 0; i < count; i++)
+      {
+        if (nameEquals(i, name))
+        {
+          if (matches == null)
+          {
+            matches = this.matches = new int[4];
+          }
+          else if (found == matches.length)
+          {
+            matches = this.matches = Arrays.copyOf(matches, found * 2);
+          }
+          matches[found++] = i;
+        }
+      }
+      parameters = found > 0 ? Arrays.copyOf(matches, found) : NONE;
+      parametersByName.put(name, parameters);
+    }
+    return parameters;
+  }
+
+  /**
+   * Records the boundaries of each parameter, skipping empty ones.
+   */
+  private void index()
+  {
+    final CharSequence chars = queryString;
+    final int length = chars.length();
+    bounds = new int[32];
+    count = 0;
+    int start = 0;
+    while (start <= length)
+    {
+      int end = start;
+      int equals = -1;
+      while (end < length && chars.charAt(end) != '&')
+      {
+        if (equals < 0 && chars.charAt(end) == '=')
+        {
+          equals = end;
+        }
+        end++;
+      }
+      if (end > start)
+      {
+        if (bounds.length < (count + 1) * 4)
+        {
+          bounds = Arrays.copyOf(bounds, bounds.length * 2);
+        }
+        int offset = count * 4;
+        bounds[offset] = start;
+        bounds[offset + 1] = equals >= 0 ? equals : end;
+        bounds[offset + 2] = equals >= 0 ? equals + 1 : end;
+        bounds[offset + 3] = end;
+        count++;
+      }
+      start = end + 1;
+    }
+    decodedNames = new String[count];
+    decodedValues = new String[count];
+    parametersByName = new HashMap<>();
+  }
+
+  private int nameStart(int parameter)
+  {
+    return bounds[parameter * 4];
+  }
+
+  private int nameEnd(int parameter)
+  {
+    return bounds[parameter * 4 + 1];
+  }
+
+  private int valueStart(int parameter)
+  {
+    return bounds[parameter * 4 + 2];
+  }
+
+  private int valueEnd(int parameter)
+  {
+    return bounds[parameter * 4 + 3];
+  }
+
+  /**
+   * Compares a parameter's name without decoding it, unless it contains
+   * escapes.
+   */
+  private boolean nameEquals(int parameter, String name)
+  {
+    final int start = nameStart(parameter);
+    final int end = nameEnd(parameter);
+    if (indexOf(queryString, start, end, '%') >= 0)
+    {
+      if (decodedNames[parameter] == null)
+      {
+        decodedNames[parameter] = decode(queryString, start, end);
+      }
+      return decodedNames[parameter].equals(name);
+    }
+    if (end - start != name.length())
+    {
+      return false;
+    }
+    for (int i = start; i < end; i++)
+    {
+      char c = queryString.charAt(i);
+      if ((c == '+' ? ' ' : c) != name.charAt(i - start))
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the shared array of decoded values for the name, or null if
+   * there are none
+   */
+  private String[] strings(String name)
+  {
+    int[] parameters = parameters(name);
+    if (parameters.length == 0)
+    {
+      return null;
+    }
+    ParsedValues.Entry entry = parsed.get(name);
+    if (entry.strings == null)
+    {
+      String[] values = new String[parameters.length];
+      for (int i = 0; i < parameters.length; i++)
+      {
+        values[i] = value(parameters[i]);
+      }
+      entry.strings = values;
+    }
+    return entry.strings;
+  }
+
+  private String value(int parameter)
+  {
+    if (decodedValues[parameter] == null)
+    {
+      decodedValues[parameter] = decode(queryString, valueStart(parameter),
+          valueEnd(parameter));
+    }
+    return decodedValues[parameter];
+  }
+
+  private boolean needsDecoding(int start, int end)
+  {
+    return indexOf(queryString, start, end, '%') >= 0
+        || indexOf(queryString, start, end, '+') >= 0;
+  }
+
+  private static int indexOf(CharSequence chars, int start, int end, char c)
+  {
+    for (int i = start; i < end; i++)
+    {
+      if (chars.charAt(i) == c)
+      {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Decodes the given range as application/x-www-form-urlencoded UTF-8.
+   * Unlike {@link java.net.URLDecoder}, a '%' that isn't followed by two hex
+   * digits is kept as-is rather than rejected.
+   */
+  static String decode(CharSequence chars, int start, int end)
+  {
+    if (indexOf(chars, start, end, '%') < 0 && indexOf(chars, start, end, '+') < 0)
+    {
+      return chars.subSequence(start, end).toString();
+    }
+    StringBuilder decoded = new StringBuilder(end - start);
+    byte[] bytes = null;
+    int i = start;
+    while (i < end)
+    {
+      char c = chars.charAt(i);
+      if (c == '%' && hexValue(chars, i + 1, end) >= 0)
+      {
+        // Collect a run of escaped bytes, since a multi-byte character is
+        // spread across several escapes.
+        if (bytes == null)
+        {
+          bytes = new byte[(end - i) / 3];
+        }
+        int length = 0;
+        int value;
+        while (i < end && chars.charAt(i) == '%'
+            && (value = hexValue(chars, i + 1, end)) >= 0)
+        {
+          bytes[length++] = (byte)value;
+          i += 3;
+        }
+        decoded.append(new String(bytes, 0, length, StandardCharsets.UTF_8));
+      }
+      else
+      {
+        decoded.append(c == '+' ? ' ' : c);
+        i++;
+      }
+    }
+    return decoded.toString();
+  }
+
+  /**
+   * @return the value of the two hex digits at the given index, or -1 if
+   * there aren't two hex digits there
+   */
+  private static int hexValue(CharSequence chars, int index, int end)
+  {
+    if (index + 1 >= end)
+    {
+      return -1;
+    }
+    int high = hexDigit(chars.charAt(index));
+    int low = hexDigit(chars.charAt(index + 1));
+    return high >= 0 && low >= 0 ? (high << 4) | low : -1;
+  }
+
+  private static int hexDigit(char c)
+  {
+    if (c >= '0' && c <= '9')
+    {
+      return c - '0';
+    }
+    if (c >= 'a' && c <= 'f')
+    {
+      return c - 'a' + 10;
+    }
+    if (c >= 'A' && c <= 'F')
+    {
+      return c - 'A' + 10;
+    }
+    return -1;
+  }
+}
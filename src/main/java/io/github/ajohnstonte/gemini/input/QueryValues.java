@@ -2,16 +2,25 @@ package io.github.ajohnstonte.gemini.input;
 
 import com.techempower.gemini.context.Query;
 import com.techempower.gemini.input.Input;
+import io.github.ajohnstonte.helper.EnumLookup;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 /**
- * An implementation of the {@link Values} class using {@link Query}.
+ * An implementation of the {@link Values} class using {@link Query}. Arrays
+ * of Strings, ints and longs are read and parsed once per name, then copied
+ * each time they are handed out, so changes made to the Query after a name
+ * has been read aren't seen.
  *
  * @author ajohnston
  */
 public class QueryValues
     extends Values
 {
-  private Query query;
+  private       Query        query;
+  private final ParsedValues parsed = new ParsedValues();
   
   public QueryValues(Query query)
   {
@@ -43,25 +52,83 @@ public class QueryValues
   @Override
   public String[] getStrings(String name, String[] defaultValue)
   {
-    String[] values = getQuery().getStrings(name);
-    return values != null ? values : defaultValue;
+    String[] values = strings(name);
+    return values != null ? values.clone() : defaultValue;
+  }
+  
+  @Override
+  public List<String> getStringList(String name)
+  {
+    String[] values = strings(name);
+    if (values == null)
+    {
+      return null;
+    }
+    ParsedValues.Entry entry = parsed.get(name);
+    if (entry.stringList == null)
+    {
+      entry.stringList = Collections.unmodifiableList(Arrays.asList(values));
+    }
+    return entry.stringList;
   }
   
   @Override
   public int[] getInts(String name)
   {
-    return getQuery().getInts(name);
+    ParsedValues.Entry entry = parsed.get(name);
+    if (entry.ints == null)
+    {
+      entry.ints = getQuery().getInts(name);
+    }
+    return entry.ints != null ? entry.ints.clone() : null;
   }
   
   @Override
   public long[] getLongs(String name)
   {
-    return getQuery().getLongs(name);
+    ParsedValues.Entry entry = parsed.get(name);
+    if (entry.longs == null)
+    {
+      entry.longs = getQuery().getLongs(name);
+    }
+    return entry.longs != null ? entry.longs.clone() : null;
+  }
+  
+  /**
+   * @return the shared array of values for the name, or null if there are
+   * none
+   */
+  private String[] strings(String name)
+  {
+    ParsedValues.Entry entry = parsed.get(name);
+    if (entry.strings == null)
+    {
+      entry.strings = getQuery().getStrings(name);
+    }
+    return entry.strings;
+  }
+  
+  @Override
+  protected void countParameters(InputLimits.Counter counter)
+      throws InputLimitExceededException
+  {
+    for (String name : getQuery().names())
+    {
+      String[] values = getQuery().getStrings(name);
+      if (values == null)
+      {
+        continue;
+      }
+      for (String value : values)
+      {
+        counter.add(name, name.length(), value != null ? value.length() : 0);
+      }
+    }
   }
   
   @Override
   public <O extends Enum<O>> O getEnum(String name, Class<O> type, O defaultValue)
   {
-    return getQuery().getEnum(name, type, defaultValue);
+    return EnumLookup.of(type).get(getQuery().get(name), defaultValue);
   }
 }
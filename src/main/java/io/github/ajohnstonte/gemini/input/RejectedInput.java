@@ -0,0 +1,32 @@
+package io.github.ajohnstonte.gemini.input;
+
+import com.techempower.gemini.Context;
+import com.techempower.gemini.input.Input;
+
+/**
+ * The result of processing input that was rejected outright for exceeding
+ * its {@link InputLimits}, before any of it was parsed or validated. Has a
+ * single error describing the limit that was exceeded.
+ *
+ * @author ajohnston
+ */
+public class RejectedInput
+    extends Input
+{
+  private final InputLimitExceededException reason;
+  
+  public RejectedInput(Context context, InputLimitExceededException reason)
+  {
+    super(context);
+    this.reason = reason;
+    addError(reason.getMessage());
+  }
+  
+  /**
+   * @return the exceeded limit that caused the input to be rejected
+   */
+  public InputLimitExceededException getReason()
+  {
+    return reason;
+  }
+}
@@ -0,0 +1,129 @@
+package io.github.ajohnstonte.gemini.input;
+
+import com.techempower.gemini.Request;
+import com.techempower.helper.CollectionHelper;
+import io.github.ajohnstonte.helper.EnumLookup;
+import io.github.ajohnstonte.helper.PerfectHash;
+
+import java.util.Enumeration;
+
+/**
+ * An implementation of the {@link Values} class using the parameters of a
+ * {@link Request}. Unlike {@link QueryValues}, the parameters can be
+ * enumerated, so these values can be checked against {@link InputLimits}.
+ * Arrays of ints and longs are parsed once per name, then copied each time
+ * they are handed out.
+ *
+ * @author ajohnston
+ */
+public class RequestValues
+    extends Values
+{
+  private final Request      request;
+  private final ParsedValues parsed = new ParsedValues();
+  
+  public RequestValues(Request request)
+  {
+    this.request = request;
+  }
+  
+  protected Request getRequest()
+  {
+    return request;
+  }
+  
+  @Override
+  public boolean has(String name)
+  {
+    return getRequest().getParameterValues(name) != null;
+  }
+  
+  @Override
+  public String get(String name, String defaultValue)
+  {
+    String value = getRequest().getParameter(name);
+    return value != null ? value : defaultValue;
+  }
+  
+  @Override
+  public String[] getStrings(String name, String[] defaultValue)
+  {
+    String[] values = getRequest().getParameterValues(name);
+    return values != null ? values : defaultValue;
+  }
+  
+  @Override
+  public int[] getInts(String name)
+  {
+    ParsedValues.Entry entry = parsed.get(name);
+    if (entry.ints == null)
+    {
+      String[] values = getRequest().getParameterValues(name);
+      if (values == null)
+      {
+        return null;
+      }
+      entry.ints = CollectionHelper.toIntArray(values);
+    }
+    return entry.ints.clone();
+  }
+  
+  @Override
+  public long[] getLongs(String name)
+  {
+    ParsedValues.Entry entry = parsed.get(name);
+    if (entry.longs == null)
+    {
+      String[] values = getRequest().getParameterValues(name);
+      if (values == null)
+      {
+        return null;
+      }
+      entry.longs = CollectionHelper.toLongArray(values);
+    }
+    return entry.longs.clone();
+  }
+  
+  @Override
+  public <O extends Enum<O>> O getEnum(String name, Class<O> type, O defaultValue)
+  {
+    return EnumLookup.of(type).get(get(name), defaultValue);
+  }
+  
+  @Override
+  public String[][] collect(PerfectHash names)
+  {
+    String[][] slots = new String[names.size()][];
+    Enumeration<String> parameterNames = getRequest().getParameterNames();
+    while (parameterNames != null && parameterNames.hasMoreElements())
+    {
+      String name = parameterNames.nextElement();
+      int slot = names.indexOf(name);
+      if (slot >= 0)
+      {
+        slots[slot] = getRequest().getParameterValues(name);
+      }
+    }
+    return slots;
+  }
+  
+  @Override
+  protected void countParameters(InputLimits.Counter counter)
+      throws InputLimitExceededException
+  {
+    Enumeration<String> names = getRequest().getParameterNames();
+    while (names != null && names.hasMoreElements())
+    {
+      String name = names.nextElement();
+      String[] values = getRequest().getParameterValues(name);
+      if (values == null)
+      {
+        continue;
+      }
+      for (String value : values)
+      {
+        counter.add(name, name.length(), value != null ? value.length() : 0);
+      }
+    }
+  }
+}
@@ -0,0 +1,170 @@
+package io.github.ajohnstonte.gemini.input;
+
+import io.github.ajohnstonte.helper.BoxedNumberHelper;
+import io.github.ajohnstonte.helper.EnumLookup;
+import io.github.ajohnstonte.helper.PerfectHash;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An implementation of the {@link Values} class holding the values of a
+ * known set of names, such as the fields of a form, in slots indexed by a
+ * {@link PerfectHash} of those names. The slots are filled from another
+ * {@link Values} in a single pass over its parameters, via
+ * {@link Values#collect(PerfectHash)}, after which each read is an array
+ * access. Names outside of the set are read from the original values.
+ *
+ * @author ajohnston
+ */
+public class SlotValues
+    extends Values
+{
+  private final PerfectHash    names;
+  private final String[][]     slots;
+  private final Values         source;
+  private final List<String>[] lists;
+  private final int[][]        ints;
+  private final long[][]       longs;
+
+  /**
+   * @param names  the names the slots are indexed by
+   * @param slots  the values of each name, or null where a name has none
+   * @param source the values the slots were collected from
+   */
+  @SuppressWarnings("unchecked")
+  public SlotValues(PerfectHash names, String[][] slots, Values source)
+  {
+    this.names = names;
+    this.slots = slots;
+    this.source = source;
+    this.lists = new List[slots.length];
+    this.ints = new int[slots.length][];
+    this.longs = new long[slots.length][];
+  }
+
+  /**
+   * Collects the values of the given names from the source in a single pass.
+   *
+   * @return the collected values, or the source itself if its parameters
+   * can't be enumerated
+   */
+  public static Values of(PerfectHash names, Values source)
+  {
+    String[][] slots = source.collect(names);
+    return slots != null ? new SlotValues(names, slots, source) : source;
+  }
+
+  @Override
+  public boolean has(String name)
+  {
+    int slot = names.indexOf(name);
+    return slot >= 0 ? slots[slot] != null : source.has(name);
+  }
+
+  @Override
+  public String get(String name, String defaultValue)
+  {
+    int slot = names.indexOf(name);
+    if (slot < 0)
+    {
+      return source.get(name, defaultValue);
+    }
+    String[] values = slots[slot];
+    return values != null && values[0] != null ? values[0] : defaultValue;
+  }
+
+  @Override
+  public String[] getStrings(String name, String[] defaultValue)
+  {
+    int slot = names.indexOf(name);
+    if (slot < 0)
+    {
+      return source.getStrings(name, defaultValue);
+    }
+    return slots[slot] != null ? slots[slot].clone() : defaultValue;
+  }
+
+  @Override
+  public List<String> getStringList(String name)
+  {
+    int slot = names.indexOf(name);
+    if (slot < 0)
+    {
+      return source.getStringList(name);
+    }
+    if (slots[slot] == null)
+    {
+      return null;
+    }
+    if (lists[slot] == null)
+    {
+      lists[slot] = Collections.unmodifiableList(Arrays.asList(slots[slot]));
+    }
+    return lists[slot];
+  }
+
+  @Override
+  public int[] getInts(String name)
+  {
+    int slot = names.indexOf(name);
+    if (slot < 0)
+    {
+      return source.getInts(name);
+    }
+    String[] values = slots[slot];
+    if (values == null)
+    {
+      return null;
+    }
+    if (ints[slot] == null)
+    {
+      int[] parsed = new int[values.length];
+      for (int i = 0; i < values.length; i++)
+      {
+        parsed[i] = BoxedNumberHelper.parseInt(values[i], 0);
+      }
+      ints[slot] = parsed;
+    }
+    return ints[slot].clone();
+  }
+
+  @Override
+  public long[] getLongs(String name)
+  {
+    int slot = names.indexOf(name);
+    if (slot < 0)
+    {
+      return source.getLongs(name);
+    }
+    String[] values = slots[slot];
+    if (values == null)
+    {
+      return null;
+    }
+    if (longs[slot] == null)
+    {
+      long[] parsed = new long[values.length];
+      for (int i = 0; i < values.length; i++)
+      {
+        parsed[i] = BoxedNumberHelper.parseLong(values[i], 0L);
+      }
+      longs[slot] = parsed;
+    }
+    return longs[slot].clone();
+  }
+
+  @Override
+  public <O extends Enum<O>> O getEnum(String name, Class<O> type, O defaultValue)
+  {
+    return EnumLookup.of(type).get(get(name), defaultValue);
+  }
+
+  @Override
+  protected void countParameters(InputLimits.Counter counter)
+      throws InputLimitExceededException
+  {
+    source.countParameters(counter);
+  }
+}
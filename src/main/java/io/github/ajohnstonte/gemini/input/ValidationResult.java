@@ -0,0 +1,215 @@
+package io.github.ajohnstonte.gemini.input;
+
+import com.techempower.gemini.Context;
+import com.techempower.gemini.input.Input;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The outcome of validating a form against {@link Values}, without a Gemini
+ * Context. Holds only the errors raised, in the order they were raised, and
+ * may be converted to a Gemini {@link Input} with {@link #toInput(Context)}
+ * if one is needed later, such as for rendering.
+ *
+ * @author ajohnston
+ */
+public class ValidationResult
+{
+  private final List<Error>                 errors;
+  private final InputLimitExceededException rejection;
+  
+  ValidationResult(List<Error> errors, InputLimitExceededException rejection)
+  {
+    this.errors = errors;
+    this.rejection = rejection;
+  }
+  
+  /**
+   * @return a result for input that was rejected outright for exceeding its
+   * {@link InputLimits}, with a single error describing the limit
+   */
+  public static ValidationResult rejected(InputLimitExceededException reason)
+  {
+    return new ValidationResult(Collections.singletonList(
+        new Error(null, reason.getMessage())), reason);
+  }
+  
+  /**
+   * Takes the errors of a Gemini Input. Input only records the last error of
+   * each element, so each message is matched to the first element whose
+   * error it is, if any.
+   */
+  public static ValidationResult of(Input input)
+  {
+    if (input instanceof ValuesInput)
+    {
+      return ((ValuesInput)input).toResult();
+    }
+    if (input instanceof RejectedInput)
+    {
+      return rejected(((RejectedInput)input).getReason());
+    }
+    List<Error> errors = new ArrayList<>();
+    if (input.errors() != null)
+    {
+      Map<String, Object> elements = input.erroredElements() != null
+          ? new LinkedHashMap<>(input.erroredElements())
+          : new LinkedHashMap<>();
+      for (String message : input.errors())
+      {
+        String element = null;
+        for (Map.Entry<String, Object> entry : elements.entrySet())
+        {
+          if (message.equals(entry.getValue()))
+          {
+            element = entry.getKey();
+            break;
+          }
+        }
+        if (element != null)
+        {
+          elements.remove(element);
+        }
+        errors.add(new Error(element, message));
+      }
+    }
+    return new ValidationResult(errors, null);
+  }
+  
+  public boolean passed()
+  {
+    return errors.isEmpty();
+  }
+  
+  public boolean failed()
+  {
+    return !passed();
+  }
+  
+  /**
+   * @return true if the input was rejected for exceeding its limits, in
+   * which case no validators were run
+   */
+  public boolean isRejected()
+  {
+    return rejection != null;
+  }
+  
+  /**
+   * @return the exceeded limit that caused the input to be rejected, or null
+   * if it wasn't
+   */
+  public InputLimitExceededException getRejection()
+  {
+    return rejection;
+  }
+  
+  /**
+   * @return the errors, in the order they were raised
+   */
+  public List<Error> getErrors()
+  {
+    return Collections.unmodifiableList(errors);
+  }
+  
+  /**
+   * @return the error messages, in the order they were raised
+   */
+  public List<String> errors()
+  {
+    List<String> messages = new ArrayList<>(errors.size());
+    errors.forEach(error -> messages.add(error.getMessage()));
+    return messages;
+  }
+  
+  /**
+   * @return the message of each element with an error, keyed by element name
+   */
+  public Map<String, String> erroredElements()
+  {
+    Map<String, String> elements = new LinkedHashMap<>();
+    for (Error error : errors)
+    {
+      if (error.getElement() != null)
+      {
+        elements.put(error.getElement(), error.getMessage());
+      }
+    }
+    return elements;
+  }
+  
+  /**
+   * Creates a Gemini Input with the same errors, as if the form had been
+   * processed with the given Context.
+   */
+  public Input toInput(Context context)
+  {
+    if (rejection != null)
+    {
+      return new RejectedInput(context, rejection);
+    }
+    Input input = new Input(context);
+    addErrors(errors, input);
+    return input;
+  }
+  
+  /**
+   * Adds the given errors to the input, in order.
+   */
+  public static void addErrors(List<Error> errors, Input input)
+  {
+    for (Error error : errors)
+    {
+      if (error.getElement() != null)
+      {
+        input.addError(error.getElement(), error.getMessage());
+      }
+      else
+      {
+        input.addError(error.getMessage());
+      }
+    }
+  }
+  
+  @Override
+  public String toString()
+  {
+    return "ValidationResult ["
+        + (passed() ? "Good; " : "Bad; ")
+        + String.join(";", errors())
+        + "]";
+  }
+  
+  /**
+   * A single error, with the name of the element it applies to, if any.
+   */
+  public static class Error
+  {
+    private final String element;
+    private final String message;
+    
+    public Error(String element, String message)
+    {
+      this.element = element;
+      this.message = message;
+    }
+    
+    /**
+     * @return the name of the element the error applies to, or null if it
+     * applies to the input as a whole
+     */
+    public String getElement()
+    {
+      return element;
+    }
+    
+    public String getMessage()
+    {
+      return message;
+    }
+  }
+}
@@ -1,6 +1,13 @@
 package io.github.ajohnstonte.gemini.input;
 
 import com.techempower.gemini.context.Query;
+import com.techempower.gemini.input.Input;
+import io.github.ajohnstonte.helper.BoxedNumberHelper;
+import io.github.ajohnstonte.helper.PerfectHash;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * An abstraction/replacement of {@link Query} that allows for anything to serve as the base for the Query-like map.
@@ -9,6 +16,17 @@ import com.techempower.gemini.context.Query;
  */
 public abstract class Values
 {
+  /**
+   * @return the values of the given input: those of a {@link ValuesInput},
+   * or otherwise those of its Context's Query
+   */
+  public static Values from(Input input)
+  {
+    return input instanceof ValuesInput
+        ? ((ValuesInput)input).getValues()
+        : new QueryValues(input);
+  }
+  
   public abstract boolean has(String name);
   
   public String get(String name)
@@ -31,6 +49,19 @@ public abstract class Values
     return getStrings(name, null);
   }
   
+  /**
+   * Gets a read-only list of Strings from the request, or null if there are
+   * none. Unlike {@link #getStrings(String)}, implementations may return the
+   * same list each time rather than a copy.
+   */
+  public List<String> getStringList(String name)
+  {
+    String[] values = getStrings(name);
+    return values != null
+        ? Collections.unmodifiableList(Arrays.asList(values))
+        : null;
+  }
+  
   /**
    * Gets an array of ints from the request.  Any non-numeric values will
    * be converted to 0.
@@ -43,6 +74,43 @@ public abstract class Values
    */
   public abstract long[] getLongs(String name);
   
+  /**
+   * Gets an int request value, or the default value if it is missing or is
+   * not an int. Implementations able to parse the value without first
+   * creating a String may override this.
+   */
+  public Integer getInt(String name, Integer defaultValue)
+  {
+    return BoxedNumberHelper.parseInt(get(name), defaultValue);
+  }
+  
+  /**
+   * Gets a long request value, or the default value if it is missing or is
+   * not a long.
+   */
+  public Long getLong(String name, Long defaultValue)
+  {
+    return BoxedNumberHelper.parseLong(get(name), defaultValue);
+  }
+  
+  /**
+   * Gets a double request value, or the default value if it is missing or
+   * is not a number.
+   */
+  public Double getDouble(String name, Double defaultValue)
+  {
+    return BoxedNumberHelper.parseDouble(get(name), defaultValue);
+  }
+  
+  /**
+   * Gets a float request value, or the default value if it is missing or
+   * is not a number.
+   */
+  public Float getFloat(String name, Float defaultValue)
+  {
+    return BoxedNumberHelper.parseFloat(get(name), defaultValue);
+  }
+  
   /**
    * Gets an enum request value.  If the HttpServletRequest returns null for
    * this parameter, or if the provided value is invalid, null will be returned.
@@ -68,4 +136,41 @@ public abstract class Values
    * @return the value as an enum.
    */
   public abstract <O extends Enum<O>> O getEnum(String name, Class<O> type, O defaultValue);
+  
+  /**
+   * Collects the values of the given names in a single pass over the
+   * parameters, skipping parameters with any other name. Used to bind a
+   * form's fields with {@link SlotValues}.
+   *
+   * @return the values of each name, indexed as in the hash, with null for
+   * names without values. Null by default, for values whose parameters can't
+   * be enumerated.
+   */
+  public String[][] collect(PerfectHash names)
+  {
+    return null;
+  }
+  
+  /**
+   * Checks the size and shape of the values against the given limits, in a
+   * single pass over the parameters without parsing or decoding any of them.
+   *
+   * @throws InputLimitExceededException if any of the limits is exceeded
+   */
+  public void checkLimits(InputLimits limits)
+      throws InputLimitExceededException
+  {
+    countParameters(limits.newCounter());
+  }
+  
+  /**
+   * Counts each of the parameters, for {@link #checkLimits(InputLimits)}.
+   * Does nothing by default, for values whose parameters can't be
+   * enumerated.
+   */
+  protected void countParameters(InputLimits.Counter counter)
+      throws InputLimitExceededException
+  {
+    // Does nothing.
+  }
 }
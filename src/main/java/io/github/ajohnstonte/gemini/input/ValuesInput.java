@@ -0,0 +1,115 @@
+package io.github.ajohnstonte.gemini.input;
+
+import com.techempower.gemini.context.Query;
+import com.techempower.gemini.input.Input;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An Input backed by {@link Values} rather than a Gemini Context, allowing
+ * validators to be run against input that didn't come from a request, such
+ * as queued messages or batch records. There is no Context, so
+ * {@link #values()} is a read-only Query over the values; validators may
+ * read through it as usual, though {@link Values#from(Input)}, which all of
+ * the form's own validators use, avoids the indirection.
+ *   <p>
+ * Errors are kept here rather than by Input, in the order they were added,
+ * and may be taken as a {@link ValidationResult} once validation is done.
+ *
+ * @author ajohnston
+ */
+public class ValuesInput
+    extends Input
+{
+  private final Values                       values;
+  private final List<ValidationResult.Error> errors;
+  private       Query                        query;
+  
+  public ValuesInput(Values values)
+  {
+    super(null);
+    this.values = values;
+    this.errors = new ArrayList<>(2);
+  }
+  
+  public Values getValues()
+  {
+    return values;
+  }
+  
+  /**
+   * @return a read-only Query over the values, without names, since values
+   * can't be enumerated
+   */
+  @Override
+  public Query values()
+  {
+    if (query == null)
+    {
+      query = new ValuesQuery(values);
+    }
+    return query;
+  }
+  
+  @Override
+  public void addError(String error)
+  {
+    errors.add(new ValidationResult.Error(null, error));
+  }
+  
+  @Override
+  public void addError(String element, String error)
+  {
+    errors.add(new ValidationResult.Error(element, error));
+  }
+  
+  @Override
+  public List<String> errors()
+  {
+    List<String> messages = new ArrayList<>(errors.size());
+    errors.forEach(error -> messages.add(error.getMessage()));
+    return messages;
+  }
+  
+  @Override
+  public Map<String, Object> erroredElements()
+  {
+    Map<String, Object> elements = new LinkedHashMap<>();
+    errors.stream()
+        .filter(error -> error.getElement() != null)
+        .forEachOrdered(error -> elements.put(error.getElement(),
+            error.getMessage()));
+    return elements;
+  }
+  
+  /**
+   * @return the number of errors added so far
+   */
+  public int getErrorCount()
+  {
+    return errors.size();
+  }
+  
+  @Override
+  public boolean passed()
+  {
+    return errors.isEmpty();
+  }
+  
+  @Override
+  public boolean failed()
+  {
+    return !passed();
+  }
+  
+  /**
+   * @return the errors added so far, as a result independent of this input
+   */
+  public ValidationResult toResult()
+  {
+    return new ValidationResult(new ArrayList<>(errors), null);
+  }
+}
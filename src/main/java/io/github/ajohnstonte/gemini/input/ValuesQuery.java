@@ -0,0 +1,77 @@
+package io.github.ajohnstonte.gemini.input;
+
+import com.techempower.gemini.Request;
+import com.techempower.gemini.context.Query;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * A read-only {@link Query} over {@link Values}, returned by
+ * {@link ValuesInput#values()} so that validators written against Gemini's
+ * Input, including Gemini's own, work the same without a Context. There is
+ * no Request behind it, so every accessor reads from the values instead.
+ * Values can't be enumerated, so it has no names.
+ *
+ * @author ajohnston
+ */
+class ValuesQuery
+    extends Query
+{
+  private final Values values;
+  
+  ValuesQuery(Values values)
+  {
+    super((Request)null);
+    this.values = values;
+  }
+  
+  @Override
+  public boolean has(String name)
+  {
+    return values.has(name);
+  }
+  
+  @Override
+  public Set<String> names()
+  {
+    return Collections.emptySet();
+  }
+  
+  @Override
+  public String get(String name)
+  {
+    return values.get(name);
+  }
+  
+  @Override
+  public String get(String name, String defaultValue)
+  {
+    return values.get(name, defaultValue);
+  }
+  
+  @Override
+  public String[] getStrings(String name)
+  {
+    return values.getStrings(name);
+  }
+  
+  @Override
+  public int[] getInts(String name)
+  {
+    return values.getInts(name);
+  }
+  
+  @Override
+  public long[] getLongs(String name)
+  {
+    return values.getLongs(name);
+  }
+  
+  @Override
+  public <O extends Enum<O>> O getEnum(String name, Class<O> type,
+                                       O defaultValue)
+  {
+    return values.getEnum(name, type, defaultValue);
+  }
+}
@@ -0,0 +1,257 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+import com.techempower.gemini.input.Input;
+import com.techempower.gemini.input.validator.Validator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the average cost and rejection rate of each of a form's
+ * validators, and reorders them so that cheap validators likely to reject
+ * the input run first. Combined with a fail-fast form, invalid input is then
+ * rejected having run as little as possible. A form that isn't fail-fast
+ * runs every validator anyway, so its statistics are recorded but its
+ * validators keep their declared order.
+ *   <p>
+ * Only the fields' validators are reordered, since the fields are
+ * independent of one another. The form's own validators, which may assume
+ * the fields are valid, still run last in the order they were added. Since
+ * a fail-fast form stops at its first error, which error is reported may
+ * change as the order does.
+ *   <p>
+ * Validators are ordered by their average cost divided by their rejection
+ * rate, lowest first, which minimizes the expected cost of reaching the
+ * first rejection. Validators with too few samples to judge run first, so
+ * that they are measured. The order is recomputed periodically rather than
+ * on every submission. Statistics are tracked by position, so an ordering
+ * is meant to be shared by every instance of a single form class, and is
+ * reset if the form's schema version changes:
+ * <pre>
+ * private static final AdaptiveOrdering ORDERING = new AdaptiveOrdering();
+ * ...
+ * form.setFailFast(true).setAdaptiveOrdering(ORDERING);
+ * </pre>
+ *
+ * @author ajohnston
+ */
+public class AdaptiveOrdering
+{
+  private final    AtomicLong   submissions     = new AtomicLong();
+  private          int          reorderInterval = 1_000;
+  private          int          minimumSamples  = 100;
+  private          Object       schemaVersion;
+  private volatile Statistics[] statistics      = new Statistics[0];
+  private volatile int[]        order           = new int[0];
+
+  /**
+   * @return the number of submissions between recomputing the order, 1000
+   * by default
+   */
+  public int getReorderInterval()
+  {
+    return reorderInterval;
+  }
+
+  public AdaptiveOrdering setReorderInterval(int reorderInterval)
+  {
+    this.reorderInterval = Math.max(1, reorderInterval);
+    return this;
+  }
+
+  /**
+   * @return the number of times a validator must have run before its
+   * statistics are trusted, 100 by default
+   */
+  public int getMinimumSamples()
+  {
+    return minimumSamples;
+  }
+
+  public AdaptiveOrdering setMinimumSamples(int minimumSamples)
+  {
+    this.minimumSamples = minimumSamples;
+    return this;
+  }
+
+  /**
+   * @return the indexes of the validators, in declaration order, in the
+   * order they currently run
+   */
+  public int[] getOrder()
+  {
+    return order.clone();
+  }
+
+  /**
+   * @return the number of validators statistics are kept for
+   */
+  public int size()
+  {
+    return statistics.length;
+  }
+
+  /**
+   * @return the number of times the validator at the given index, in
+   * declaration order, has run
+   */
+  public long getRunCount(int index)
+  {
+    return statistics[index].runs.sum();
+  }
+
+  /**
+   * @return the average time the validator at the given index took, or 0 if
+   * it hasn't run
+   */
+  public double getAverageNanos(int index)
+  {
+    Statistics stats = statistics[index];
+    long runs = stats.runs.sum();
+    return runs > 0 ? (double)stats.nanos.sum() / runs : 0.0;
+  }
+
+  /**
+   * @return the fraction of runs in which the validator at the given index
+   * raised an error, or 0 if it hasn't run
+   */
+  public double getRejectionRate(int index)
+  {
+    Statistics stats = statistics[index];
+    long runs = stats.runs.sum();
+    return runs > 0 ? (double)stats.rejections.sum() / runs : 0.0;
+  }
+
+  /**
+   * Orders the validators of a single submission, wrapping each so that it
+   * is measured as it runs.
+   *
+   * @param validators     the validators in declaration order
+   * @param reorderable    how many of the first validators may be reordered
+   * @param schemaVersion  the version of the form, resetting the statistics
+   *                       when it changes
+   * @param reorder        whether to reorder at all, or only measure
+   */
+  List<Validator> order(List<Validator> validators, int reorderable,
+                        Object schemaVersion, boolean reorder)
+  {
+    Statistics[] stats = statistics(validators.size(), schemaVersion);
+    if (submissions.incrementAndGet() % reorderInterval == 0)
+    {
+      reorder(stats, reorderable);
+    }
+    int[] order = reorder ? this.order : null;
+    List<Validator> ordered = new ArrayList<>(validators.size());
+    for (int i = 0; i < validators.size(); i++)
+    {
+      int index = order != null && i < reorderable ? order[i] : i;
+      ordered.add(new MeasuredValidator(validators.get(index), stats[index]));
+    }
+    return ordered;
+  }
+
+  private Statistics[] statistics(int size, Object schemaVersion)
+  {
+    Statistics[] stats = statistics;
+    if (stats.length == size && Objects.equals(this.schemaVersion, schemaVersion))
+    {
+      return stats;
+    }
+    synchronized (this)
+    {
+      if (statistics.length != size
+          || !Objects.equals(this.schemaVersion, schemaVersion))
+      {
+        Statistics[] fresh = new Statistics[size];
+        int[] freshOrder = new int[size];
+        for (int i = 0; i < size; i++)
+        {
+          fresh[i] = new Statistics();
+          freshOrder[i] = i;
+        }
+        this.schemaVersion = schemaVersion;
+        this.order = freshOrder;
+        this.statistics = fresh;
+      }
+      return statistics;
+    }
+  }
+
+  private void reorder(Statistics[] stats, int reorderable)
+  {
+    double[] scores = new double[stats.length];
+    Integer[] indexes = new Integer[reorderable];
+    for (int i = 0; i < reorderable; i++)
+    {
+      indexes[i] = i;
+      long runs = stats[i].runs.sum();
+      if (runs < minimumSamples)
+      {
+        scores[i] = -1.0;
+      }
+      else
+      {
+        // Smoothed, so that a validator that has never rejected anything
+        // still has a finite score.
+        double cost = (double)stats[i].nanos.sum() / runs;
+        double rejectionRate = (stats[i].rejections.sum() + 1.0) / (runs + 2.0);
+        scores[i] = cost / rejectionRate;
+      }
+    }
+    Arrays.sort(indexes, (a, b) -> Double.compare(scores[a], scores[b]));
+    int[] reordered = new int[stats.length];
+    for (int i = 0; i < stats.length; i++)
+    {
+      reordered[i] = i < reorderable ? indexes[i] : i;
+    }
+    synchronized (this)
+    {
+      if (statistics == stats)
+      {
+        order = reordered;
+      }
+    }
+  }
+
+  private static final class Statistics
+  {
+    private final LongAdder runs       = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder nanos      = new LongAdder();
+  }
+
+  /**
+   * A validator that records its cost and whether it rejected the input.
+   */
+  private static final class MeasuredValidator
+      extends ManagedValidator
+  {
+    private final Validator  validator;
+    private final Statistics stats;
+
+    MeasuredValidator(Validator validator, Statistics stats)
+    {
+      super(unwrap(validator), timeoutOf(validator), priorityOf(validator));
+      this.validator = validator;
+      this.stats = stats;
+    }
+
+    @Override
+    public void process(Input input)
+    {
+      final int errors = ValidatorRunner.errorCount(input);
+      final long start = System.nanoTime();
+      validator.process(input);
+      stats.nanos.add(System.nanoTime() - start);
+      stats.runs.increment();
+      if (ValidatorRunner.errorCount(input) > errors)
+      {
+        stats.rejections.increment();
+      }
+    }
+  }
+}
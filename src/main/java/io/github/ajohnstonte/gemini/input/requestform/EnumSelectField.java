@@ -0,0 +1,207 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+import com.techempower.gemini.input.Input;
+import com.techempower.gemini.input.validator.Validator;
+import io.github.ajohnstonte.gemini.input.Values;
+import io.github.ajohnstonte.helper.EnumLookup;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * A select field whose options are the constants of an enum. The options are
+ * added automatically, using each constant's name as the value and its
+ * string representation as the label. The selected constants are held as an
+ * {@link EnumSet}, which allows multiple values by default; use
+ * {@link #setAllowMultipleValues(boolean)} to restrict it to a single value,
+ * then {@link #getEnumValue()} to read it.
+ *   <p>
+ * User-provided values are resolved through a shared {@link EnumLookup}, so
+ * invalid values never raise exceptions. Values can optionally be matched
+ * without regard to case via {@link #setCaseInsensitive(boolean)}.
+ *
+ * @author ajohnston
+ */
+public class EnumSelectField<E extends Enum<E>>
+    extends SelectField<EnumSet<E>>
+{
+  private final EnumLookup<E> lookup;
+  private boolean             caseInsensitive;
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public EnumSelectField(IRequestForm form, String name, Class<E> enumType)
+  {
+    super(form, name, (Class)EnumSet.class);
+    this.lookup = EnumLookup.of(enumType);
+    for (int i = 0; i < lookup.size(); i++)
+    {
+      addOption(lookup.getName(i), lookup.getLabel(i));
+    }
+    setValueAccess(values -> resolve(values.getStringList()));
+  }
+
+  /**
+   * @return the enum class whose constants are the options of this field
+   */
+  public Class<E> getEnumType()
+  {
+    return lookup.getType();
+  }
+
+  /**
+   * @return true if user-provided values are matched to constant names
+   * without regard to case
+   */
+  public boolean isCaseInsensitive()
+  {
+    return caseInsensitive;
+  }
+
+  /**
+   * Sets whether user-provided values are matched to constant names without
+   * regard to case. False by default.
+   */
+  public EnumSelectField<E> setCaseInsensitive(boolean caseInsensitive)
+  {
+    this.caseInsensitive = caseInsensitive;
+    return this;
+  }
+
+  @Override
+  public List<Object> getValidationSettings()
+  {
+    List<Object> settings = super.getValidationSettings();
+    settings.add(isCaseInsensitive());
+    return settings;
+  }
+
+  /**
+   * @return the selected constants. Never null; empty if nothing is selected.
+   */
+  public EnumSet<E> getSelectedEnums()
+  {
+    EnumSet<E> value = getValue();
+    return value != null ? EnumSet.copyOf(value) : EnumSet.noneOf(getEnumType());
+  }
+
+  /**
+   * @return the first selected constant, or null if nothing is selected.
+   * Intended for fields restricted to a single value.
+   */
+  public E getEnumValue()
+  {
+    EnumSet<E> value = getValue();
+    return value != null && !value.isEmpty() ? value.iterator().next() : null;
+  }
+
+  /**
+   * @return true if the given constant is currently selected
+   */
+  public boolean isSelected(E constant)
+  {
+    EnumSet<E> value = getValue();
+    return value != null && value.contains(constant);
+  }
+
+  @Override
+  public List<String> getSelectedValues()
+  {
+    if (selectedValues() == null)
+    {
+      // Options use the constant names, which may differ from toString().
+      List<String> names = new ArrayList<>();
+      EnumSet<E> value = getValue();
+      if (value != null)
+      {
+        for (E constant : value)
+        {
+          names.add(constant.name());
+        }
+      }
+      setSelectedValues(names);
+    }
+    return selectedValues();
+  }
+
+  @Override
+  protected BitSet computeSelectedIndexes()
+  {
+    // Options are added in declaration order, so each index is an ordinal.
+    BitSet indexes = new BitSet(lookup.size());
+    EnumSet<E> value = getValue();
+    if (value != null)
+    {
+      for (E constant : value)
+      {
+        indexes.set(constant.ordinal());
+      }
+    }
+    return indexes;
+  }
+
+  @Override
+  protected Validator getPermittedValuesValidator()
+  {
+    return new EnumValueValidator<E>()
+        .setField(this)
+        .asValidator();
+  }
+
+  /**
+   * Resolves the given user-provided values into constants. Values that do
+   * not match any constant are ignored. Returns null rather than an empty set
+   * if nothing matches, so that required/default handling applies.
+   */
+  protected EnumSet<E> resolve(List<String> values)
+  {
+    if (values == null || values.isEmpty())
+    {
+      return null;
+    }
+    EnumSet<E> resolved = EnumSet.noneOf(getEnumType());
+    for (String value : values)
+    {
+      E constant = lookup.get(value, isCaseInsensitive());
+      if (constant != null)
+      {
+        resolved.add(constant);
+      }
+    }
+    return resolved.isEmpty() ? null : resolved;
+  }
+
+  /**
+   * Validates that each user-provided value names one of the enum's
+   * constants. An empty value is permitted if the field is not required.
+   */
+  private static class EnumValueValidator<E extends Enum<E>>
+      extends FieldValidator<EnumSet<E>>
+  {
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void process(Input input)
+    {
+      EnumSelectField<E> field = (EnumSelectField<E>)getField();
+      String[] values = Values.from(input).getStrings(getElementName());
+      if (values == null)
+      {
+        return;
+      }
+      EnumLookup<E> lookup = field.lookup;
+      boolean ignoreCase = field.isCaseInsensitive();
+      for (String value : values)
+      {
+        if (value == null
+            || (value.isEmpty() && !field.isRequired())
+            || lookup.get(value, ignoreCase) != null)
+        {
+          continue;
+        }
+        input.addError(getElementName(), getElementName() + " must be a permitted value.");
+        return;
+      }
+    }
+  }
+}
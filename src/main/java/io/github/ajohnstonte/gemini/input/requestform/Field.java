@@ -53,14 +53,28 @@ public class Field<T>
   // Temporary implementation while I find a better way of doing this. Ideally shouldn't require two methods.
   public Field<T> addFieldValidator(BiConsumer<IField<T>, Input> fieldValidator)
   {
-    return addFieldValidator(new FieldValidator<T>()
+    return addFieldValidator(new CallbackValidator<>(fieldValidator));
+  }
+
+  /**
+   * A field validator made from a callback. A named class rather than an
+   * anonymous one, so that it shows up as itself in profiles.
+   */
+  static class CallbackValidator<T>
+      extends FieldValidator<T>
+  {
+    private final BiConsumer<IField<T>, Input> callback;
+
+    CallbackValidator(BiConsumer<IField<T>, Input> callback)
     {
-      @Override
-      protected void process(Input input)
-      {
-        fieldValidator.accept(getField(), input);
-      }
-    });
+      this.callback = callback;
+    }
+
+    @Override
+    protected void process(Input input)
+    {
+      callback.accept(getField(), input);
+    }
   }
 
   @Override
@@ -95,7 +109,10 @@ public class Field<T>
     List<Validator> standardValidators = getStandardValidators();
     if (standardValidators != null)
     {
-      validators.addAll(standardValidators);
+      // The standard validators check the field's own settings, so they are
+      // never skipped under load.
+      standardValidators.forEach(validator -> validators.add(
+          ManagedValidator.withPriority(validator, ValidatorPriority.REQUIRED)));
     }
     return validators;
   }
@@ -183,25 +200,11 @@ public class Field<T>
     }
     else if (Short.class.equals(type))
     {
-      setValueAccess(values -> {
-        Integer value = values.getInt();
-        if (value != null)
-        {
-          return (T)(Short)value.shortValue();
-        }
-        return null;
-      });
+      setValueAccess(values -> (T)values.getShort());
     }
     else if (Byte.class.equals(type))
     {
-      setValueAccess(values -> {
-        Integer value = values.getInt();
-        if (value != null)
-        {
-          return (T)(Byte)value.byteValue();
-        }
-        return null;
-      });
+      setValueAccess(values -> (T)values.getByte());
     }
     else if (Double.class.equals(type))
     {
@@ -209,14 +212,7 @@ public class Field<T>
     }
     else if (Float.class.equals(type))
     {
-      setValueAccess(values -> {
-        Double value = values.getDouble();
-        if (value != null)
-        {
-          return (T)(Float)value.floatValue();
-        }
-        return null;
-      });
+      setValueAccess(values -> (T)values.getFloat());
     }
     else if (String.class.equals(type))
     {
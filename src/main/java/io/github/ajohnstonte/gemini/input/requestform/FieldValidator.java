@@ -17,7 +17,8 @@ public abstract class FieldValidator<T>
   // Variables.
   //
 
-  private IField<T> field;
+  private IField<T>         field;
+  private ValidatorPriority priority = ValidatorPriority.NORMAL;
 
   /**
    * Constructor.
@@ -48,9 +49,27 @@ public abstract class FieldValidator<T>
     return getField().getValueFrom(input);
   }
 
+  public ValidatorPriority getPriority()
+  {
+    return priority;
+  }
+
+  /**
+   * Sets how essential the validator is, deciding whether it may be skipped
+   * when the server is overloaded. See {@link LoadShedder}.
+   */
+  public FieldValidator<T> setPriority(ValidatorPriority priority)
+  {
+    this.priority = priority;
+    return this;
+  }
+
   protected Validator asValidator()
   {
-    return this::process;
+    Validator validator = new FieldValidatorAdapter(this);
+    return priority != ValidatorPriority.NORMAL
+        ? ManagedValidator.withPriority(validator, priority)
+        : validator;
   }
 
   /**
@@ -0,0 +1,40 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+import com.techempower.gemini.input.Input;
+import com.techempower.gemini.input.validator.Validator;
+
+/**
+ * A field validator converted to a validator, as returned by
+ * {@link FieldValidator#asValidator()}. A named class rather than a method
+ * reference, so that it shows up as itself in profiles and stack traces.
+ *
+ * @author ajohnston
+ */
+final class FieldValidatorAdapter
+    implements Validator
+{
+  private final FieldValidator<?> fieldValidator;
+
+  FieldValidatorAdapter(FieldValidator<?> fieldValidator)
+  {
+    this.fieldValidator = fieldValidator;
+  }
+
+  FieldValidator<?> getFieldValidator()
+  {
+    return fieldValidator;
+  }
+
+  @Override
+  public void process(Input input)
+  {
+    fieldValidator.process(input);
+  }
+
+  @Override
+  public String toString()
+  {
+    return fieldValidator.getClass().getName() + "("
+        + fieldValidator.getElementName() + ")";
+  }
+}
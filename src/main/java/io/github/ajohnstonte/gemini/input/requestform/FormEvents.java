@@ -0,0 +1,180 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+import com.techempower.gemini.input.Input;
+import com.techempower.gemini.input.validator.Validator;
+import jdk.jfr.EventType;
+
+/**
+ * Emits the form's flight recorder events: {@link FormProcessEvent},
+ * {@link ValidatorEvent} and {@link ParseFailureEvent}. Each is checked for
+ * being enabled before anything is measured, so forms pay next to nothing
+ * while no recording wants them. On a JVM without the flight recorder, the
+ * events are never enabled, and the event classes are never loaded.
+ *
+ * @author ajohnston
+ */
+final class FormEvents
+{
+  private static final boolean AVAILABLE = isAvailable();
+
+  private FormEvents()
+  {
+  }
+
+  private static boolean isAvailable()
+  {
+    try
+    {
+      Class.forName("jdk.jfr.EventType");
+      return Types.PROCESS != null;
+    }
+    catch (ClassNotFoundException | LinkageError | IllegalStateException e)
+    {
+      return false;
+    }
+  }
+
+  static boolean isProcessEnabled()
+  {
+    return AVAILABLE && Types.PROCESS.isEnabled();
+  }
+
+  static boolean isValidatorEnabled()
+  {
+    return AVAILABLE && Types.VALIDATOR.isEnabled();
+  }
+
+  static boolean isParseFailureEnabled()
+  {
+    return AVAILABLE && Types.PARSE_FAILURE.isEnabled();
+  }
+
+  /**
+   * @return the started event for a submission, to be passed to
+   * {@link #endProcess}, or null if the event isn't enabled
+   */
+  static Object beginProcess()
+  {
+    if (!isProcessEnabled())
+    {
+      return null;
+    }
+    FormProcessEvent event = new FormProcessEvent();
+    event.begin();
+    return event;
+  }
+
+  static void endProcess(Object started, Class<?> form, boolean failed,
+                         boolean rejected, int errorCount)
+  {
+    endProcess(started, form,
+        rejected ? "rejected" : failed ? "failed" : "passed", errorCount);
+  }
+
+  /**
+   * Ends a submission's event when processing threw rather than returning.
+   */
+  static void abortProcess(Object started, Class<?> form)
+  {
+    endProcess(started, form, "aborted", 0);
+  }
+
+  private static void endProcess(Object started, Class<?> form,
+                                 String outcome, int errorCount)
+  {
+    if (started == null)
+    {
+      return;
+    }
+    FormProcessEvent event = (FormProcessEvent)started;
+    event.end();
+    if (event.shouldCommit())
+    {
+      event.form = form;
+      event.outcome = outcome;
+      event.errorCount = errorCount;
+      event.commit();
+    }
+  }
+
+  static void parseFailure(Class<?> form, String field, Class<?> type,
+                           int valueLength)
+  {
+    ParseFailureEvent event = new ParseFailureEvent();
+    if (event.shouldCommit())
+    {
+      event.form = form;
+      event.field = field;
+      event.type = type;
+      event.valueLength = valueLength;
+      event.commit();
+    }
+  }
+
+  /**
+   * Wraps a validator so that slow runs of it are recorded.
+   *
+   * @param name the validator's name, made of its field's name, or "form",
+   *             and its position
+   */
+  static Validator recordValidator(Validator validator, Class<?> form,
+                                   String name)
+  {
+    int position = name.lastIndexOf('#');
+    return new RecordedValidator(validator, form,
+        position >= 0 ? name.substring(0, position) : name);
+  }
+
+  /**
+   * The event types, looked up only once the flight recorder is known to
+   * exist.
+   */
+  private static final class Types
+  {
+    private static final EventType PROCESS       = EventType.getEventType(FormProcessEvent.class);
+    private static final EventType VALIDATOR     = EventType.getEventType(ValidatorEvent.class);
+    private static final EventType PARSE_FAILURE = EventType.getEventType(ParseFailureEvent.class);
+  }
+
+  /**
+   * A validator that records a {@link ValidatorEvent} each time it runs for
+   * longer than the event's threshold.
+   */
+  private static final class RecordedValidator
+      extends ManagedValidator
+  {
+    private final Validator validator;
+    private final Class<?>  form;
+    private final String    field;
+    private final String    identity;
+
+    RecordedValidator(Validator validator, Class<?> form, String field)
+    {
+      super(unwrap(validator), timeoutOf(validator), priorityOf(validator));
+      this.validator = validator;
+      this.form = form;
+      this.field = field;
+      this.identity = identify(validator);
+    }
+
+    @Override
+    public void process(Input input)
+    {
+      final int errors = ValidatorRunner.errorCount(input);
+      final ValidatorEvent event = new ValidatorEvent();
+      event.begin();
+      validator.process(input);
+      event.end();
+      if (event.shouldCommit())
+      {
+        event.form = form;
+        event.field = field;
+        event.validator = identity;
+        event.outcome = ValidatorRunner.errorCount(input) > errors
+            ? "failed"
+            : "passed";
+        event.commit();
+      }
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+import com.techempower.gemini.input.validator.Validator;
+import io.github.ajohnstonte.gemini.input.ValidationResult;
+import io.github.ajohnstonte.gemini.input.Values;
+
+/**
+ * Receives callbacks as a form is processed, such as to open and close
+ * tracing spans or to capture submissions for debugging. Every method does
+ * nothing by default, so a listener need only implement those it cares
+ * about. Registered with {@link RequestForm#addListener(FormListener)}; a
+ * form without listeners skips every callback with a single null check.
+ *   <p>
+ * Callbacks are made on the thread doing the work, which for validators run
+ * on a {@link ValidationBudget}'s executor is not the request thread.
+ * Listeners are usually shared by many forms at once, so must be
+ * thread-safe, and should be quick, since they run inline.
+ *
+ * @author ajohnston
+ */
+public interface FormListener
+{
+  /**
+   * Called before the form reads any of the submission.
+   */
+  default void beforeProcess(IRequestForm form)
+  {
+  }
+
+  /**
+   * Called once the form has been processed, whether it passed, failed or
+   * was rejected. If processing throws, {@link #processAborted} is called
+   * instead.
+   *
+   * @param nanos the time taken to process the form as a whole
+   */
+  default void afterProcess(IRequestForm form, ValidationResult result,
+                            long nanos)
+  {
+  }
+
+  /**
+   * Called instead of {@link #afterProcess} when processing throws, such as
+   * when a validator does. The exception is rethrown to the form's caller
+   * once every listener has been called.
+   *
+   * @param error the exception processing threw
+   * @param nanos the time taken before processing threw
+   */
+  default void processAborted(IRequestForm form, Throwable error, long nanos)
+  {
+  }
+
+  /**
+   * Called with the values the form's fields are about to be bound from.
+   * The values are only valid until the form has been processed, so must
+   * not be kept beyond {@link #afterProcess}.
+   */
+  default void valuesRead(IRequestForm form, Values values)
+  {
+  }
+
+  /**
+   * Called once a field's value has been parsed and set.
+   *
+   * @param nanos the time taken to bind the field
+   */
+  default void fieldBound(IRequestForm form, IField<?> field, long nanos)
+  {
+  }
+
+  /**
+   * Called before a validator runs.
+   *
+   * @param name the validator's name, made of its field's name, or "form",
+   *             and its position, such as "email#0"
+   */
+  default void validatorStarted(IRequestForm form, String name,
+                                Validator validator)
+  {
+  }
+
+  /**
+   * Called after a validator runs, following any {@link #errorAdded} calls
+   * for the errors it raised.
+   *
+   * @param nanos    the time the validator took
+   * @param rejected whether the validator raised an error
+   */
+  default void validatorFinished(IRequestForm form, String name,
+                                 Validator validator, long nanos,
+                                 boolean rejected)
+  {
+  }
+
+  /**
+   * Called for each error a validator raises.
+   *
+   * @param element the name of the field the error is for, or null if it
+   *                isn't for a single field
+   */
+  default void errorAdded(IRequestForm form, String element, String message)
+  {
+  }
+}
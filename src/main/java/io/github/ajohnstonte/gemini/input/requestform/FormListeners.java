@@ -0,0 +1,155 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+import com.techempower.gemini.input.validator.Validator;
+import io.github.ajohnstonte.gemini.input.ValidationResult;
+import io.github.ajohnstonte.gemini.input.Values;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Several listeners combined into one, called in the order they were
+ * added. A form holds its single listener as is, and only combines them
+ * once a second is added.
+ *
+ * @author ajohnston
+ */
+final class FormListeners
+    implements FormListener
+{
+  private final FormListener[] listeners;
+
+  private FormListeners(FormListener[] listeners)
+  {
+    this.listeners = listeners;
+  }
+
+  /**
+   * @return the given listener with another added, or the other alone if
+   * the given listener is null
+   */
+  static FormListener add(FormListener listener, FormListener added)
+  {
+    if (listener == null)
+    {
+      return added;
+    }
+    List<FormListener> combined = new ArrayList<>(list(listener));
+    combined.add(added);
+    return new FormListeners(combined.toArray(new FormListener[0]));
+  }
+
+  /**
+   * @return the given listener without the removed one, or null if none
+   * are left
+   */
+  static FormListener remove(FormListener listener, FormListener removed)
+  {
+    List<FormListener> remaining = new ArrayList<>(list(listener));
+    remaining.remove(removed);
+    switch (remaining.size())
+    {
+      case 0:
+        return null;
+      case 1:
+        return remaining.get(0);
+      default:
+        return new FormListeners(remaining.toArray(new FormListener[0]));
+    }
+  }
+
+  /**
+   * @return the listeners the given listener is made of
+   */
+  static List<FormListener> list(FormListener listener)
+  {
+    if (listener == null)
+    {
+      return Collections.emptyList();
+    }
+    if (listener instanceof FormListeners)
+    {
+      return Collections.unmodifiableList(
+          Arrays.asList(((FormListeners)listener).listeners));
+    }
+    return Collections.singletonList(listener);
+  }
+
+  @Override
+  public void beforeProcess(IRequestForm form)
+  {
+    for (FormListener listener : listeners)
+    {
+      listener.beforeProcess(form);
+    }
+  }
+
+  @Override
+  public void afterProcess(IRequestForm form, ValidationResult result,
+                           long nanos)
+  {
+    for (FormListener listener : listeners)
+    {
+      listener.afterProcess(form, result, nanos);
+    }
+  }
+
+  @Override
+  public void processAborted(IRequestForm form, Throwable error, long nanos)
+  {
+    for (FormListener listener : listeners)
+    {
+      listener.processAborted(form, error, nanos);
+    }
+  }
+
+  @Override
+  public void valuesRead(IRequestForm form, Values values)
+  {
+    for (FormListener listener : listeners)
+    {
+      listener.valuesRead(form, values);
+    }
+  }
+
+  @Override
+  public void fieldBound(IRequestForm form, IField<?> field, long nanos)
+  {
+    for (FormListener listener : listeners)
+    {
+      listener.fieldBound(form, field, nanos);
+    }
+  }
+
+  @Override
+  public void validatorStarted(IRequestForm form, String name,
+                               Validator validator)
+  {
+    for (FormListener listener : listeners)
+    {
+      listener.validatorStarted(form, name, validator);
+    }
+  }
+
+  @Override
+  public void validatorFinished(IRequestForm form, String name,
+                                Validator validator, long nanos,
+                                boolean rejected)
+  {
+    for (FormListener listener : listeners)
+    {
+      listener.validatorFinished(form, name, validator, nanos, rejected);
+    }
+  }
+
+  @Override
+  public void errorAdded(IRequestForm form, String element, String message)
+  {
+    for (FormListener listener : listeners)
+    {
+      listener.errorAdded(form, element, message);
+    }
+  }
+}
@@ -0,0 +1,276 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A registry of processing metrics for forms, their fields and their
+ * validators. Metrics are only recorded for forms given a registry with
+ * {@link RequestForm#setMetrics(FormMetrics)}; otherwise processing costs a
+ * single null check. All counters are striped, so many requests may record
+ * at once without contending. Usually a single registry is shared by every
+ * form in an application:
+ * <pre>
+ * public static final FormMetrics METRICS = new FormMetrics();
+ * </pre>
+ * Forms are named by their class by default. Fields are named by their
+ * name, and validators by their field's name, or "form" for the form's own
+ * validators, followed by their position, such as "email#0". Validators
+ * added by overriding {@link RequestForm#getValidators()} are named by
+ * their position among all of the form's validators, such as
+ * "validator#3".
+ *   <p>
+ * {@link #snapshot()} flattens everything into named numbers, for reporting
+ * through Gemini's monitor or any other metrics system.
+ *
+ * @author ajohnston
+ */
+public class FormMetrics
+{
+  private final Map<String, FormStats> forms = new ConcurrentHashMap<>();
+
+  /**
+   * @return the metrics of the named form, created if needed
+   */
+  public FormStats getForm(String name)
+  {
+    return forms.computeIfAbsent(name, FormStats::new);
+  }
+
+  /**
+   * @return the metrics of every form recorded so far, by name
+   */
+  public Map<String, FormStats> getForms()
+  {
+    return Collections.unmodifiableMap(forms);
+  }
+
+  /**
+   * Discards all metrics recorded so far.
+   */
+  public void clear()
+  {
+    forms.clear();
+  }
+
+  /**
+   * @return every metric as a number, keyed by a dotted name such as
+   * "SignUpForm.field.email.errors", in sorted order
+   */
+  public Map<String, Number> snapshot()
+  {
+    Map<String, Number> snapshot = new TreeMap<>();
+    forms.forEach((formName, form) -> {
+      snapshot.put(formName + ".submissions", form.submissions.sum());
+      snapshot.put(formName + ".failures", form.failures.sum());
+      snapshot.put(formName + ".rejections", form.rejections.sum());
+      putLatency(snapshot, formName + ".latency", form.latency);
+      form.fields.forEach((fieldName, field) -> {
+        String prefix = formName + ".field." + fieldName;
+        snapshot.put(prefix + ".errors", field.errors.sum());
+        putLatency(snapshot, prefix + ".bind", field.bindLatency);
+      });
+      form.validators.forEach((validatorName, validator) -> {
+        String prefix = formName + ".validator." + validatorName;
+        snapshot.put(prefix + ".rejections", validator.rejections.sum());
+        putLatency(snapshot, prefix + ".latency", validator.latency);
+      });
+    });
+    return snapshot;
+  }
+
+  private static void putLatency(Map<String, Number> snapshot, String prefix,
+                                 LatencyHistogram histogram)
+  {
+    snapshot.put(prefix + ".count", histogram.getCount());
+    snapshot.put(prefix + ".meanNanos", histogram.getMeanNanos());
+    snapshot.put(prefix + ".p50Nanos", histogram.getPercentileNanos(50));
+    snapshot.put(prefix + ".p99Nanos", histogram.getPercentileNanos(99));
+    snapshot.put(prefix + ".maxNanos", histogram.getMaxNanos());
+  }
+
+  /**
+   * The metrics of a single form.
+   */
+  public static class FormStats
+  {
+    private final String                      name;
+    private final LongAdder                   submissions = new LongAdder();
+    private final LongAdder                   failures    = new LongAdder();
+    private final LongAdder                   rejections  = new LongAdder();
+    private final LatencyHistogram            latency     = new LatencyHistogram();
+    private final Map<String, FieldStats>     fields      = new ConcurrentHashMap<>();
+    private final Map<String, ValidatorStats> validators  = new ConcurrentHashMap<>();
+
+    FormStats(String name)
+    {
+      this.name = name;
+    }
+
+    public String getName()
+    {
+      return name;
+    }
+
+    /**
+     * @return the number of times the form was processed
+     */
+    public long getSubmissionCount()
+    {
+      return submissions.sum();
+    }
+
+    /**
+     * @return the number of submissions that failed validation, including
+     * those rejected for exceeding the form's input limits
+     */
+    public long getFailureCount()
+    {
+      return failures.sum();
+    }
+
+    /**
+     * @return the number of submissions rejected for exceeding the form's
+     * input limits
+     */
+    public long getRejectionCount()
+    {
+      return rejections.sum();
+    }
+
+    /**
+     * @return the time taken to process the form as a whole
+     */
+    public LatencyHistogram getLatency()
+    {
+      return latency;
+    }
+
+    public Map<String, FieldStats> getFields()
+    {
+      return Collections.unmodifiableMap(fields);
+    }
+
+    public Map<String, ValidatorStats> getValidators()
+    {
+      return Collections.unmodifiableMap(validators);
+    }
+
+    /**
+     * @return the metrics of the named field, created if needed
+     */
+    public FieldStats getField(String name)
+    {
+      return fields.computeIfAbsent(name, key -> new FieldStats());
+    }
+
+    /**
+     * @return the metrics of the named validator, created if needed
+     */
+    public ValidatorStats getValidator(String name)
+    {
+      return validators.computeIfAbsent(name, key -> new ValidatorStats());
+    }
+
+    void recordSubmission(long nanos, boolean failed, boolean rejected)
+    {
+      submissions.increment();
+      latency.record(nanos);
+      if (failed)
+      {
+        failures.increment();
+      }
+      if (rejected)
+      {
+        rejections.increment();
+      }
+    }
+  }
+
+  /**
+   * The metrics of a single field.
+   */
+  public static class FieldStats
+  {
+    private final LongAdder        errors      = new LongAdder();
+    private final LatencyHistogram bindLatency = new LatencyHistogram();
+
+    /**
+     * @return the number of submissions in which the field had an error
+     */
+    public long getErrorCount()
+    {
+      return errors.sum();
+    }
+
+    /**
+     * @return the time taken to parse the field's value and set it
+     */
+    public LatencyHistogram getBindLatency()
+    {
+      return bindLatency;
+    }
+
+    void recordError()
+    {
+      errors.increment();
+    }
+
+    void recordBind(long nanos)
+    {
+      bindLatency.record(nanos);
+    }
+  }
+
+  /**
+   * The metrics of a single validator.
+   */
+  public static class ValidatorStats
+  {
+    private final LongAdder        rejections = new LongAdder();
+    private final LatencyHistogram latency    = new LatencyHistogram();
+
+    /**
+     * @return the number of times the validator ran
+     */
+    public long getRunCount()
+    {
+      return latency.getCount();
+    }
+
+    /**
+     * @return the number of times the validator raised an error
+     */
+    public long getRejectionCount()
+    {
+      return rejections.sum();
+    }
+
+    /**
+     * @return the fraction of runs in which the validator raised an error,
+     * or 0 if it hasn't run
+     */
+    public double getRejectionRate()
+    {
+      long runs = getRunCount();
+      return runs > 0 ? (double)getRejectionCount() / runs : 0.0;
+    }
+
+    public LatencyHistogram getLatency()
+    {
+      return latency;
+    }
+
+    void record(long nanos, boolean rejected)
+    {
+      latency.record(nanos);
+      if (rejected)
+      {
+        rejections.increment();
+      }
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A flight recorder event for a single submission of a form, from reading
+ * its input through binding its fields. By default only submissions taking
+ * at least a millisecond are recorded; the threshold, like whether the event
+ * is enabled at all, may be changed through the recording's settings under
+ * the event's name.
+ *
+ * @author ajohnston
+ */
+@Name(FormProcessEvent.NAME)
+@Label("Form Processing")
+@Description("A form processing a single submission")
+@Category({ "Gemini", "Request Forms" })
+@Threshold("1 ms")
+@StackTrace(false)
+public class FormProcessEvent
+    extends Event
+{
+  public static final String NAME = "io.github.ajohnstonte.requestform.FormProcess";
+
+  @Label("Form")
+  Class<?> form;
+
+  @Label("Outcome")
+  @Description("passed, failed, rejected or aborted")
+  String   outcome;
+
+  @Label("Errors")
+  int      errorCount;
+}
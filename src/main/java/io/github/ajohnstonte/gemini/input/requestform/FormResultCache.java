@@ -0,0 +1,311 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+import io.github.ajohnstonte.gemini.input.ValidationResult;
+import io.github.ajohnstonte.gemini.input.Values;
+import io.github.ajohnstonte.helper.PerfectHash;
+
+import java.lang.reflect.Array;
+import java.util.*;
+
+/**
+ * An opt-in cache of the results of processing a form, for forms such as
+ * searches and filters that see the same input over and over. Results are
+ * keyed by the values of the form's fields, so the order of the parameters
+ * and any parameters the form doesn't read have no effect. On a hit, the
+ * fields are set to the values bound the first time and the same errors
+ * are returned, without any parsing or validation.
+ *   <p>
+ * Only suitable for forms whose validation depends on nothing but the
+ * values of their fields. A single cache is meant to be shared by every
+ * instance of a form class:
+ * <pre>
+ * private static final FormResultCache CACHE = new FormResultCache(1_000);
+ * ...
+ * form.setResultCache(CACHE);
+ * </pre>
+ * The least recently used result is evicted once the cache is full. Results
+ * are keyed by the form's schema version as well, so instances of a form
+ * configured differently may share a cache without seeing each other's
+ * results; those of a version no longer in use are evicted in time like any
+ * other. Input with more
+ * characters in its values than {@link #getMaxKeyLength()} is never cached,
+ * nor are results missing any validators, such as those skipped under load.
+ *   <p>
+ * Bound values are copied as they are stored and again on each hit if they
+ * are arrays, lists, sets or maps, and are otherwise shared between hits, so
+ * fields with other mutable values should not be cached. Results are also
+ * discarded if a form's fields are configured differently, such as with
+ * other options or limits; see {@link RequestForm#getSchemaVersion()}.
+ *
+ * @author ajohnston
+ */
+public class FormResultCache
+{
+  /**
+   * The default limit on the number of characters in a cached input's
+   * values.
+   */
+  public static final int DEFAULT_MAX_KEY_LENGTH = 1_024;
+
+  private final int                    maximumSize;
+  private final Map<Key, CachedResult> results;
+  private       int                    maxKeyLength = DEFAULT_MAX_KEY_LENGTH;
+  private       long                   hits;
+  private       long                   misses;
+  private       long                   evictions;
+
+  /**
+   * @param maximumSize the number of results kept before the least recently
+   *                    used is evicted
+   */
+  public FormResultCache(int maximumSize)
+  {
+    if (maximumSize <= 0)
+    {
+      throw new IllegalArgumentException("Maximum size must be positive.");
+    }
+    this.maximumSize = maximumSize;
+    this.results = new LinkedHashMap<Key, CachedResult>(16, 0.75f, true)
+    {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, CachedResult> eldest)
+      {
+        if (size() > FormResultCache.this.maximumSize)
+        {
+          evictions++;
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  public int getMaximumSize()
+  {
+    return maximumSize;
+  }
+
+  /**
+   * @return the most characters an input's values may have, in total, for
+   * its result to be cached
+   */
+  public int getMaxKeyLength()
+  {
+    return maxKeyLength;
+  }
+
+  public FormResultCache setMaxKeyLength(int maxKeyLength)
+  {
+    this.maxKeyLength = maxKeyLength;
+    return this;
+  }
+
+  /**
+   * @return the number of results currently cached
+   */
+  public synchronized int size()
+  {
+    return results.size();
+  }
+
+  public synchronized long getHitCount()
+  {
+    return hits;
+  }
+
+  public synchronized long getMissCount()
+  {
+    return misses;
+  }
+
+  /**
+   * @return the number of results evicted to make room for newer ones
+   */
+  public synchronized long getEvictionCount()
+  {
+    return evictions;
+  }
+
+  /**
+   * @return the fraction of lookups that were hits, or 0 if there have been
+   * none
+   */
+  public synchronized double getHitRate()
+  {
+    long lookups = hits + misses;
+    return lookups > 0 ? (double)hits / lookups : 0.0;
+  }
+
+  /**
+   * Removes all cached results. Statistics are kept.
+   */
+  public synchronized void clear()
+  {
+    results.clear();
+  }
+
+  /**
+   * Builds the key for the given values of the named fields, for a form of
+   * the given schema version.
+   *
+   * @return the key, or null if the values are too large to be cached
+   */
+  Key key(Object schemaVersion, PerfectHash names, Values values)
+  {
+    String[][] fieldValues = new String[names.size()][];
+    int length = 0;
+    for (int i = 0; i < fieldValues.length; i++)
+    {
+      String[] strings = values.getStrings(names.getKey(i));
+      if (strings != null)
+      {
+        for (String string : strings)
+        {
+          length += string != null ? string.length() + 1 : 1;
+        }
+        if (length > maxKeyLength)
+        {
+          return null;
+        }
+      }
+      fieldValues[i] = strings;
+    }
+    return new Key(schemaVersion, fieldValues);
+  }
+
+  /**
+   * @return the cached result for the given key, or null if there is none
+   */
+  synchronized CachedResult get(Key key)
+  {
+    CachedResult result = results.get(key);
+    if (result != null)
+    {
+      hits++;
+    }
+    else
+    {
+      misses++;
+    }
+    return result;
+  }
+
+  synchronized void put(Key key, CachedResult result)
+  {
+    results.put(key, result);
+  }
+
+  /**
+   * The schema version of a form and the values of its fields, in the order
+   * of the form's field names.
+   */
+  static final class Key
+  {
+    private final Object     schemaVersion;
+    private final String[][] values;
+    private final int        hash;
+
+    Key(Object schemaVersion, String[][] values)
+    {
+      this.schemaVersion = schemaVersion;
+      this.values = values;
+      this.hash = 31 * Objects.hashCode(schemaVersion)
+          + Arrays.deepHashCode(values);
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+      return other instanceof Key
+          && hash == ((Key)other).hash
+          && Arrays.deepEquals(values, ((Key)other).values)
+          && Objects.equals(schemaVersion, ((Key)other).schemaVersion);
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return hash;
+    }
+  }
+
+  /**
+   * The result of processing a form, along with the value bound to each of
+   * its fields.
+   */
+  static final class CachedResult
+  {
+    private final ValidationResult result;
+    private final Object[]         fieldValues;
+
+    CachedResult(ValidationResult result, Object[] fieldValues)
+    {
+      this.result = result;
+      this.fieldValues = new Object[fieldValues.length];
+      for (int i = 0; i < fieldValues.length; i++)
+      {
+        this.fieldValues[i] = copy(fieldValues[i]);
+      }
+    }
+
+    ValidationResult getResult()
+    {
+      return result;
+    }
+
+    /**
+     * @return the value bound to the field at the given index, copied if it
+     * is mutable
+     */
+    Object getFieldValue(int index)
+    {
+      return copy(fieldValues[index]);
+    }
+
+    /**
+     * @return a copy of the value if it is an array or a collection, or the
+     * value itself otherwise
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object copy(Object value)
+    {
+      if (value == null)
+      {
+        return null;
+      }
+      if (value.getClass().isArray())
+      {
+        int length = Array.getLength(value);
+        Object copy = Array.newInstance(value.getClass().getComponentType(),
+            length);
+        System.arraycopy(value, 0, copy, 0, length);
+        return copy;
+      }
+      if (value instanceof EnumSet)
+      {
+        return ((EnumSet)value).clone();
+      }
+      if (value instanceof SortedSet)
+      {
+        return new TreeSet<>((SortedSet)value);
+      }
+      if (value instanceof Set)
+      {
+        return new LinkedHashSet<>((Set)value);
+      }
+      if (value instanceof List)
+      {
+        return new ArrayList<>((List)value);
+      }
+      if (value instanceof SortedMap)
+      {
+        return new TreeMap<>((SortedMap)value);
+      }
+      if (value instanceof Map)
+      {
+        return new LinkedHashMap<>((Map)value);
+      }
+      return value;
+    }
+  }
+}
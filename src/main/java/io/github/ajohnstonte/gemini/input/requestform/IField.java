@@ -1,11 +1,11 @@
 package io.github.ajohnstonte.gemini.input.requestform;
 
 import com.techempower.gemini.input.Input;
-import io.github.ajohnstonte.gemini.input.QueryValues;
 import io.github.ajohnstonte.gemini.input.Values;
 import com.techempower.gemini.input.validator.Validator;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
 
@@ -67,6 +67,19 @@ public interface IField<T>
     return validators;
   }
 
+  /**
+   * Provides the settings the standard validators depend on beyond
+   * requiredness, such as limits or options, so that a form can tell apart
+   * instances whose fields are configured differently. Fields with such
+   * settings should override this.
+   *
+   * @return the settings, comparable with equals; empty by default
+   */
+  default List<Object> getValidationSettings()
+  {
+    return Collections.emptyList();
+  }
+
   /**
    * May return null if no validators required.
    *
@@ -138,7 +151,7 @@ public interface IField<T>
     if (valueAccess != null)
     {
       T value = valueAccess.apply(new ValueAccess(
-          new QueryValues(input), this));
+          Values.from(input), this));
       if (value != null)
       {
         return value;
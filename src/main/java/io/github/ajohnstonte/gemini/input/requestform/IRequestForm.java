@@ -4,6 +4,9 @@ import com.techempower.gemini.Context;
 import com.techempower.gemini.context.Query;
 import com.techempower.gemini.input.Input;
 import com.techempower.gemini.input.validator.Validator;
+import io.github.ajohnstonte.gemini.input.InputLimits;
+import io.github.ajohnstonte.gemini.input.ValidationResult;
+import io.github.ajohnstonte.gemini.input.Values;
 
 import java.util.List;
 import java.util.Map;
@@ -35,10 +38,133 @@ public interface IRequestForm
   void addValidator(Validator validator);
   
   /**
-   * Applies the validators from the form and its fields, then sets the values of all the fields.
+   * Sets the limits on the size and shape of the input the form will accept.
+   * Input exceeding them is rejected before any field logic runs: the fields
+   * are set to their defaults, and neither parsing nor validators are run.
+   * Null, the default, for no limits.
+   */
+  IRequestForm setInputLimits(InputLimits inputLimits);
+  
+  /**
+   * @return the limits on the input the form will accept, or null if none
+   */
+  InputLimits getInputLimits();
+  
+  /**
+   * Sets the cache of processing results to use, so that input the form has
+   * already processed is not parsed or validated again. Only suitable for
+   * forms whose validation depends solely on the values of their fields.
+   * Null, the default, for no caching.
+   */
+  IRequestForm setResultCache(FormResultCache resultCache);
+  
+  /**
+   * @return the cache of processing results, or null if none
+   */
+  FormResultCache getResultCache();
+  
+  /**
+   * Sets the limits on the time the form's validators may take, and what
+   * becomes of validators that exceed them. Null, the default, for no
+   * limits.
+   */
+  IRequestForm setValidationBudget(ValidationBudget validationBudget);
+  
+  /**
+   * @return the limits on the time the form's validators may take, or null
+   * if none
+   */
+  ValidationBudget getValidationBudget();
+  
+  /**
+   * Sets the shedder deciding which of the form's validators to skip while
+   * the server is overloaded. Null, the default, to always run them all.
+   */
+  IRequestForm setLoadShedder(LoadShedder loadShedder);
+  
+  /**
+   * @return the shedder deciding which validators to skip under load, or
+   * null if none
+   */
+  LoadShedder getLoadShedder();
+  
+  /**
+   * Sets whether to stop validating at the first error, rather than running
+   * every validator to report every error. False by default.
+   */
+  IRequestForm setFailFast(boolean failFast);
+  
+  /**
+   * @return true if validation stops at the first error
+   */
+  boolean isFailFast();
+  
+  /**
+   * Sets the statistics by which the fields' validators are reordered to
+   * reject invalid input as cheaply as possible. Only reorders if the form
+   * is fail-fast. Null, the default, to keep the declared order.
+   */
+  IRequestForm setAdaptiveOrdering(AdaptiveOrdering adaptiveOrdering);
+  
+  /**
+   * @return the statistics by which validators are reordered, or null if
+   * none
+   */
+  AdaptiveOrdering getAdaptiveOrdering();
+  
+  /**
+   * Sets the registry to record the form's processing metrics to, such as
+   * latencies and error rates of the form, its fields and its validators.
+   * Null, the default, to record none.
+   */
+  IRequestForm setMetrics(FormMetrics metrics);
+  
+  /**
+   * @return the registry the form's metrics are recorded to, or null if none
+   */
+  FormMetrics getMetrics();
+  
+  /**
+   * Adds a listener to be called back as the form is processed, after any
+   * listeners already added. See {@link FormListener}.
+   */
+  IRequestForm addListener(FormListener listener);
+  
+  /**
+   * Removes a listener added with {@link #addListener(FormListener)}.
+   */
+  IRequestForm removeListener(FormListener listener);
+  
+  /**
+   * @return the form's listeners, in the order they are called
+   */
+  List<FormListener> getListeners();
+  
+  /**
+   * @return the time each validator took the last time the form was
+   * processed, in the order they ran. Only recorded when the form has a
+   * validation budget; empty otherwise.
+   */
+  List<ValidatorTiming> getValidatorTimings();
+  
+  /**
+   * Applies the validators from the form and its fields, then sets the values of all the fields. If the request exceeds
+   * the form's input limits, instead returns a {@link io.github.ajohnstonte.gemini.input.RejectedInput} with a single
+   * error, without running any validators.
    */
   Input process(Context context);
   
+  /**
+   * Applies the validators from the form and its fields to the given values, then sets the values of all the fields,
+   * without needing a Gemini Context. Validators read the values through {@link Values#from(Input)}; any that call
+   * {@link Input#values()} are unsupported here. If the values exceed the form's input limits, the result is rejected
+   * with a single error, without running any validators.
+   *
+   * @param values the values to validate and set the fields from
+   * @return the errors raised, which may be converted to an Input if needed
+   */
+  ValidationResult process(Values values);
+  
   /**
    * Sets the values of the form's fields to the values in the query.
    *
@@ -52,4 +178,32 @@ public interface IRequestForm
    * @param query the source from which to set the values of the fields in this form
    */
   void setValuesFromMap(Map<String, List<String>> query);
+  
+  /**
+   * Sets the values of the form's fields to the values in the raw,
+   * URL-encoded query string or form body. Only the values read by the
+   * form's fields are decoded.
+   *
+   * @param queryString the source from which to set the values of the fields in this form
+   */
+  void setValuesFromQueryString(CharSequence queryString);
+  
+  /**
+   * Sets the values of the form's fields to the values in the JSON document.
+   * Field names are member names of the top-level object, or dotted paths to
+   * members of nested objects. The document is scanned once for all of the
+   * fields' names.
+   *
+   * @param json the source from which to set the values of the fields in this form
+   */
+  void setValuesFromJson(CharSequence json);
+  
+  /**
+   * Sets the values of the form's fields to the given values. If the values
+   * exceed the form's input limits, the fields are set to their defaults
+   * instead.
+   *
+   * @param values the source from which to set the values of the fields in this form
+   */
+  void setValuesFrom(Values values);
 }
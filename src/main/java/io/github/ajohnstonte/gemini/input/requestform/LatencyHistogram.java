@@ -0,0 +1,114 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies with a bucket for each power of two nanoseconds,
+ * so percentiles are accurate to within a factor of two. Every bucket is a
+ * striped counter, so recording from many threads at once doesn't contend.
+ *
+ * @author ajohnston
+ */
+public class LatencyHistogram
+{
+  private static final int BUCKETS = 64;
+
+  private final LongAdder[]     buckets = new LongAdder[BUCKETS];
+  private final LongAdder       total   = new LongAdder();
+  private final LongAccumulator max     = new LongAccumulator(Math::max, 0L);
+
+  public LatencyHistogram()
+  {
+    for (int i = 0; i < BUCKETS; i++)
+    {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Records a single latency. Negative latencies are counted as zero.
+   */
+  public void record(long nanos)
+  {
+    nanos = Math.max(0L, nanos);
+    buckets[BUCKETS - Long.numberOfLeadingZeros(nanos)].increment();
+    total.add(nanos);
+    max.accumulate(nanos);
+  }
+
+  public long getCount()
+  {
+    long count = 0L;
+    for (LongAdder bucket : buckets)
+    {
+      count += bucket.sum();
+    }
+    return count;
+  }
+
+  public long getTotalNanos()
+  {
+    return total.sum();
+  }
+
+  public long getMaxNanos()
+  {
+    return max.get();
+  }
+
+  public double getMeanNanos()
+  {
+    long count = getCount();
+    return count > 0 ? (double)getTotalNanos() / count : 0.0;
+  }
+
+  /**
+   * @param percentile from 0 to 100
+   * @return an upper bound on the given percentile of the recorded
+   * latencies, or 0 if none have been recorded
+   */
+  public long getPercentileNanos(double percentile)
+  {
+    long[] counts = getBucketCounts();
+    long count = 0L;
+    for (long bucketCount : counts)
+    {
+      count += bucketCount;
+    }
+    if (count == 0L)
+    {
+      return 0L;
+    }
+    long rank = (long)Math.ceil(count * Math.min(100.0, percentile) / 100.0);
+    long seen = 0L;
+    for (int i = 0; i < BUCKETS; i++)
+    {
+      seen += counts[i];
+      if (seen >= Math.max(1L, rank))
+      {
+        return Math.min(getMaxNanos(), upperBound(i));
+      }
+    }
+    return getMaxNanos();
+  }
+
+  /**
+   * @return the count of each bucket. Bucket 0 holds latencies of zero, and
+   * each bucket i after holds latencies from 2^(i-1) up to 2^i - 1.
+   */
+  public long[] getBucketCounts()
+  {
+    long[] counts = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++)
+    {
+      counts[i] = buckets[i].sum();
+    }
+    return counts;
+  }
+
+  private static long upperBound(int bucket)
+  {
+    return bucket >= BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+  }
+}
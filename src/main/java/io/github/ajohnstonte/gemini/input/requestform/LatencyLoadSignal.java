@@ -0,0 +1,54 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+import java.time.Duration;
+
+/**
+ * A {@link LoadSignal} based on recent latency, such as that of whole
+ * requests. Each recorded latency is folded into an exponentially weighted
+ * moving average, and load is that average as a fraction of the target
+ * latency, so a server meeting its target exactly is at a load of 1.
+ *
+ * @author ajohnston
+ */
+public class LatencyLoadSignal
+    implements LoadSignal
+{
+  private final    long   targetNanos;
+  private final    double weight;
+  private volatile double averageNanos;
+
+  /**
+   * @param target the latency at which the server is considered saturated
+   * @param weight how much each recorded latency moves the average, between
+   *               0 and 1. Higher values react faster to changes in load.
+   */
+  public LatencyLoadSignal(Duration target, double weight)
+  {
+    if (weight <= 0.0 || weight > 1.0)
+    {
+      throw new IllegalArgumentException("Weight must be within (0, 1].");
+    }
+    this.targetNanos = target.toNanos();
+    this.weight = weight;
+  }
+
+  /**
+   * Records the latency of a single request. Concurrent calls may lose an
+   * update now and then, which only makes the average slightly smoother.
+   */
+  public void record(long latencyNanos)
+  {
+    averageNanos += (latencyNanos - averageNanos) * weight;
+  }
+
+  public void record(Duration latency)
+  {
+    record(latency.toNanos());
+  }
+
+  @Override
+  public double getLoad()
+  {
+    return averageNanos / targetNanos;
+  }
+}
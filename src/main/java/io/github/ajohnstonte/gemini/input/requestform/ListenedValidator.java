@@ -0,0 +1,53 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+import com.techempower.gemini.input.Input;
+import com.techempower.gemini.input.validator.Validator;
+import io.github.ajohnstonte.gemini.input.ValidationResult;
+
+import java.util.List;
+
+/**
+ * A validator that reports its start, its finish and the errors it raised
+ * to a form's {@link FormListener}.
+ *
+ * @author ajohnston
+ */
+class ListenedValidator
+    extends ManagedValidator
+{
+  private final Validator    validator;
+  private final IRequestForm form;
+  private final String       name;
+  private final FormListener listener;
+
+  ListenedValidator(Validator validator, IRequestForm form, String name,
+                    FormListener listener)
+  {
+    super(unwrap(validator), timeoutOf(validator), priorityOf(validator));
+    this.validator = validator;
+    this.form = form;
+    this.name = name;
+    this.listener = listener;
+  }
+
+  @Override
+  public void process(Input input)
+  {
+    final Validator unwrapped = unwrap(validator);
+    final int errors = ValidatorRunner.errorCount(input);
+    listener.validatorStarted(form, name, unwrapped);
+    final long start = System.nanoTime();
+    validator.process(input);
+    final long nanos = System.nanoTime() - start;
+    final boolean rejected = ValidatorRunner.errorCount(input) > errors;
+    if (rejected)
+    {
+      List<ValidationResult.Error> added = ValidationResult.of(input).getErrors();
+      for (ValidationResult.Error error : added.subList(errors, added.size()))
+      {
+        listener.errorAdded(form, error.getElement(), error.getMessage());
+      }
+    }
+    listener.validatorFinished(form, name, unwrapped, nanos, rejected);
+  }
+}
@@ -0,0 +1,160 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+import com.techempower.gemini.input.validator.Validator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Skips the less essential of a form's validators while the server is
+ * overloaded, so that forms degrade gracefully rather than time out. Load is
+ * read from a {@link LoadSignal} once each time a form is processed. At or
+ * above the optional threshold, {@link ValidatorPriority#OPTIONAL} validators
+ * are skipped; at or above the normal threshold, so are
+ * {@link ValidatorPriority#NORMAL} ones. {@link ValidatorPriority#REQUIRED}
+ * validators, including the standard validators of every field, are never
+ * skipped.
+ *   <p>
+ * Validators are {@link ValidatorPriority#NORMAL} unless given a priority
+ * with {@link #withPriority(Validator, ValidatorPriority)} or
+ * {@link FieldValidator#setPriority(ValidatorPriority)}. A shedder is meant to
+ * be shared by all forms, so that its counts cover them all:
+ * <pre>
+ * private static final LoadShedder SHEDDER = new LoadShedder(
+ *     LoadSignal.inFlight(InFlightFilter::count, 200));
+ * </pre>
+ *
+ * @author ajohnston
+ */
+public class LoadShedder
+{
+  private final LoadSignal signal;
+  private       double     optionalThreshold = 0.8;
+  private       double     normalThreshold   = Double.POSITIVE_INFINITY;
+  private final LongAdder  submissions       = new LongAdder();
+  private final LongAdder  shedSubmissions   = new LongAdder();
+  private final LongAdder  shedOptional      = new LongAdder();
+  private final LongAdder  shedNormal        = new LongAdder();
+
+  public LoadShedder(LoadSignal signal)
+  {
+    this.signal = signal;
+  }
+
+  public LoadSignal getSignal()
+  {
+    return signal;
+  }
+
+  /**
+   * @return the load at which optional validators are skipped, 0.8 by
+   * default
+   */
+  public double getOptionalThreshold()
+  {
+    return optionalThreshold;
+  }
+
+  public LoadShedder setOptionalThreshold(double optionalThreshold)
+  {
+    this.optionalThreshold = optionalThreshold;
+    return this;
+  }
+
+  /**
+   * @return the load at which normal validators are skipped as well, which
+   * by default is never
+   */
+  public double getNormalThreshold()
+  {
+    return normalThreshold;
+  }
+
+  public LoadShedder setNormalThreshold(double normalThreshold)
+  {
+    this.normalThreshold = normalThreshold;
+    return this;
+  }
+
+  /**
+   * Gives a single validator a priority other than normal.
+   */
+  public static Validator withPriority(Validator validator,
+                                       ValidatorPriority priority)
+  {
+    return ManagedValidator.withPriority(validator, priority);
+  }
+
+  /**
+   * @return the number of times a form was processed using this shedder
+   */
+  public long getSubmissionCount()
+  {
+    return submissions.sum();
+  }
+
+  /**
+   * @return the number of times a form was processed with at least one of
+   * its validators skipped
+   */
+  public long getShedSubmissionCount()
+  {
+    return shedSubmissions.sum();
+  }
+
+  /**
+   * @return the number of validators of the given priority skipped in
+   * total
+   */
+  public long getShedCount(ValidatorPriority priority)
+  {
+    switch (priority)
+    {
+      case OPTIONAL:
+        return shedOptional.sum();
+      case NORMAL:
+        return shedNormal.sum();
+      default:
+        return 0L;
+    }
+  }
+
+  /**
+   * @return the validators that should run under the current load, in their
+   * original order. The given list itself if none are skipped.
+   */
+  List<Validator> shed(List<Validator> validators)
+  {
+    submissions.increment();
+    final double load = signal.getLoad();
+    if (load < optionalThreshold && load < normalThreshold)
+    {
+      return validators;
+    }
+    final List<Validator> kept = new ArrayList<>(validators.size());
+    for (Validator validator : validators)
+    {
+      ValidatorPriority priority = ManagedValidator.priorityOf(validator);
+      if (priority == ValidatorPriority.OPTIONAL
+          && load >= Math.min(optionalThreshold, normalThreshold))
+      {
+        shedOptional.increment();
+      }
+      else if (priority == ValidatorPriority.NORMAL && load >= normalThreshold)
+      {
+        shedNormal.increment();
+      }
+      else
+      {
+        kept.add(validator);
+      }
+    }
+    if (kept.size() == validators.size())
+    {
+      return validators;
+    }
+    shedSubmissions.increment();
+    return kept;
+  }
+}
@@ -0,0 +1,31 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+import java.util.function.IntSupplier;
+
+/**
+ * A measure of how loaded the server is, used by a {@link LoadShedder} to
+ * decide which validators to skip. Load is given as a fraction of capacity,
+ * where 0 is idle and 1 is saturated, though it may exceed 1.
+ *
+ * @author ajohnston
+ */
+@FunctionalInterface
+public interface LoadSignal
+{
+  /**
+   * @return the current load, from 0 for idle
+   */
+  double getLoad();
+
+  /**
+   * A signal based on the number of requests in flight, such as those
+   * counted by a servlet filter.
+   *
+   * @param inFlight the number of requests currently being handled
+   * @param capacity the number of requests at which the server is saturated
+   */
+  static LoadSignal inFlight(IntSupplier inFlight, int capacity)
+  {
+    return () -> (double)inFlight.getAsInt() / capacity;
+  }
+}
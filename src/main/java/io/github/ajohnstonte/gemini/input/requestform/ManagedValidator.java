@@ -0,0 +1,88 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+import com.techempower.gemini.input.Input;
+import com.techempower.gemini.input.validator.Validator;
+
+import java.time.Duration;
+
+/**
+ * A validator along with the settings a form uses to decide how to run it,
+ * such as its own timeout or its priority. Created through
+ * {@link ValidationBudget#withTimeout(Validator, Duration)} and
+ * {@link LoadShedder#withPriority(Validator, ValidatorPriority)}, which may
+ * be combined.
+ *
+ * @author ajohnston
+ */
+class ManagedValidator
+    implements Validator
+{
+  private final Validator         validator;
+  private final Duration          timeout;
+  private final ValidatorPriority priority;
+
+  ManagedValidator(Validator validator, Duration timeout,
+                   ValidatorPriority priority)
+  {
+    this.validator = validator;
+    this.timeout = timeout;
+    this.priority = priority;
+  }
+
+  static Validator withTimeout(Validator validator, Duration timeout)
+  {
+    return new ManagedValidator(unwrap(validator), timeout,
+        priorityOf(validator));
+  }
+
+  static Validator withPriority(Validator validator, ValidatorPriority priority)
+  {
+    return new ManagedValidator(unwrap(validator), timeoutOf(validator),
+        priority);
+  }
+
+  /**
+   * @return the validator's own timeout, or null if it doesn't have one
+   */
+  static Duration timeoutOf(Validator validator)
+  {
+    return validator instanceof ManagedValidator
+        ? ((ManagedValidator)validator).timeout
+        : null;
+  }
+
+  static ValidatorPriority priorityOf(Validator validator)
+  {
+    return validator instanceof ManagedValidator
+        ? ((ManagedValidator)validator).priority
+        : ValidatorPriority.NORMAL;
+  }
+
+  /**
+   * @return the validator itself, without its settings
+   */
+  static Validator unwrap(Validator validator)
+  {
+    return validator instanceof ManagedValidator
+        ? ((ManagedValidator)validator).validator
+        : validator;
+  }
+
+  /**
+   * @return the name of the validator's class, or of the field validator's
+   * class for a field validator, identifying it in flight recordings
+   */
+  static String identify(Validator validator)
+  {
+    Validator unwrapped = unwrap(validator);
+    return unwrapped instanceof FieldValidatorAdapter
+        ? ((FieldValidatorAdapter)unwrapped).getFieldValidator().getClass().getName()
+        : unwrapped.getClass().getName();
+  }
+
+  @Override
+  public void process(Input input)
+  {
+    validator.process(input);
+  }
+}
@@ -0,0 +1,86 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+import com.techempower.gemini.input.Input;
+import io.github.ajohnstonte.gemini.input.ValidationResult;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Wraps an expensive field validator that always gives the same outcome for
+ * the same value, such as one checking against static reference data, so
+ * that it only runs once per value. The errors it raises for each value are
+ * remembered in a {@link ValidationMemo} and raised again for the same value
+ * without running the validator:
+ * <pre>
+ * Field&lt;String&gt; postalCode = new TextField&lt;&gt;(this, "postalCode", String.class)
+ *     .addFieldValidator(new MemoizingFieldValidator&lt;&gt;(
+ *         new PostalCodeValidator(), POSTAL_CODES)
+ *         .setNormalizer(code -&gt; code != null ? code.trim().toUpperCase() : null));
+ * </pre>
+ * Values are those read by the field, optionally normalized first so that
+ * equivalent values share an outcome. The wrapped validator must not depend
+ * on anything but the field's value.
+ *
+ * @author ajohnston
+ */
+public class MemoizingFieldValidator<T>
+    extends FieldValidator<T>
+{
+  private final FieldValidator<T>   delegate;
+  private final ValidationMemo      memo;
+  private       Function<T, Object> normalizer;
+
+  public MemoizingFieldValidator(FieldValidator<T> delegate, ValidationMemo memo)
+  {
+    this.delegate = delegate;
+    this.memo = memo;
+  }
+
+  public MemoizingFieldValidator(BiConsumer<IField<T>, Input> validator,
+                                 ValidationMemo memo)
+  {
+    this(new Field.CallbackValidator<>(validator), memo);
+  }
+
+  /**
+   * Sets the function mapping each value to the key its outcome is
+   * remembered by. The value itself by default.
+   */
+  @SuppressWarnings("unchecked")
+  public MemoizingFieldValidator<T> setNormalizer(Function<T, ?> normalizer)
+  {
+    this.normalizer = (Function<T, Object>) normalizer;
+    return this;
+  }
+
+  public FieldValidator<T> getDelegate()
+  {
+    return delegate;
+  }
+
+  @Override
+  protected FieldValidator<T> setField(IField<T> field)
+  {
+    super.setField(field);
+    delegate.setField(field);
+    return this;
+  }
+
+  @Override
+  protected void process(Input input)
+  {
+    T value = getValue(input);
+    Object key = normalizer != null ? normalizer.apply(value) : value;
+    List<ValidationResult.Error> errors = memo.get(key);
+    if (errors == null)
+    {
+      RecordingInput recorder = new RecordingInput(input);
+      delegate.process(recorder);
+      errors = recorder.toResult().getErrors();
+      memo.put(key, errors);
+    }
+    ValidationResult.addErrors(errors, input);
+  }
+}
@@ -0,0 +1,34 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+import com.techempower.gemini.input.Input;
+import com.techempower.gemini.input.validator.Validator;
+
+/**
+ * A validator that records its latency and whether it rejected the input to
+ * a form's {@link FormMetrics}.
+ *
+ * @author ajohnston
+ */
+class MeteredValidator
+    extends ManagedValidator
+{
+  private final Validator                  validator;
+  private final FormMetrics.ValidatorStats stats;
+
+  MeteredValidator(Validator validator, FormMetrics.ValidatorStats stats)
+  {
+    super(unwrap(validator), timeoutOf(validator), priorityOf(validator));
+    this.validator = validator;
+    this.stats = stats;
+  }
+
+  @Override
+  public void process(Input input)
+  {
+    final int errors = ValidatorRunner.errorCount(input);
+    final long start = System.nanoTime();
+    validator.process(input);
+    stats.record(System.nanoTime() - start,
+        ValidatorRunner.errorCount(input) > errors);
+  }
+}
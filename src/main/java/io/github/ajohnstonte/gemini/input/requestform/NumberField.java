@@ -2,6 +2,7 @@ package io.github.ajohnstonte.gemini.input.requestform;
 
 import com.techempower.gemini.input.validator.Validator;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -41,6 +42,12 @@ public class NumberField<T>
     return this;
   }
 
+  @Override
+  public List<Object> getValidationSettings()
+  {
+    return Arrays.asList(getMin(), getMax());
+  }
+
   @Override
   public List<Validator> getStandardValidators()
   {
@@ -1,6 +1,7 @@
 package io.github.ajohnstonte.gemini.input.requestform;
 
 import com.techempower.gemini.input.Input;
+import io.github.ajohnstonte.gemini.input.Values;
 import io.github.ajohnstonte.helper.BoxedNumberHelper;
 
 import java.util.Optional;
@@ -98,7 +99,7 @@ public abstract class NumberFieldRangeValidator<T>
     @Override
     protected void process(Input input)
     {
-      String userValue = input.values().get(getElementName());
+      String userValue = Values.from(input).get(getElementName());
       final Long value = BoxedNumberHelper.parseLong(userValue, null);
       final Long minimum = Optional.ofNullable(getMin())
           .orElse(Long.MIN_VALUE);
@@ -121,7 +122,7 @@ public abstract class NumberFieldRangeValidator<T>
     @Override
     protected void process(Input input)
     {
-      String userValue = input.values().get(getElementName());
+      String userValue = Values.from(input).get(getElementName());
       final Double value = BoxedNumberHelper.parseDouble(userValue, null);
       final Double minimum = Optional.ofNullable(getMin())
           .orElse(Double.MIN_VALUE);
@@ -144,11 +145,8 @@ public abstract class NumberFieldRangeValidator<T>
     @Override
     protected void process(Input input)
     {
-      String userValue = input.values().get(getElementName());
-      final Float value = Optional.ofNullable(BoxedNumberHelper
-          .parseDouble(userValue, null))
-          .map(Double::floatValue)
-          .orElse(null);
+      String userValue = Values.from(input).get(getElementName());
+      final Float value = BoxedNumberHelper.parseFloat(userValue, null);
       final Float minimum = Optional.ofNullable(getMin())
           .orElse(Float.MIN_VALUE);
       final Float maximum = Optional.ofNullable(getMax())
@@ -171,7 +169,7 @@ public abstract class NumberFieldRangeValidator<T>
     @Override
     protected void process(Input input)
     {
-      String userValue = input.values().get(getElementName());
+      String userValue = Values.from(input).get(getElementName());
       final Double value = Optional.ofNullable(BoxedNumberHelper
           .parseDouble(userValue, null))
           .orElse(null);
@@ -197,17 +195,8 @@ public abstract class NumberFieldRangeValidator<T>
     @Override
     protected void process(Input input)
     {
-      String userValue = input.values().get(getElementName());
-      Short value;
-      try
-      {
-        value = Short.parseShort(userValue);
-      }
-      catch (Exception e)
-      {
-        value = null;
-      }
-
+      String userValue = Values.from(input).get(getElementName());
+      final Short value = BoxedNumberHelper.parseShort(userValue, null);
       final Short minimum = Optional.ofNullable(getMin())
           .orElse(Short.MIN_VALUE);
       final Short maximum = Optional.ofNullable(getMax())
@@ -230,17 +219,8 @@ public abstract class NumberFieldRangeValidator<T>
     @Override
     protected void process(Input input)
     {
-      String userValue = input.values().get(getElementName());
-      Byte value;
-      try
-      {
-        value = Byte.parseByte(userValue);
-      }
-      catch (Exception e)
-      {
-        value = null;
-      }
-
+      String userValue = Values.from(input).get(getElementName());
+      final Byte value = BoxedNumberHelper.parseByte(userValue, null);
       final Byte minimum = Optional.ofNullable(getMin())
           .orElse(Byte.MIN_VALUE);
       final Byte maximum = Optional.ofNullable(getMax())
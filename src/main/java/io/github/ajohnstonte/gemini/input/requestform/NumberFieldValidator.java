@@ -1,6 +1,7 @@
 package io.github.ajohnstonte.gemini.input.requestform;
 
 import com.techempower.gemini.input.Input;
+import io.github.ajohnstonte.gemini.input.Values;
 import io.github.ajohnstonte.helper.BoxedNumberHelper;
 import com.techempower.helper.StringHelper;
 
@@ -20,7 +21,7 @@ public abstract class NumberFieldValidator<T>
   @Override
   public void process(Input input)
   {
-    String value = input.values().get(getElementName());
+    String value = Values.from(input).get(getElementName());
     boolean required = getField().isRequired();
     if (!StringHelper.isEmpty(value) || required)
     {
@@ -106,7 +107,7 @@ public abstract class NumberFieldValidator<T>
     @Override
     boolean isValid(String value)
     {
-      return tryParse(Short::parseShort, value);
+      return tryParse(BoxedNumberHelper::parseShort, value);
     }
   }
 
@@ -115,20 +116,16 @@ public abstract class NumberFieldValidator<T>
     @Override
     boolean isValid(String value)
     {
-      return tryParse(Byte::parseByte, value);
+      return tryParse(BoxedNumberHelper::parseByte, value);
     }
   }
 
+  /**
+   * The parsers are all exception-free, returning null for invalid input.
+   */
   private static boolean tryParse(Function<String, ?> parser,
                                             String input)
   {
-    try
-    {
-      return parser.apply(input) != null;
-    }
-    catch (Exception e)
-    {
-      return false;
-    }
+    return parser.apply(input) != null;
   }
 }
@@ -0,0 +1,39 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event for a field given a value that couldn't be
+ * parsed, so that the field fell back to its default. The value itself is
+ * not recorded, only its length, since it is user-provided.
+ *
+ * @author ajohnston
+ */
+@Name(ParseFailureEvent.NAME)
+@Label("Form Field Parse Failure")
+@Description("A form field given a value it couldn't parse")
+@Category({ "Gemini", "Request Forms" })
+@StackTrace(false)
+public class ParseFailureEvent
+    extends Event
+{
+  public static final String NAME = "io.github.ajohnstonte.requestform.ParseFailure";
+
+  @Label("Form")
+  Class<?> form;
+
+  @Label("Field")
+  String   field;
+
+  @Label("Type")
+  @Description("The type of value the field expected")
+  Class<?> type;
+
+  @Label("Value Length")
+  int      valueLength;
+}
@@ -0,0 +1,48 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+import com.techempower.gemini.Context;
+import com.techempower.gemini.context.Query;
+import com.techempower.gemini.input.Input;
+import io.github.ajohnstonte.gemini.input.ValidationResult;
+import io.github.ajohnstonte.gemini.input.Values;
+import io.github.ajohnstonte.gemini.input.ValuesInput;
+
+/**
+ * Captures the errors raised by a validator without adding them to the
+ * input being validated, while giving the validator the same values and
+ * Context. The errors may then be added to the original input later, or not
+ * at all.
+ *
+ * @author ajohnston
+ */
+class RecordingInput
+    extends ValuesInput
+{
+  private final Input source;
+
+  RecordingInput(Input source)
+  {
+    super(Values.from(source));
+    this.source = source;
+  }
+
+  @Override
+  public Context context()
+  {
+    return source.context();
+  }
+
+  @Override
+  public Query values()
+  {
+    return source.values();
+  }
+
+  /**
+   * Adds the captured errors to the original input.
+   */
+  void replay()
+  {
+    ValidationResult.addErrors(toResult().getErrors(), source);
+  }
+}
@@ -4,12 +4,24 @@ import com.techempower.gemini.Context;
 import com.techempower.gemini.context.Query;
 import com.techempower.gemini.input.*;
 import com.techempower.gemini.input.validator.Validator;
+import io.github.ajohnstonte.gemini.input.InputLimitExceededException;
+import io.github.ajohnstonte.gemini.input.InputLimits;
+import io.github.ajohnstonte.gemini.input.JsonValues;
 import io.github.ajohnstonte.gemini.input.MapValues;
+import io.github.ajohnstonte.gemini.input.QueryStringValues;
 import io.github.ajohnstonte.gemini.input.QueryValues;
+import io.github.ajohnstonte.gemini.input.RejectedInput;
+import io.github.ajohnstonte.gemini.input.RequestValues;
+import io.github.ajohnstonte.gemini.input.SlotValues;
+import io.github.ajohnstonte.gemini.input.ValidationResult;
 import io.github.ajohnstonte.gemini.input.Values;
+import io.github.ajohnstonte.gemini.input.ValuesInput;
+import io.github.ajohnstonte.helper.PerfectHash;
 
 import java.util.*;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 /**
  * A collection of form fields, as well as custom validators. Partially a
@@ -21,8 +33,53 @@ import java.util.stream.Stream;
 public class RequestForm
     implements IRequestForm
 {
-  private List<IField<?>> fields;
-  private List<Validator> customValidators;
+  /**
+   * The hash of field names last built for each form class. Forms are
+   * usually instantiated for each request with the same fields, so the hash
+   * is only built again if an instance's names differ.
+   */
+  private static final ClassValue<AtomicReference<PerfectHash>> FIELD_NAMES =
+      new ClassValue<AtomicReference<PerfectHash>>()
+      {
+        @Override
+        protected AtomicReference<PerfectHash> computeValue(Class<?> type)
+        {
+          return new AtomicReference<>();
+        }
+      };
+  /**
+   * The schema versions of each form class, so that instances configured
+   * alike share one. Bounded, in case a class is configured in endless
+   * ways, such as with defaults taken from the request.
+   */
+  private static final ClassValue<Map<List<Object>, List<Object>>> SCHEMA_VERSIONS =
+      new ClassValue<Map<List<Object>, List<Object>>>()
+      {
+        @Override
+        protected Map<List<Object>, List<Object>> computeValue(Class<?> type)
+        {
+          return new ConcurrentHashMap<>();
+        }
+      };
+  private static final int MAX_SCHEMA_VERSIONS = 64;
+  private static final ClassValue<Boolean> OVERRIDES_VALIDATOR_SET =
+      new Overrides("getValidatorSet");
+  private static final ClassValue<Boolean> OVERRIDES_VALIDATORS =
+      new Overrides("getValidators");
+
+  private List<IField<?>>       fields;
+  private List<Validator>       customValidators;
+  private InputLimits           inputLimits;
+  private FormResultCache       resultCache;
+  private ValidationBudget      validationBudget;
+  private LoadShedder           loadShedder;
+  private boolean               failFast;
+  private AdaptiveOrdering      adaptiveOrdering;
+  private FormMetrics           metrics;
+  private FormListener          listener;
+  private List<ValidatorTiming> validatorTimings = Collections.emptyList();
+  private PerfectHash           fieldNames;
+  private Object                schemaVersion;
 
   public RequestForm()
   {
@@ -40,12 +97,233 @@ public class RequestForm
   public void addField(IField<?> field)
   {
     fields().add(field);
+    fieldNames = null;
+    schemaVersion = null;
   }
 
   @Override
   public void addValidator(Validator validator)
   {
     customValidators().add(validator);
+    schemaVersion = null;
+  }
+
+  @Override
+  public RequestForm setInputLimits(InputLimits inputLimits)
+  {
+    this.inputLimits = inputLimits;
+    return this;
+  }
+
+  @Override
+  public InputLimits getInputLimits()
+  {
+    return inputLimits;
+  }
+
+  @Override
+  public RequestForm setResultCache(FormResultCache resultCache)
+  {
+    this.resultCache = resultCache;
+    return this;
+  }
+
+  @Override
+  public FormResultCache getResultCache()
+  {
+    return resultCache;
+  }
+
+  @Override
+  public RequestForm setValidationBudget(ValidationBudget validationBudget)
+  {
+    this.validationBudget = validationBudget;
+    return this;
+  }
+
+  @Override
+  public ValidationBudget getValidationBudget()
+  {
+    return validationBudget;
+  }
+
+  @Override
+  public RequestForm setLoadShedder(LoadShedder loadShedder)
+  {
+    this.loadShedder = loadShedder;
+    return this;
+  }
+
+  @Override
+  public LoadShedder getLoadShedder()
+  {
+    return loadShedder;
+  }
+
+  @Override
+  public RequestForm setFailFast(boolean failFast)
+  {
+    this.failFast = failFast;
+    return this;
+  }
+
+  @Override
+  public boolean isFailFast()
+  {
+    return failFast;
+  }
+
+  @Override
+  public RequestForm setAdaptiveOrdering(AdaptiveOrdering adaptiveOrdering)
+  {
+    this.adaptiveOrdering = adaptiveOrdering;
+    return this;
+  }
+
+  @Override
+  public AdaptiveOrdering getAdaptiveOrdering()
+  {
+    return adaptiveOrdering;
+  }
+
+  @Override
+  public RequestForm setMetrics(FormMetrics metrics)
+  {
+    this.metrics = metrics;
+    return this;
+  }
+
+  @Override
+  public FormMetrics getMetrics()
+  {
+    return metrics;
+  }
+
+  @Override
+  public RequestForm addListener(FormListener listener)
+  {
+    this.listener = FormListeners.add(this.listener, listener);
+    return this;
+  }
+
+  @Override
+  public RequestForm removeListener(FormListener listener)
+  {
+    this.listener = FormListeners.remove(this.listener, listener);
+    return this;
+  }
+
+  @Override
+  public List<FormListener> getListeners()
+  {
+    return FormListeners.list(listener);
+  }
+
+  /**
+   * @return the name the form's metrics are recorded under, which by default
+   * is the name of its class
+   */
+  protected String getMetricsName()
+  {
+    return getClass().getName();
+  }
+
+  @Override
+  public List<ValidatorTiming> getValidatorTimings()
+  {
+    return validatorTimings;
+  }
+
+  /**
+   * Identifies the form's validation rules, so that cached results are
+   * discarded if they change. By default made up of the form's class and
+   * the class, name, type, requiredness, default, validation settings and
+   * number of custom validators of each field, along with the number of the
+   * form's custom validators; a field's standard validators follow from its
+   * settings, so none are built. Built once per instance, the first time it
+   * is needed, and shared by the instances of a class configured alike, so
+   * comparing them is usually a matter of identity. Forms whose rules can
+   * otherwise change, such as custom validators reading configuration,
+   * should override this.
+   */
+  protected Object getSchemaVersion()
+  {
+    if (schemaVersion == null)
+    {
+      List<Object> version = new ArrayList<>();
+      version.add(getClass());
+      for (IField<?> field : fields())
+      {
+        version.add(field.getClass());
+        version.add(field.getName());
+        version.add(field.getType());
+        version.add(field.isRequired());
+        version.add(field.getDefaultOnProcess());
+        version.add(field.getValidationSettings());
+        if (field instanceof Field)
+        {
+          version.add(((Field<?>)field).getCustomValidators().size());
+        }
+        else
+        {
+          List<Validator> validators = field.getValidators();
+          version.add(validators != null ? validators.size() : 0);
+        }
+      }
+      version.add(customValidators().size());
+      Map<List<Object>, List<Object>> versions = SCHEMA_VERSIONS.get(getClass());
+      List<Object> shared = versions.get(version);
+      if (shared == null && versions.size() < MAX_SCHEMA_VERSIONS)
+      {
+        shared = versions.putIfAbsent(version, version);
+      }
+      schemaVersion = shared != null ? shared : version;
+    }
+    return schemaVersion;
+  }
+
+  /**
+   * @return a perfect hash of the names of the form's fields, shared by the
+   * instances of the form's class that have the same fields, and rebuilt if
+   * more are added
+   */
+  protected PerfectHash getFieldNames()
+  {
+    if (fieldNames == null)
+    {
+      AtomicReference<PerfectHash> shared = FIELD_NAMES.get(getClass());
+      PerfectHash names = shared.get();
+      if (names == null || !hasFieldNames(names))
+      {
+        names = new PerfectHash(fields()
+            .stream()
+            .map(IField::getName)
+            .distinct()
+            .toArray(String[]::new));
+        shared.set(names);
+      }
+      fieldNames = names;
+    }
+    return fieldNames;
+  }
+
+  /**
+   * @return true if the keys of the hash are exactly the names of the
+   * form's fields
+   */
+  private boolean hasFieldNames(PerfectHash names)
+  {
+    BitSet found = new BitSet(names.size());
+    for (IField<?> field : fields())
+    {
+      int index = names.indexOf(field.getName());
+      if (index < 0)
+      {
+        return false;
+      }
+      found.set(index);
+    }
+    return found.cardinality() == names.size();
   }
 
   protected List<IField<?>> fields()
@@ -58,27 +336,416 @@ public class RequestForm
     return customValidators;
   }
 
+  /**
+   * @return the validators from the form's fields, followed by the form's
+   * custom validators, in the order they are run
+   */
+  protected List<Validator> getValidators()
+  {
+    return collectValidators(null);
+  }
+
+  /**
+   * Gathers the validators of the fields, followed by the form's custom
+   * validators.
+   *
+   * @param names if not null, receives the name of each validator, made of
+   *              the name of its field, or "form", and its position
+   */
+  private List<Validator> collectValidators(List<String> names)
+  {
+    List<Validator> validators = new ArrayList<>();
+    for (IField<?> field : fields())
+    {
+      List<Validator> fieldValidators = field.getValidators();
+      if (fieldValidators != null)
+      {
+        int index = 0;
+        for (Validator validator : fieldValidators)
+        {
+          if (validator != null)
+          {
+            validators.add(validator);
+            if (names != null)
+            {
+              names.add(field.getName() + "#" + index++);
+            }
+          }
+        }
+      }
+    }
+    int index = 0;
+    for (Validator validator : customValidators())
+    {
+      validators.add(validator);
+      if (names != null)
+      {
+        names.add("form#" + index++);
+      }
+    }
+    return validators;
+  }
+
+  /**
+   * Names the validators returned by an overridden {@link #getValidators()}.
+   * Fields build their validators afresh, so they're matched to the ones the
+   * form declares by class, in order: those that match keep their usual
+   * names, and any others are named by their position, such as
+   * "validator#3".
+   *
+   * @param declared the validators the form declares
+   * @param names    the names of the declared validators
+   */
+  private static List<String> nameValidators(List<Validator> validators,
+                                             List<Validator> declared,
+                                             List<String> names)
+  {
+    List<String> named = new ArrayList<>(validators.size());
+    int next = 0;
+    for (int i = 0; i < validators.size(); i++)
+    {
+      String identity = ManagedValidator.identify(validators.get(i));
+      String name = "validator#" + i;
+      for (int j = next; j < declared.size(); j++)
+      {
+        if (identity.equals(ManagedValidator.identify(declared.get(j))))
+        {
+          name = names.get(j);
+          next = j + 1;
+          break;
+        }
+      }
+      named.add(name);
+    }
+    return named;
+  }
+
+  /**
+   * No longer consulted unless a subclass overrides it. When overridden, the
+   * returned set validates {@link #process(Context)} as it did before, without
+   * metrics, listeners, adaptive ordering, load shedding or validation budgets;
+   * {@link #process(Values)} never uses it. Override {@link #getValidators()}
+   * instead.
+   *
+   * @deprecated override {@link #getValidators()} to change the validators
+   * that are run.
+   */
+  @Deprecated
   protected ValidatorSet getValidatorSet()
   {
-    Stream<Validator> fieldValidators = this.getFields()
-        .stream()
-        .flatMap(field -> Optional.ofNullable(field.getValidators())
-            .map(Collection::stream)
-            .orElseGet(Stream::of))
-        .filter(Objects::nonNull);
-    Stream<Validator> customValidators = this.customValidators().stream();
-    return new ValidatorSet(Stream.concat(fieldValidators, customValidators)
-        .toArray(Validator[]::new));
+    return new ValidatorSet(getValidators().toArray(new Validator[0]));
   }
 
   @Override
   public Input process(Context context)
   {
-    Input input = getValidatorSet().process(context);
-    setValuesFromQuery(context.query());
+    final Object event = FormEvents.beginProcess();
+    if (getMetrics() == null && event == null && listener == null)
+    {
+      return processContext(context);
+    }
+    if (listener != null)
+    {
+      listener.beforeProcess(this);
+    }
+    final long start = System.nanoTime();
+    Input input;
+    try
+    {
+      input = processContext(context);
+    }
+    catch (RuntimeException | Error e)
+    {
+      processAborted(event, e, System.nanoTime() - start);
+      throw e;
+    }
+    final long nanos = System.nanoTime() - start;
+    boolean rejected = input instanceof RejectedInput;
+    if (getMetrics() != null)
+    {
+      recordSubmission(nanos, input.failed(), rejected,
+          input.erroredElements() != null
+              ? input.erroredElements().keySet()
+              : Collections.emptySet());
+    }
+    FormEvents.endProcess(event, getClass(), input.failed(), rejected,
+        ValidatorRunner.errorCount(input));
+    if (listener != null)
+    {
+      listener.afterProcess(this, ValidationResult.of(input), nanos);
+    }
     return input;
   }
 
+  private Input processContext(Context context)
+  {
+    if (getInputLimits() != null && context.getRequest() != null)
+    {
+      try
+      {
+        new RequestValues(context.getRequest()).checkLimits(getInputLimits());
+      }
+      catch (InputLimitExceededException e)
+      {
+        getFields().forEach(IField::setValueToDefault);
+        return new RejectedInput(context, e);
+      }
+    }
+    FormResultCache cache = getResultCache();
+    FormResultCache.Key key = null;
+    if (cache != null && context.getRequest() != null)
+    {
+      key = cache.key(getSchemaVersion(), getFieldNames(),
+          SlotValues.of(getFieldNames(),
+          new RequestValues(context.getRequest())));
+      ValidationResult cached = fromCache(cache, key);
+      if (cached != null)
+      {
+        return cached.toInput(context);
+      }
+    }
+    Input input;
+    boolean complete = true;
+    if (OVERRIDES_VALIDATOR_SET.get(getClass()))
+    {
+      input = getValidatorSet().process(context);
+    }
+    else
+    {
+      input = new Input(context);
+      complete = runValidators(input);
+    }
+    if (getInputLimits() != null && context.getRequest() == null)
+    {
+      setValuesFromQuery(context.query());
+    }
+    else
+    {
+      // The request has already been checked against the limits.
+      bindValues(new QueryValues(context.query()));
+    }
+    if (key != null && complete)
+    {
+      toCache(cache, key, ValidationResult.of(input));
+    }
+    return input;
+  }
+
+  @Override
+  public ValidationResult process(Values values)
+  {
+    final Object event = FormEvents.beginProcess();
+    if (getMetrics() == null && event == null && listener == null)
+    {
+      return processValues(values);
+    }
+    if (listener != null)
+    {
+      listener.beforeProcess(this);
+    }
+    final long start = System.nanoTime();
+    ValidationResult result;
+    try
+    {
+      result = processValues(values);
+    }
+    catch (RuntimeException | Error e)
+    {
+      processAborted(event, e, System.nanoTime() - start);
+      throw e;
+    }
+    final long nanos = System.nanoTime() - start;
+    if (getMetrics() != null)
+    {
+      recordSubmission(nanos, result.failed(), result.isRejected(),
+          result.erroredElements().keySet());
+    }
+    FormEvents.endProcess(event, getClass(), result.failed(),
+        result.isRejected(), result.getErrors().size());
+    if (listener != null)
+    {
+      listener.afterProcess(this, result, nanos);
+    }
+    return result;
+  }
+
+  /**
+   * Closes the submission's event and tells listeners when processing
+   * throws, so that spans and captures they opened in beforeProcess aren't
+   * left open.
+   */
+  private void processAborted(Object event, Throwable error, long nanos)
+  {
+    FormEvents.abortProcess(event, getClass());
+    if (listener != null)
+    {
+      listener.processAborted(this, error, nanos);
+    }
+  }
+
+  private ValidationResult processValues(Values values)
+  {
+    if (getInputLimits() != null)
+    {
+      try
+      {
+        values.checkLimits(getInputLimits());
+      }
+      catch (InputLimitExceededException e)
+      {
+        getFields().forEach(IField::setValueToDefault);
+        return ValidationResult.rejected(e);
+      }
+    }
+    FormResultCache cache = getResultCache();
+    FormResultCache.Key key = null;
+    if (cache != null)
+    {
+      // Read the values the key is made from once, for validation as well.
+      values = SlotValues.of(getFieldNames(), values);
+      key = cache.key(getSchemaVersion(), getFieldNames(), values);
+      ValidationResult cached = fromCache(cache, key);
+      if (cached != null)
+      {
+        return cached;
+      }
+    }
+    ValuesInput input = new ValuesInput(values);
+    boolean complete = runValidators(input);
+    bindValues(values);
+    ValidationResult result = input.toResult();
+    if (key != null && complete)
+    {
+      toCache(cache, key, result);
+    }
+    return result;
+  }
+
+  /**
+   * Runs the form's validators against the input, within the form's
+   * validation budget if it has one. Less essential validators are left out
+   * if the form has a load shedder and the server is overloaded, and the
+   * order may be adapted if the form has an adaptive ordering.
+   *
+   * @return true if every validator ran to completion, so that the errors
+   * are fit to be cached
+   */
+  protected boolean runValidators(Input input)
+  {
+    List<Validator> all;
+    final boolean recordEvents = FormEvents.isValidatorEnabled();
+    if (getMetrics() != null || recordEvents || listener != null)
+    {
+      FormMetrics.FormStats stats = getMetrics() != null
+          ? getMetrics().getForm(getMetricsName())
+          : null;
+      List<String> names = new ArrayList<>();
+      all = collectValidators(names);
+      if (OVERRIDES_VALIDATORS.get(getClass()))
+      {
+        List<Validator> overridden = new ArrayList<>(getValidators());
+        names = nameValidators(overridden, all, names);
+        all = overridden;
+      }
+      for (int i = 0; i < all.size(); i++)
+      {
+        Validator validator = all.get(i);
+        if (stats != null)
+        {
+          validator = new MeteredValidator(validator,
+              stats.getValidator(names.get(i)));
+        }
+        if (recordEvents)
+        {
+          validator = FormEvents.recordValidator(validator, getClass(),
+              names.get(i));
+        }
+        if (listener != null)
+        {
+          validator = new ListenedValidator(validator, this, names.get(i),
+              listener);
+        }
+        all.set(i, validator);
+      }
+    }
+    else
+    {
+      all = getValidators();
+    }
+    if (getAdaptiveOrdering() != null)
+    {
+      all = getAdaptiveOrdering().order(all,
+          Math.max(0, all.size() - customValidators().size()),
+          getSchemaVersion(),
+          isFailFast());
+    }
+    List<Validator> validators = getLoadShedder() != null
+        ? getLoadShedder().shed(all)
+        : all;
+    boolean complete = validators == all;
+    if (getValidationBudget() != null)
+    {
+      validatorTimings = new ValidatorRunner(getValidationBudget(), isFailFast())
+          .run(validators, input);
+      complete = complete && validatorTimings.stream()
+          .noneMatch(ValidatorTiming::isLate);
+    }
+    else
+    {
+      validatorTimings = Collections.emptyList();
+      for (Validator validator : validators)
+      {
+        if (isFailFast() && ValidatorRunner.errorCount(input) > 0)
+        {
+          break;
+        }
+        validator.process(input);
+      }
+    }
+    return complete;
+  }
+
+  /**
+   * Sets the fields to the values bound by a cached result.
+   *
+   * @return the cached result, or null if there is none for the key
+   */
+  private ValidationResult fromCache(FormResultCache cache,
+                                     FormResultCache.Key key)
+  {
+    if (key == null)
+    {
+      return null;
+    }
+    FormResultCache.CachedResult cached = cache.get(key);
+    if (cached == null)
+    {
+      return null;
+    }
+    List<IField<?>> fields = fields();
+    for (int i = 0; i < fields.size(); i++)
+    {
+      restoreValue(fields.get(i), cached.getFieldValue(i));
+    }
+    return cached.getResult();
+  }
+
+  private void toCache(FormResultCache cache, FormResultCache.Key key,
+                       ValidationResult result)
+  {
+    Object[] fieldValues = fields()
+        .stream()
+        .map(IField::getValue)
+        .toArray();
+    cache.put(key, new FormResultCache.CachedResult(result, fieldValues));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> void restoreValue(IField<T> field, Object value)
+  {
+    field.setValue((T)value);
+  }
+
   @Override
   public void setValuesFromQuery(Query query)
   {
@@ -91,8 +758,134 @@ public class RequestForm
     setValuesFrom(new MapValues(query));
   }
 
-  protected void setValuesFrom(Values values)
+  @Override
+  public void setValuesFromQueryString(CharSequence queryString)
+  {
+    setValuesFrom(new QueryStringValues(queryString));
+  }
+
+  @Override
+  public void setValuesFromJson(CharSequence json)
+  {
+    List<String> names = new ArrayList<>();
+    fields().forEach(field -> names.add(field.getName()));
+    setValuesFrom(new JsonValues(json, names));
+  }
+
+  @Override
+  public void setValuesFrom(Values values)
+  {
+    if (getInputLimits() != null)
+    {
+      try
+      {
+        values.checkLimits(getInputLimits());
+      }
+      catch (InputLimitExceededException e)
+      {
+        getFields().forEach(IField::setValueToDefault);
+        return;
+      }
+    }
+    bindValues(values);
+  }
+
+  /**
+   * Sets the values of the fields, once the values are known to be within
+   * the form's limits.
+   */
+  protected void bindValues(Values values)
+  {
+    // Gather the fields' values in a single pass where possible, rather than
+    // looking each one up by name.
+    Values slotted = SlotValues.of(getFieldNames(), values);
+    final boolean recordEvents = FormEvents.isParseFailureEnabled();
+    if (getMetrics() == null && !recordEvents && listener == null)
+    {
+      fields().forEach(field -> field.setFrom(slotted));
+      return;
+    }
+    FormMetrics.FormStats stats = getMetrics() != null
+        ? getMetrics().getForm(getMetricsName())
+        : null;
+    if (listener != null)
+    {
+      listener.valuesRead(this, slotted);
+    }
+    for (IField<?> field : fields())
+    {
+      final long start = System.nanoTime();
+      field.setFrom(slotted);
+      final long nanos = System.nanoTime() - start;
+      if (stats != null)
+      {
+        stats.getField(field.getName()).recordBind(nanos);
+      }
+      if (listener != null)
+      {
+        listener.fieldBound(this, field, nanos);
+      }
+      if (recordEvents && failedToParse(field, slotted))
+      {
+        FormEvents.parseFailure(getClass(), field.getName(), field.getType(),
+            slotted.get(field.getName()).length());
+      }
+    }
+  }
+
+  /**
+   * @return true if the field was given a value, but fell back to its
+   * default because the value couldn't be parsed. Only parses the value a
+   * second time if the field holds its default.
+   */
+  private static <T> boolean failedToParse(IField<T> field, Values values)
   {
-    getFields().forEach(field -> field.setFrom(values));
+    String value = values.get(field.getName());
+    Function<ValueAccess, T> valueAccess = field.getValueAccess();
+    return value != null
+        && !value.isEmpty()
+        && valueAccess != null
+        && Objects.equals(field.getValue(), field.getDefaultOnProcess())
+        && valueAccess.apply(new ValueAccess(values, field)) == null;
+  }
+
+  private void recordSubmission(long nanos, boolean failed, boolean rejected,
+                                Collection<String> erroredElements)
+  {
+    FormMetrics.FormStats stats = getMetrics().getForm(getMetricsName());
+    stats.recordSubmission(nanos, failed, rejected);
+    erroredElements.forEach(element -> stats.getField(element).recordError());
+  }
+
+  /**
+   * Whether a class overrides one of the form's no-argument methods, for
+   * the extension points that are only worth honouring when overridden.
+   */
+  private static final class Overrides extends ClassValue<Boolean>
+  {
+    private final String method;
+
+    Overrides(String method)
+    {
+      this.method = method;
+    }
+
+    @Override
+    protected Boolean computeValue(Class<?> type)
+    {
+      for (Class<?> c = type; c != null && c != RequestForm.class; c = c.getSuperclass())
+      {
+        try
+        {
+          c.getDeclaredMethod(method);
+          return true;
+        }
+        catch (NoSuchMethodException e)
+        {
+          // Keep looking in the superclass.
+        }
+      }
+      return false;
+    }
   }
 }
@@ -6,8 +6,8 @@ import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Provides utility methods for request forms.
@@ -60,33 +60,103 @@ public class RequestFormHelper
   
   public List<String> valueToList(Object value)
   {
-    List<Object> valueObjects = new ArrayList<>();
-    if (value != null)
+    List<String> values = new ArrayList<>();
+    forEachString(value, values::add);
+    return values;
+  }
+  
+  /**
+   * Passes the String form of each non-null element of the given value to the
+   * consumer. Arrays and iterables are expanded; anything else is treated as
+   * a single element. Common array types are walked directly, avoiding the
+   * boxing and reflection of {@link Array#get(Object, int)}.
+   */
+  public static void forEachString(Object value, Consumer<String> consumer)
+  {
+    allStringsMatch(value, string -> {
+      consumer.accept(string);
+      return true;
+    });
+  }
+  
+  /**
+   * Tests the String form of each non-null element of the given value,
+   * stopping at the first one that does not match. Arrays and iterables are
+   * expanded; anything else is treated as a single element.
+   *
+   * @return true if every element matches, including when there are none
+   */
+  public static boolean allStringsMatch(Object value, Predicate<String> predicate)
+  {
+    if (value == null)
+    {
+      return true;
+    }
+    if (value instanceof String[])
     {
-      if (value.getClass().isArray())
+      for (String string : (String[])value)
       {
-        int length = Array.getLength(value);
-        for (int i = 0; i < length; i++)
+        if (string != null && !predicate.test(string))
         {
-          valueObjects.add(Array.get(value, i));
+          return false;
         }
       }
-      else if (value instanceof Iterable)
+    }
+    else if (value instanceof int[])
+    {
+      for (int number : (int[])value)
       {
-        for (Object o : ((Iterable) value))
+        if (!predicate.test(Integer.toString(number)))
         {
-          valueObjects.add(o);
+          return false;
         }
       }
-      else
+    }
+    else if (value instanceof long[])
+    {
+      for (long number : (long[])value)
       {
-        valueObjects.add(value);
+        if (!predicate.test(Long.toString(number)))
+        {
+          return false;
+        }
       }
     }
-    return valueObjects
-        .stream()
-        .filter(Objects::nonNull)
-        .map(String::valueOf)
-        .collect(Collectors.toList());
+    else if (value instanceof Object[])
+    {
+      for (Object element : (Object[])value)
+      {
+        if (element != null && !predicate.test(String.valueOf(element)))
+        {
+          return false;
+        }
+      }
+    }
+    else if (value.getClass().isArray())
+    {
+      int length = Array.getLength(value);
+      for (int i = 0; i < length; i++)
+      {
+        if (!predicate.test(String.valueOf(Array.get(value, i))))
+        {
+          return false;
+        }
+      }
+    }
+    else if (value instanceof Iterable)
+    {
+      for (Object element : (Iterable<?>)value)
+      {
+        if (element != null && !predicate.test(String.valueOf(element)))
+        {
+          return false;
+        }
+      }
+    }
+    else
+    {
+      return predicate.test(String.valueOf(value));
+    }
+    return true;
   }
 }
@@ -1,38 +1,57 @@
 package io.github.ajohnstonte.gemini.input.requestform;
 
 import com.techempower.collection.NamedValue;
+import com.techempower.gemini.input.Input;
 import com.techempower.gemini.input.validator.Validator;
+import io.github.ajohnstonte.gemini.input.MapValues;
+import io.github.ajohnstonte.gemini.input.Values;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Stream;
 
 /**
  * A field that accepts lists of values. Provides convenience methods for specifying these options. If using the forms
  * JSP tags, this is best rendered as a select. Adds validators to ensure the selected values are all also added as
  * options.
+ * <p>
+ * Each option is indexed by its position as it is added, and the selected values are tracked as a {@link BitSet} of
+ * those indexes. Membership checks such as {@link Option#isSelected()} are therefore single bit lookups, regardless of
+ * how many options there are or how many values were submitted. Repeated values are found by testing and setting the
+ * same bits, and the selection can be stored and restored as a long[] with {@link #getSelectionBits()} and
+ * {@link #setSelectionBits(long[])}.
  *
  * @author ajohnston
  */
 public class SelectField<T>
     extends ExtendableField<T, SelectField<T>>
 {
-  private List<Option> options;
-  private List<String> selectedValues;
+  private List<Option>         options;
+  private Map<String, Integer> optionIndexes;
+  private List<String>         selectedValues;
+  private BitSet               selectedIndexes;
   private Boolean allowMultipleValues = null;
+  private boolean rejectDuplicateValues;
   
   public SelectField(IRequestForm form, String name, Class<T> type)
   {
     super(form, name, type);
     options = new ArrayList<>();
+    optionIndexes = new HashMap<>();
   }
   
   public SelectField addOption(Option option)
   {
+    option.setIndex(options.size());
     options.add(option);
     option.setSelect(this);
+    // If multiple options share a value, the first one added wins.
+    optionIndexes.putIfAbsent(option.getValue(), option.getIndex());
+    // The new option may match a value that was already selected.
+    setSelectedIndexes(null);
     return this;
   }
   
@@ -51,12 +70,23 @@ public class SelectField<T>
     return options;
   }
   
+  /**
+   * @return the index of the first option with the given value, or -1 if
+   * there is no such option
+   */
+  public int getOptionIndex(String value)
+  {
+    Integer index = optionIndexes.get(value);
+    return index != null ? index : -1;
+  }
+  
   @Override
   public SelectField<T> setValue(T value)
   {
     super.setValue(value);
-    // Reset the computed values list, as it is now outdated.
+    // Reset the computed values list and indexes, as they are now outdated.
     setSelectedValues(null);
+    setSelectedIndexes(null);
     return this;
   }
   
@@ -74,6 +104,106 @@ public class SelectField<T>
     this.selectedValues = selectedValues;
     return this;
   }
+  
+  /**
+   * @return the indexes of the options matching the current value. Values
+   * that don't match any option are not included. The returned set is a
+   * copy, and may be freely modified.
+   */
+  public BitSet getSelectedIndexes()
+  {
+    return (BitSet)selectedIndexes().clone();
+  }
+  
+  /**
+   * @return the options matching the current value, in the order they were
+   * added
+   */
+  public List<Option> getSelectedOptions()
+  {
+    BitSet indexes = selectedIndexes();
+    List<Option> selectedOptions = new ArrayList<>(indexes.cardinality());
+    for (int i = indexes.nextSetBit(0); i >= 0; i = indexes.nextSetBit(i + 1))
+    {
+      selectedOptions.add(options.get(i));
+    }
+    return selectedOptions;
+  }
+  
+  /**
+   * @return true if the option with the given value is currently selected
+   */
+  public boolean isSelected(String value)
+  {
+    return isSelected(getOptionIndex(value));
+  }
+  
+  /**
+   * @return true if the option at the given index is currently selected
+   */
+  public boolean isSelected(int optionIndex)
+  {
+    return optionIndex >= 0 && selectedIndexes().get(optionIndex);
+  }
+  
+  protected BitSet selectedIndexes()
+  {
+    if (selectedIndexes == null)
+    {
+      setSelectedIndexes(computeSelectedIndexes());
+    }
+    return selectedIndexes;
+  }
+  
+  protected SelectField<T> setSelectedIndexes(BitSet selectedIndexes)
+  {
+    this.selectedIndexes = selectedIndexes;
+    return this;
+  }
+  
+  /**
+   * @return the indexes of the selected options as the words of a bit set,
+   * as by {@link BitSet#toLongArray()}, for storing the selection compactly
+   */
+  public long[] getSelectionBits()
+  {
+    return selectedIndexes().toLongArray();
+  }
+  
+  /**
+   * Selects the options at the indexes set in the given words, as returned
+   * by {@link #getSelectionBits()}, binding their values as though they had
+   * been submitted. Indexes past the last option are ignored.
+   */
+  public SelectField<T> setSelectionBits(long[] bits)
+  {
+    BitSet indexes = BitSet.valueOf(bits);
+    List<String> values = new ArrayList<>(indexes.cardinality());
+    for (int i = indexes.nextSetBit(0); i >= 0 && i < options.size();
+         i = indexes.nextSetBit(i + 1))
+    {
+      values.add(options.get(i).getValue());
+    }
+    setFrom(new MapValues(Collections.singletonMap(getName(), values)));
+    return this;
+  }
+  
+  /**
+   * Maps the current value onto the option indexes. Repeated values simply
+   * set the same bit again.
+   */
+  protected BitSet computeSelectedIndexes()
+  {
+    BitSet indexes = new BitSet(options.size());
+    RequestFormHelper.forEachString(getValue(), value -> {
+      Integer index = optionIndexes.get(value);
+      if (index != null)
+      {
+        indexes.set(index);
+      }
+    });
+    return indexes;
+  }
 
   /**
    * Explicitly sets whether or not multiple values are allowed or not.
@@ -100,48 +230,157 @@ public class SelectField<T>
     return type.isArray() || Iterable.class.isAssignableFrom(type);
   }
   
+  /**
+   * Sets whether submitting the same value more than once is an error. Off
+   * by default, in which case repeated values select their option once.
+   */
+  public SelectField<T> setRejectDuplicateValues(boolean rejectDuplicateValues)
+  {
+    this.rejectDuplicateValues = rejectDuplicateValues;
+    return this;
+  }
+  
+  public boolean isRejectDuplicateValues()
+  {
+    return rejectDuplicateValues;
+  }
+  
   protected List<String> selectedValues()
   {
     return selectedValues;
   }
   
+  /**
+   * @return whether multiple values are allowed and whether duplicates are
+   * rejected, followed by the value of each option
+   */
+  @Override
+  public List<Object> getValidationSettings()
+  {
+    List<Object> settings = new ArrayList<>(options.size() + 2);
+    settings.add(isAllowMultipleValues());
+    settings.add(isRejectDuplicateValues());
+    options.forEach(option -> settings.add(option.getValue()));
+    return settings;
+  }
+  
   @Override
   public List<Validator> getStandardValidators()
   {
-    Stream<String> valuableOptions = getOptions()
-        .stream()
-        .map(Option::getValue);
-    Stream<String> emptyOption = Stream.of("");
-    Stream<String> allOptions;
-    if (!isRequired())
+    List<Validator> validators = super.getStandardValidators();
+    validators.add(new SingleValueValidator(this));
+    validators.add(getPermittedValuesValidator());
+    return validators;
+  }
+
+  /**
+   * @return the validator ensuring that each of the user-provided values is
+   * one of the field's options
+   */
+  protected Validator getPermittedValuesValidator()
+  {
+    return new OptionValidator<T>()
+        .setField(this)
+        .asValidator();
+  }
+  
+  /**
+   * @return true if the given user-provided value matches an option, or is
+   * empty and the field is not required
+   */
+  protected boolean isPermitted(String value, boolean required)
+  {
+    return optionIndexes.containsKey(value) || (!required && value.isEmpty());
+  }
+  
+  /**
+   * Validates that a field not allowing multiple values was given at most
+   * one.
+   */
+  private static class SingleValueValidator
+      implements Validator
+  {
+    private final SelectField<?> field;
+
+    SingleValueValidator(SelectField<?> field)
     {
-      allOptions = Stream.concat(emptyOption, valuableOptions);
+      this.field = field;
     }
-    else
+
+    @Override
+    public void process(Input input)
     {
-      allOptions = valuableOptions;
-    }
-    List<Validator> validators = super.getStandardValidators();
-    validators.add(input -> {
-      boolean allowMultipleValues = this.isAllowMultipleValues();
-      if (!allowMultipleValues)
+      if (!field.isAllowMultipleValues())
       {
-        String[] values = input.values().getStrings(getName());
+        String[] values = Values.from(input).getStrings(field.getName());
         if (values != null && values.length > 1)
         {
-          input.addError(getName(), getName() + " may not have more than one value.");
+          input.addError(field.getName(),
+              field.getName() + " may not have more than one value.");
         }
       }
-    });
-    validators.add(new SetFieldValidator<T>((Object[]) allOptions.toArray(String[]::new))
-        .setField(this)
-        .asValidator());
-    return validators;
+    }
+  }
+
+  /**
+   * Validates that each of the user-provided values matches an option, using
+   * the field's option index rather than building a set of permitted values
+   * on each request. An empty value is permitted if the field is not
+   * required. Values are checked in a single pass, setting the bit of each
+   * option found, so a repeated value is one whose bit is already set.
+   */
+  private static class OptionValidator<T>
+      extends FieldValidator<T>
+  {
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void process(Input input)
+    {
+      final SelectField<T> field = (SelectField<T>)getField();
+      final T actualValue = getValue(input);
+      final boolean required = field.isRequired();
+      if (actualValue != null && (actualValue instanceof Iterable ||
+          actualValue.getClass().isArray()))
+      {
+        final BitSet seen = new BitSet(field.options.size());
+        final boolean[] duplicated = new boolean[1];
+        boolean permitted = RequestFormHelper.allStringsMatch(actualValue,
+            value -> {
+              int index = field.getOptionIndex(value);
+              if (index < 0)
+              {
+                return !required && value.isEmpty();
+              }
+              if (seen.get(index))
+              {
+                duplicated[0] = true;
+              }
+              seen.set(index);
+              return true;
+            });
+        if (!permitted)
+        {
+          input.addError(getElementName(), getElementName() + " must be a permitted value.");
+        }
+        else if (duplicated[0] && field.isRejectDuplicateValues())
+        {
+          input.addError(getElementName(), getElementName() + " may not repeat a value.");
+        }
+      }
+      else if (actualValue != null || required)
+      {
+        if (!field.isPermitted(String.valueOf(actualValue), required))
+        {
+          input.addError(getElementName(), getElementName() + " must be a permitted value.");
+        }
+      }
+    }
   }
   
   public static class Option
   {
     private SelectField<?> select;
+    private int                     index = -1;
     private String                  value;
     private String                  label;
     private HashMap<Object, Object> data;
@@ -169,6 +408,21 @@ public class SelectField<T>
       return select;
     }
     
+    protected Option setIndex(int index)
+    {
+      this.index = index;
+      return this;
+    }
+    
+    /**
+     * @return the position of this option within its select field, or -1 if
+     * it has not been added to one
+     */
+    public int getIndex()
+    {
+      return index;
+    }
+    
     public String getValue()
     {
       return value;
@@ -187,7 +441,7 @@ public class SelectField<T>
     public boolean isSelected()
     {
       return getSelect() != null
-          && getSelect().getSelectedValues().contains(getValue());
+          && getSelect().isSelected(getIndex());
     }
     
     public boolean isValueIn(List<String> selectedValues)
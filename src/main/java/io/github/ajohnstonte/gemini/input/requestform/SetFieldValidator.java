@@ -1,40 +1,60 @@
 package io.github.ajohnstonte.gemini.input.requestform;
 
 import com.techempower.gemini.input.Input;
+import io.github.ajohnstonte.helper.BoxedNumberHelper;
 
+import java.lang.reflect.Array;
 import java.util.Arrays;
-import java.util.List;
+import java.util.BitSet;
+import java.util.HashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Validates that the user-provided value is contained within a set of
  * permitted values. Supports multi-selected values. In these cases, will
  * verify that each of the user-provided values in contained within the
  * set of permitted values.
+ *   <p>
+ * Values are compared by their String form, but the permitted values are
+ * stored in whichever representation best fits them. If they are all
+ * integers (boxed, or Strings in canonical form), they are kept as a dense
+ * bit set when they span a small range, or as a sorted array otherwise, and
+ * numeric user-provided values are checked without being converted to
+ * Strings. Small sets of either kind are simply scanned.
  */
 public class SetFieldValidator<T>
     extends FieldValidator<T>
 {
-  
+
+  //
+  // Constants.
+  //
+
+  /**
+   * Sets smaller than this are scanned linearly rather than hashed or
+   * searched.
+   */
+  private static final int LINEAR_THRESHOLD = 8;
+
   //
   // Variables.
   //
-  
-  private final Set<String> permitted;
-  
+
+  private final Permitted permitted;
+
   //
   // Methods
   //
-  
+
   /**
    * Constructor.
    */
   public SetFieldValidator(Object... validValues)
   {
-    this.permitted = Arrays.stream(validValues)
-        .map(String::valueOf)
-        .collect(Collectors.toSet());
+    long[] integers = toIntegers(validValues);
+    this.permitted = integers != null
+        ? integralPermitted(integers)
+        : stringPermitted(validValues);
   }
 
   @Override
@@ -45,23 +65,308 @@ public class SetFieldValidator<T>
     if (actualValue != null && (actualValue instanceof Iterable ||
         actualValue.getClass().isArray()))
     {
-      List<String> values = new RequestFormHelper().valueToList(actualValue);
-      if (values.stream().anyMatch(value -> !permitted.contains(value)))
+      if (!permitted.containsAll(actualValue))
       {
         input.addError(getElementName(), message);
       }
     }
     else
     {
-      final String stringValue = String.valueOf(actualValue);
       if (actualValue != null || getField().isRequired())
       {
-        if (!permitted.contains(stringValue))
+        if (!permitted.contains(actualValue))
         {
           input.addError(getElementName(), message);
         }
       }
     }
   }
-  
+
+  /**
+   * @return the given values as longs if every one of them is an integer, or
+   * null otherwise
+   */
+  private static long[] toIntegers(Object[] values)
+  {
+    long[] integers = new long[values.length];
+    for (int i = 0; i < values.length; i++)
+    {
+      Object value = values[i];
+      if (isIntegral(value))
+      {
+        integers[i] = ((Number)value).longValue();
+      }
+      else if (value instanceof String && isCanonicalInteger((String)value))
+      {
+        integers[i] = Long.parseLong((String)value);
+      }
+      else
+      {
+        return null;
+      }
+    }
+    return integers;
+  }
+
+  private static boolean isIntegral(Object value)
+  {
+    return value instanceof Long
+        || value instanceof Integer
+        || value instanceof Short
+        || value instanceof Byte;
+  }
+
+  /**
+   * @return true if the String is exactly what {@link Long#toString(long)}
+   * would produce for some long, meaning a numeric comparison gives the same
+   * result as comparing Strings
+   */
+  private static boolean isCanonicalInteger(String value)
+  {
+    if (BoxedNumberHelper.parseLong(value) == null)
+    {
+      return false;
+    }
+    int firstDigit = value.charAt(0) == '-' ? 1 : 0;
+    // Leading zeros and negative zero have other canonical forms.
+    return value.charAt(firstDigit) != '0' || value.length() == 1;
+  }
+
+  private static Permitted integralPermitted(long[] integers)
+  {
+    long[] sorted = Arrays.stream(integers).sorted().distinct().toArray();
+    if (sorted.length < LINEAR_THRESHOLD)
+    {
+      return new LinearIntegralPermitted(sorted);
+    }
+    long min = sorted[0];
+    long max = sorted[sorted.length - 1];
+    // Guard against overflow when the values span most of the long range.
+    long span = max - min;
+    if (span >= 0 && span < Math.max(256, sorted.length * 8L))
+    {
+      return new DenseIntegralPermitted(sorted, min, (int)span + 1);
+    }
+    return new SortedIntegralPermitted(sorted);
+  }
+
+  private static Permitted stringPermitted(Object[] values)
+  {
+    String[] strings = Arrays.stream(values)
+        .map(String::valueOf)
+        .distinct()
+        .toArray(String[]::new);
+    if (strings.length < LINEAR_THRESHOLD)
+    {
+      return new LinearStringPermitted(strings);
+    }
+    return new HashedStringPermitted(strings);
+  }
+
+  /**
+   * A set of permitted values. User-provided values are checked in their
+   * native type where the representation allows it.
+   */
+  private abstract static class Permitted
+  {
+    abstract boolean contains(Object value);
+
+    /**
+     * Checks each non-null element of an array or iterable.
+     */
+    boolean containsAll(Object values)
+    {
+      if (values instanceof Object[])
+      {
+        for (Object value : (Object[])values)
+        {
+          if (value != null && !contains(value))
+          {
+            return false;
+          }
+        }
+      }
+      else if (values instanceof Iterable)
+      {
+        for (Object value : (Iterable<?>)values)
+        {
+          if (value != null && !contains(value))
+          {
+            return false;
+          }
+        }
+      }
+      else
+      {
+        int length = Array.getLength(values);
+        for (int i = 0; i < length; i++)
+        {
+          if (!contains(Array.get(values, i)))
+          {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * A set of permitted integers.
+   */
+  private abstract static class IntegralPermitted
+      extends Permitted
+  {
+    abstract boolean contains(long value);
+
+    @Override
+    boolean contains(Object value)
+    {
+      if (isIntegral(value))
+      {
+        return contains(((Number)value).longValue());
+      }
+      // Anything else matches only if its String form is a canonical integer.
+      String string = String.valueOf(value);
+      return isCanonicalInteger(string) && contains(Long.parseLong(string));
+    }
+
+    @Override
+    boolean containsAll(Object values)
+    {
+      if (values instanceof int[])
+      {
+        for (int value : (int[])values)
+        {
+          if (!contains(value))
+          {
+            return false;
+          }
+        }
+        return true;
+      }
+      if (values instanceof long[])
+      {
+        for (long value : (long[])values)
+        {
+          if (!contains(value))
+          {
+            return false;
+          }
+        }
+        return true;
+      }
+      return super.containsAll(values);
+    }
+  }
+
+  private static class LinearIntegralPermitted
+      extends IntegralPermitted
+  {
+    private final long[] values;
+
+    LinearIntegralPermitted(long[] values)
+    {
+      this.values = values;
+    }
+
+    @Override
+    boolean contains(long value)
+    {
+      for (long permitted : values)
+      {
+        if (permitted == value)
+        {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  private static class DenseIntegralPermitted
+      extends IntegralPermitted
+  {
+    private final BitSet bits;
+    private final long   offset;
+    private final int    span;
+
+    DenseIntegralPermitted(long[] values, long offset, int span)
+    {
+      this.bits = new BitSet(span);
+      this.offset = offset;
+      this.span = span;
+      for (long value : values)
+      {
+        bits.set((int)(value - offset));
+      }
+    }
+
+    @Override
+    boolean contains(long value)
+    {
+      long index = value - offset;
+      // The subtraction may overflow, so check the original bounds as well.
+      return value >= offset && index >= 0 && index < span && bits.get((int)index);
+    }
+  }
+
+  private static class SortedIntegralPermitted
+      extends IntegralPermitted
+  {
+    private final long[] values;
+
+    SortedIntegralPermitted(long[] values)
+    {
+      this.values = values;
+    }
+
+    @Override
+    boolean contains(long value)
+    {
+      return Arrays.binarySearch(values, value) >= 0;
+    }
+  }
+
+  private static class LinearStringPermitted
+      extends Permitted
+  {
+    private final String[] values;
+
+    LinearStringPermitted(String[] values)
+    {
+      this.values = values;
+    }
+
+    @Override
+    boolean contains(Object value)
+    {
+      String string = String.valueOf(value);
+      for (String permitted : values)
+      {
+        if (permitted.equals(string))
+        {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  private static class HashedStringPermitted
+      extends Permitted
+  {
+    private final Set<String> values;
+
+    HashedStringPermitted(String[] values)
+    {
+      this.values = new HashSet<>(Arrays.asList(values));
+    }
+
+    @Override
+    boolean contains(Object value)
+    {
+      return values.contains(String.valueOf(value));
+    }
+  }
 }
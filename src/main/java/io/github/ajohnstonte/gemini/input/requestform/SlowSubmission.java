@@ -0,0 +1,228 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A single submission recorded by a {@link SlowSubmissionSampler} for
+ * taking longer than its threshold: how long the form as a whole, each
+ * field and each validator took, along with the shape of the input. No
+ * user-provided values are kept, only their counts and lengths.
+ *
+ * @author ajohnston
+ */
+public class SlowSubmission
+{
+  private final String           form;
+  private final Instant          time;
+  private final long             elapsedNanos;
+  private final boolean          failed;
+  private final boolean          rejected;
+  private final List<Timing>     fieldTimings;
+  private final List<Timing>     validatorTimings;
+  private final List<FieldShape> shape;
+
+  SlowSubmission(String form, Instant time, long elapsedNanos,
+                 boolean failed, boolean rejected, List<Timing> fieldTimings,
+                 List<Timing> validatorTimings, List<FieldShape> shape)
+  {
+    this.form = form;
+    this.time = time;
+    this.elapsedNanos = elapsedNanos;
+    this.failed = failed;
+    this.rejected = rejected;
+    this.fieldTimings = Collections.unmodifiableList(fieldTimings);
+    this.validatorTimings = Collections.unmodifiableList(validatorTimings);
+    this.shape = Collections.unmodifiableList(shape);
+  }
+
+  /**
+   * @return the name of the form's class
+   */
+  public String getForm()
+  {
+    return form;
+  }
+
+  /**
+   * @return when the submission finished processing
+   */
+  public Instant getTime()
+  {
+    return time;
+  }
+
+  public long getElapsedNanos()
+  {
+    return elapsedNanos;
+  }
+
+  public long getElapsed(TimeUnit unit)
+  {
+    return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+  }
+
+  public boolean isFailed()
+  {
+    return failed;
+  }
+
+  /**
+   * @return true if the submission was rejected for exceeding the form's
+   * input limits
+   */
+  public boolean isRejected()
+  {
+    return rejected;
+  }
+
+  /**
+   * @return the time taken to bind each field, named by the field, in the
+   * order they were bound
+   */
+  public List<Timing> getFieldTimings()
+  {
+    return fieldTimings;
+  }
+
+  /**
+   * @return the time taken by each validator that ran on the request
+   * thread, named as in {@link FormListener#validatorStarted}, in the order
+   * they ran
+   */
+  public List<Timing> getValidatorTimings()
+  {
+    return validatorTimings;
+  }
+
+  /**
+   * @return the shape of the input given for each of the form's fields, or
+   * an empty list if the form didn't get as far as binding its fields
+   */
+  public List<FieldShape> getShape()
+  {
+    return shape;
+  }
+
+  /**
+   * @return the shape of the input as a single string, such as
+   * "email:1/24 tags:3000/36000", giving the number of values and their
+   * total length for each field. Submissions with the same fingerprint had
+   * input of the same shape.
+   */
+  public String getFingerprint()
+  {
+    StringBuilder fingerprint = new StringBuilder();
+    for (FieldShape field : shape)
+    {
+      if (fingerprint.length() > 0)
+      {
+        fingerprint.append(' ');
+      }
+      fingerprint.append(field.getName())
+          .append(':').append(field.getValueCount())
+          .append('/').append(field.getTotalLength());
+    }
+    return fingerprint.toString();
+  }
+
+  @Override
+  public String toString()
+  {
+    return "SlowSubmission [" + form + "; "
+        + getElapsed(TimeUnit.MILLISECONDS) + "ms"
+        + (rejected ? "; rejected" : failed ? "; failed" : "")
+        + "; " + getFingerprint()
+        + "]";
+  }
+
+  /**
+   * The time taken by a single field or validator.
+   */
+  public static class Timing
+  {
+    private final String  name;
+    private final long    elapsedNanos;
+    private final boolean rejected;
+
+    Timing(String name, long elapsedNanos, boolean rejected)
+    {
+      this.name = name;
+      this.elapsedNanos = elapsedNanos;
+      this.rejected = rejected;
+    }
+
+    public String getName()
+    {
+      return name;
+    }
+
+    public long getElapsedNanos()
+    {
+      return elapsedNanos;
+    }
+
+    /**
+     * @return true if the validator raised an error. Always false for
+     * fields.
+     */
+    public boolean isRejected()
+    {
+      return rejected;
+    }
+
+    @Override
+    public String toString()
+    {
+      return name + " " + TimeUnit.NANOSECONDS.toMicros(elapsedNanos) + "us"
+          + (rejected ? " (rejected)" : "");
+    }
+  }
+
+  /**
+   * The number and length of the values given for a single field.
+   */
+  public static class FieldShape
+  {
+    private final String name;
+    private final int    valueCount;
+    private final long   totalLength;
+    private final int    maxLength;
+
+    FieldShape(String name, int valueCount, long totalLength, int maxLength)
+    {
+      this.name = name;
+      this.valueCount = valueCount;
+      this.totalLength = totalLength;
+      this.maxLength = maxLength;
+    }
+
+    public String getName()
+    {
+      return name;
+    }
+
+    public int getValueCount()
+    {
+      return valueCount;
+    }
+
+    /**
+     * @return the total length of all the field's values, in characters
+     */
+    public long getTotalLength()
+    {
+      return totalLength;
+    }
+
+    /**
+     * @return the length of the field's longest value, in characters
+     */
+    public int getMaxLength()
+    {
+      return maxLength;
+    }
+  }
+}
@@ -0,0 +1,255 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+import com.techempower.gemini.input.validator.Validator;
+import io.github.ajohnstonte.gemini.input.ValidationResult;
+import io.github.ajohnstonte.gemini.input.Values;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Records each submission that takes longer than a threshold to process,
+ * with a breakdown of the time taken by each field and validator and the
+ * shape of the input, so that pathological submissions can be found
+ * without tracing every request. Only the most recent records are kept, in
+ * a ring buffer of fixed capacity. A sampler is a {@link FormListener}, and
+ * is usually shared by every form:
+ * <pre>
+ * public static final SlowSubmissionSampler SLOW =
+ *     new SlowSubmissionSampler(Duration.ofMillis(250), 100);
+ * ...
+ * form.addListener(SLOW);
+ * </pre>
+ * Every submission is timed while it is processed, but a record is only
+ * built for slow ones. Validators run on a {@link ValidationBudget}'s
+ * executor are timed on another thread, and so are left out of the
+ * breakdown.
+ *
+ * @author ajohnston
+ */
+public class SlowSubmissionSampler
+    implements FormListener
+{
+  private final    AtomicReferenceArray<SlowSubmission> samples;
+  private final    AtomicLong                           sampled  = new AtomicLong();
+  private final    ThreadLocal<Capture>                 captures = new ThreadLocal<>();
+  private volatile long                                 thresholdNanos;
+
+  /**
+   * @param threshold the time over which submissions are recorded
+   * @param capacity  the number of records kept, after which the oldest are
+   *                  overwritten
+   */
+  public SlowSubmissionSampler(Duration threshold, int capacity)
+  {
+    if (capacity <= 0)
+    {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    this.samples = new AtomicReferenceArray<>(capacity);
+    setThreshold(threshold);
+  }
+
+  public Duration getThreshold()
+  {
+    return Duration.ofNanos(thresholdNanos);
+  }
+
+  public SlowSubmissionSampler setThreshold(Duration threshold)
+  {
+    this.thresholdNanos = threshold.toNanos();
+    return this;
+  }
+
+  public int getCapacity()
+  {
+    return samples.length();
+  }
+
+  /**
+   * @return the number of submissions recorded in total, including those
+   * since overwritten
+   */
+  public long getSampledCount()
+  {
+    return sampled.get();
+  }
+
+  /**
+   * @return the records still held, most recent first
+   */
+  public List<SlowSubmission> getSamples()
+  {
+    final long count = sampled.get();
+    final int capacity = samples.length();
+    List<SlowSubmission> recent = new ArrayList<>();
+    for (long i = count - 1; i >= 0 && i >= count - capacity; i--)
+    {
+      SlowSubmission sample = samples.get((int)(i % capacity));
+      if (sample != null)
+      {
+        recent.add(sample);
+      }
+    }
+    return recent;
+  }
+
+  /**
+   * @return the records still held for the given form class, most recent
+   * first
+   */
+  public List<SlowSubmission> getSamples(Class<? extends IRequestForm> form)
+  {
+    List<SlowSubmission> recent = getSamples();
+    recent.removeIf(sample -> !sample.getForm().equals(form.getName()));
+    return recent;
+  }
+
+  /**
+   * Discards every record held.
+   */
+  public void clear()
+  {
+    for (int i = 0; i < samples.length(); i++)
+    {
+      samples.set(i, null);
+    }
+  }
+
+  @Override
+  public void beforeProcess(IRequestForm form)
+  {
+    // A validator may itself process a form, so captures nest.
+    captures.set(new Capture(captures.get()));
+  }
+
+  @Override
+  public void valuesRead(IRequestForm form, Values values)
+  {
+    Capture capture = captures.get();
+    if (capture != null)
+    {
+      capture.values = values;
+    }
+  }
+
+  @Override
+  public void fieldBound(IRequestForm form, IField<?> field, long nanos)
+  {
+    Capture capture = captures.get();
+    if (capture != null)
+    {
+      capture.fields.add(new SlowSubmission.Timing(field.getName(), nanos,
+          false));
+    }
+  }
+
+  @Override
+  public void validatorFinished(IRequestForm form, String name,
+                                Validator validator, long nanos,
+                                boolean rejected)
+  {
+    Capture capture = captures.get();
+    if (capture != null)
+    {
+      capture.validators.add(new SlowSubmission.Timing(name, nanos,
+          rejected));
+    }
+  }
+
+  @Override
+  public void afterProcess(IRequestForm form, ValidationResult result,
+                           long nanos)
+  {
+    Capture capture = pop();
+    if (capture != null && nanos >= thresholdNanos)
+    {
+      record(new SlowSubmission(form.getClass().getName(), Instant.now(),
+          nanos, result.failed(), result.isRejected(), capture.fields,
+          capture.validators, shape(form, capture.values)));
+    }
+  }
+
+  @Override
+  public void processAborted(IRequestForm form, Throwable error, long nanos)
+  {
+    // Nothing is sampled, but the capture and the values it holds must not
+    // outlive the submission on this thread.
+    pop();
+  }
+
+  /**
+   * Removes the current submission's capture, restoring that of the
+   * submission it's nested in, if any.
+   */
+  private Capture pop()
+  {
+    Capture capture = captures.get();
+    if (capture == null)
+    {
+      return null;
+    }
+    if (capture.parent != null)
+    {
+      captures.set(capture.parent);
+    }
+    else
+    {
+      captures.remove();
+    }
+    return capture;
+  }
+
+  private void record(SlowSubmission sample)
+  {
+    long index = sampled.getAndIncrement();
+    samples.set((int)(index % samples.length()), sample);
+  }
+
+  private static List<SlowSubmission.FieldShape> shape(IRequestForm form,
+                                                       Values values)
+  {
+    if (values == null)
+    {
+      return Collections.emptyList();
+    }
+    List<SlowSubmission.FieldShape> shape = new ArrayList<>();
+    for (IField<?> field : form.getFields())
+    {
+      String[] strings = values.getStrings(field.getName());
+      int count = strings != null ? strings.length : 0;
+      long totalLength = 0L;
+      int maxLength = 0;
+      for (int i = 0; i < count; i++)
+      {
+        int length = strings[i] != null ? strings[i].length() : 0;
+        totalLength += length;
+        maxLength = Math.max(maxLength, length);
+      }
+      shape.add(new SlowSubmission.FieldShape(field.getName(), count,
+          totalLength, maxLength));
+    }
+    return shape;
+  }
+
+  /**
+   * The timings of a submission as it is processed.
+   */
+  private static final class Capture
+  {
+    private final Capture                     parent;
+    private final List<SlowSubmission.Timing> fields     = new ArrayList<>();
+    private final List<SlowSubmission.Timing> validators = new ArrayList<>();
+    private       Values                      values;
+
+    Capture(Capture parent)
+    {
+      this.parent = parent;
+    }
+  }
+}
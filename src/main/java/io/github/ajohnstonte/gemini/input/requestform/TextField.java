@@ -3,6 +3,7 @@ package io.github.ajohnstonte.gemini.input.requestform;
 import com.techempower.gemini.input.validator.LengthValidator;
 import com.techempower.gemini.input.validator.Validator;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -44,6 +45,12 @@ public class TextField<T>
     return this;
   }
   
+  @Override
+  public List<Object> getValidationSettings()
+  {
+    return Arrays.asList(getMinLength(), getMaxLength());
+  }
+  
   @Override
   public List<Validator> getStandardValidators()
   {
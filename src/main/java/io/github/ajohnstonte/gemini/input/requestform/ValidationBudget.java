@@ -0,0 +1,120 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+import com.techempower.gemini.input.validator.Validator;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Limits on the time a form's validators may take. The deadline applies to
+ * all of the form's validators together: once it passes, validators that
+ * haven't started are not run. The timeout applies to each validator on its
+ * own, and may be overridden for a single validator by wrapping it with
+ * {@link #withTimeout(Validator, Duration)}. A validator that misses either
+ * has the budget's {@link Outcome} applied instead of its own errors.
+ *   <p>
+ * Java can't stop a running validator, so without an executor, a slow
+ * validator still runs to completion. Its errors are then discarded in favor
+ * of the outcome, and any validators after the deadline are not run. With an
+ * executor, validators with a timeout are run on it, and the request thread
+ * only waits as long as the timeout or deadline allows. A validator that
+ * misses it is interrupted, unless the outcome is {@link Outcome#PENDING}.
+ *   <p>
+ * A null timeout or deadline, the default, means none.
+ *
+ * @author ajohnston
+ */
+public class ValidationBudget
+{
+  /**
+   * What becomes of a validator that misses its timeout or the deadline.
+   */
+  public enum Outcome
+  {
+    /**
+     * Fail validation with an error.
+     */
+    FAIL,
+    /**
+     * Ignore the validator, as if it had passed.
+     */
+    SKIP,
+    /**
+     * Raise no error, but record the validator as pending, so that it may be
+     * checked again later, such as asynchronously. A validator running on an
+     * executor is left to finish, though its errors are discarded.
+     */
+    PENDING
+  }
+
+  private Duration        deadline;
+  private Duration        timeout;
+  private Outcome         outcome = Outcome.FAIL;
+  private ExecutorService executor;
+
+  /**
+   * @return the time allowed for all of the form's validators
+   */
+  public Duration getDeadline()
+  {
+    return deadline;
+  }
+
+  public ValidationBudget setDeadline(Duration deadline)
+  {
+    this.deadline = deadline;
+    return this;
+  }
+
+  /**
+   * @return the time allowed for each validator not given its own timeout
+   */
+  public Duration getTimeout()
+  {
+    return timeout;
+  }
+
+  public ValidationBudget setTimeout(Duration timeout)
+  {
+    this.timeout = timeout;
+    return this;
+  }
+
+  /**
+   * @return what becomes of validators that miss their timeout or the
+   * deadline. {@link Outcome#FAIL} by default.
+   */
+  public Outcome getOutcome()
+  {
+    return outcome;
+  }
+
+  public ValidationBudget setOutcome(Outcome outcome)
+  {
+    this.outcome = outcome;
+    return this;
+  }
+
+  /**
+   * @return the executor validators with a timeout are run on, or null to
+   * run them on the calling thread
+   */
+  public ExecutorService getExecutor()
+  {
+    return executor;
+  }
+
+  public ValidationBudget setExecutor(ExecutorService executor)
+  {
+    this.executor = executor;
+    return this;
+  }
+
+  /**
+   * Gives a single validator its own timeout, in place of the budget's.
+   */
+  public static Validator withTimeout(Validator validator, Duration timeout)
+  {
+    return ManagedValidator.withTimeout(validator, timeout);
+  }
+}
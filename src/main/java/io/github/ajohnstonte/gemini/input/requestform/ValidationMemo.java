@@ -0,0 +1,227 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+import io.github.ajohnstonte.gemini.input.ValidationResult;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * The remembered outcomes of an expensive validator, keyed by the value it
+ * validated, for use by {@link MemoizingFieldValidator}. Meant to be shared
+ * by every instance of a form, so held in a static field:
+ * <pre>
+ * private static final ValidationMemo POSTAL_CODES =
+ *     new ValidationMemo(10_000, Duration.ofHours(1));
+ * </pre>
+ * Outcomes include the validator's error messages, which usually name the
+ * field, so a memo should only be used by a single validator of a single
+ * field.
+ *   <p>
+ * Bounded in both size and age. Entries are spread across independently
+ * locked segments, each evicting its least recently used entry once full,
+ * so concurrent requests rarely contend. Entries older than the time to
+ * live are treated as missing and replaced.
+ *
+ * @author ajohnston
+ */
+public class ValidationMemo
+{
+  private static final int    MAX_SEGMENTS = 16;
+  /**
+   * Stands in for a null value, which is as much a value as any other.
+   */
+  private static final Object NULL_KEY     = new Object();
+
+  private final Segment[]    segments;
+  private final long         timeToLiveNanos;
+  private final LongSupplier clock;
+  private final LongAdder    hits   = new LongAdder();
+  private final LongAdder    misses = new LongAdder();
+
+  /**
+   * @param maximumSize the most outcomes to remember
+   * @param timeToLive  how long each outcome is remembered
+   */
+  public ValidationMemo(int maximumSize, Duration timeToLive)
+  {
+    this(maximumSize, timeToLive, System::nanoTime);
+  }
+
+  ValidationMemo(int maximumSize, Duration timeToLive, LongSupplier clock)
+  {
+    if (maximumSize <= 0)
+    {
+      throw new IllegalArgumentException("Maximum size must be positive.");
+    }
+    int segmentCount = Math.min(MAX_SEGMENTS, Integer.highestOneBit(maximumSize));
+    int segmentSize = (maximumSize + segmentCount - 1) / segmentCount;
+    this.segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++)
+    {
+      segments[i] = new Segment(segmentSize);
+    }
+    this.timeToLiveNanos = timeToLive.toNanos();
+    this.clock = clock;
+  }
+
+  public long getHitCount()
+  {
+    return hits.sum();
+  }
+
+  public long getMissCount()
+  {
+    return misses.sum();
+  }
+
+  /**
+   * @return the number of outcomes remembered, including any that have
+   * expired but not yet been replaced
+   */
+  public int size()
+  {
+    int size = 0;
+    for (Segment segment : segments)
+    {
+      size += segment.size();
+    }
+    return size;
+  }
+
+  /**
+   * Forgets all outcomes, such as when the reference data being validated
+   * against changes.
+   */
+  public void clear()
+  {
+    for (Segment segment : segments)
+    {
+      segment.clear();
+    }
+  }
+
+  /**
+   * @return the errors remembered for the given value, or null if there is
+   * no live outcome for it
+   */
+  List<ValidationResult.Error> get(Object value)
+  {
+    Object key = value != null ? value : NULL_KEY;
+    List<ValidationResult.Error> errors = segment(key).get(key, clock.getAsLong());
+    (errors != null ? hits : misses).increment();
+    return errors;
+  }
+
+  void put(Object value, List<ValidationResult.Error> errors)
+  {
+    Object key = value != null ? value : NULL_KEY;
+    segment(key).put(key, errors, clock.getAsLong() + timeToLiveNanos);
+  }
+
+  private Segment segment(Object key)
+  {
+    int hash = key.hashCode();
+    hash ^= hash >>> 16;
+    return segments[hash & (segments.length - 1)];
+  }
+
+  /**
+   * A portion of the memo, guarded by its own lock.
+   */
+  private static final class Segment
+  {
+    private final ReentrantLock        lock = new ReentrantLock();
+    private final Map<Object, Outcome> outcomes;
+
+    Segment(int maximumSize)
+    {
+      this.outcomes = new LinkedHashMap<Object, Outcome>(16, 0.75f, true)
+      {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Outcome> eldest)
+        {
+          return size() > maximumSize;
+        }
+      };
+    }
+
+    List<ValidationResult.Error> get(Object key, long now)
+    {
+      lock.lock();
+      try
+      {
+        Outcome outcome = outcomes.get(key);
+        if (outcome == null)
+        {
+          return null;
+        }
+        if (now - outcome.expires >= 0)
+        {
+          outcomes.remove(key);
+          return null;
+        }
+        return outcome.errors;
+      }
+      finally
+      {
+        lock.unlock();
+      }
+    }
+
+    void put(Object key, List<ValidationResult.Error> errors, long expires)
+    {
+      lock.lock();
+      try
+      {
+        outcomes.put(key, new Outcome(errors, expires));
+      }
+      finally
+      {
+        lock.unlock();
+      }
+    }
+
+    int size()
+    {
+      lock.lock();
+      try
+      {
+        return outcomes.size();
+      }
+      finally
+      {
+        lock.unlock();
+      }
+    }
+
+    void clear()
+    {
+      lock.lock();
+      try
+      {
+        outcomes.clear();
+      }
+      finally
+      {
+        lock.unlock();
+      }
+    }
+  }
+
+  private static final class Outcome
+  {
+    private final List<ValidationResult.Error> errors;
+    private final long                         expires;
+
+    Outcome(List<ValidationResult.Error> errors, long expires)
+    {
+      this.errors = errors;
+      this.expires = expires;
+    }
+  }
+}
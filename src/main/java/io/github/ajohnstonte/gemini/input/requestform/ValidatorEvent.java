@@ -0,0 +1,43 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A flight recorder event for a slow run of one of a form's validators. By
+ * default only runs taking at least ten milliseconds are recorded, which
+ * the recording's settings may change under the event's name.
+ *
+ * @author ajohnston
+ */
+@Name(ValidatorEvent.NAME)
+@Label("Slow Form Validator")
+@Description("A form validator that took longer than the threshold")
+@Category({ "Gemini", "Request Forms" })
+@Threshold("10 ms")
+@StackTrace(false)
+public class ValidatorEvent
+    extends Event
+{
+  public static final String NAME = "io.github.ajohnstonte.requestform.Validator";
+
+  @Label("Form")
+  Class<?> form;
+
+  @Label("Field")
+  @Description("The name of the validator's field, or form for the form's own validators")
+  String   field;
+
+  @Label("Validator")
+  @Description("The class of the validator")
+  String   validator;
+
+  @Label("Outcome")
+  @Description("passed or failed")
+  String   outcome;
+}
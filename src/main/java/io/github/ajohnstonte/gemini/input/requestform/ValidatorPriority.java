@@ -0,0 +1,26 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+/**
+ * How essential a validator is, deciding whether it may be skipped by a
+ * {@link LoadShedder} when the server is overloaded.
+ *
+ * @author ajohnston
+ */
+public enum ValidatorPriority
+{
+  /**
+   * A correctness check that always runs, such as the standard validators
+   * of a field.
+   */
+  REQUIRED,
+  /**
+   * The default. May only be skipped under the most severe load, and only
+   * if the shedder is configured to.
+   */
+  NORMAL,
+  /**
+   * A check that is nice to have but not essential, or is expensive, such as
+   * spam scoring. The first to be skipped.
+   */
+  OPTIONAL
+}
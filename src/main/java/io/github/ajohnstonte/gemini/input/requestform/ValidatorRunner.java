@@ -0,0 +1,181 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+import com.techempower.gemini.input.Input;
+import com.techempower.gemini.input.validator.Validator;
+import io.github.ajohnstonte.gemini.input.ValuesInput;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs a form's validators within a {@link ValidationBudget}, timing each.
+ *
+ * @author ajohnston
+ */
+class ValidatorRunner
+{
+  static final String LATE_ERROR = "Validation did not complete in time.";
+
+  private final ValidationBudget budget;
+  private final boolean          failFast;
+
+  /**
+   * @param failFast whether to stop at the first validator to raise an error
+   */
+  ValidatorRunner(ValidationBudget budget, boolean failFast)
+  {
+    this.budget = budget;
+    this.failFast = failFast;
+  }
+
+  /**
+   * @return the number of errors added to the input so far
+   */
+  static int errorCount(Input input)
+  {
+    if (input instanceof ValuesInput)
+    {
+      return ((ValuesInput)input).getErrorCount();
+    }
+    List<String> errors = input.errors();
+    return errors != null ? errors.size() : 0;
+  }
+
+  /**
+   * Runs the validators against the input in order.
+   *
+   * @return the timing of each validator that was run, in the same order
+   */
+  List<ValidatorTiming> run(List<Validator> validators, Input input)
+  {
+    final List<ValidatorTiming> timings = new ArrayList<>(validators.size());
+    final long start = System.nanoTime();
+    final long deadline = nanos(budget.getDeadline());
+    for (Validator validator : validators)
+    {
+      if (failFast && errorCount(input) > 0)
+      {
+        break;
+      }
+      final long validatorStart = System.nanoTime();
+      final long remaining = deadline == Long.MAX_VALUE
+          ? Long.MAX_VALUE
+          : deadline - (validatorStart - start);
+      if (remaining <= 0)
+      {
+        timings.add(late(validator, input, 0L));
+        continue;
+      }
+      final long allowed = Math.min(remaining, nanos(timeout(validator)));
+      if (allowed == Long.MAX_VALUE)
+      {
+        validator.process(input);
+        timings.add(new ValidatorTiming(ManagedValidator.unwrap(validator),
+            System.nanoTime() - validatorStart, null));
+      }
+      else if (budget.getExecutor() != null)
+      {
+        timings.add(runOnExecutor(validator, input, allowed, validatorStart));
+      }
+      else
+      {
+        RecordingInput recorder = new RecordingInput(input);
+        validator.process(recorder);
+        final long elapsed = System.nanoTime() - validatorStart;
+        if (elapsed > allowed)
+        {
+          timings.add(late(validator, input, elapsed));
+        }
+        else
+        {
+          recorder.replay();
+          timings.add(new ValidatorTiming(ManagedValidator.unwrap(validator),
+              elapsed, null));
+        }
+      }
+    }
+    return timings;
+  }
+
+  private ValidatorTiming runOnExecutor(Validator validator, Input input,
+                                        long allowed, long validatorStart)
+  {
+    final ExecutorService executor = budget.getExecutor();
+    final RecordingInput recorder = new RecordingInput(input);
+    final Future<?> future = executor.submit(() -> validator.process(recorder));
+    try
+    {
+      future.get(allowed, TimeUnit.NANOSECONDS);
+      recorder.replay();
+      return new ValidatorTiming(ManagedValidator.unwrap(validator),
+          System.nanoTime() - validatorStart, null);
+    }
+    catch (TimeoutException e)
+    {
+      if (budget.getOutcome() != ValidationBudget.Outcome.PENDING)
+      {
+        future.cancel(true);
+      }
+      return late(validator, input, System.nanoTime() - validatorStart);
+    }
+    catch (InterruptedException e)
+    {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      return late(validator, input, System.nanoTime() - validatorStart);
+    }
+    catch (ExecutionException e)
+    {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException)
+      {
+        throw (RuntimeException)cause;
+      }
+      if (cause instanceof Error)
+      {
+        throw (Error)cause;
+      }
+      throw new IllegalStateException(cause);
+    }
+  }
+
+  /**
+   * Applies the budget's outcome for a validator that missed its time.
+   */
+  private ValidatorTiming late(Validator validator, Input input, long elapsed)
+  {
+    if (budget.getOutcome() == ValidationBudget.Outcome.FAIL)
+    {
+      input.addError(LATE_ERROR);
+    }
+    return new ValidatorTiming(ManagedValidator.unwrap(validator), elapsed, budget.getOutcome());
+  }
+
+  private Duration timeout(Validator validator)
+  {
+    Duration timeout = ManagedValidator.timeoutOf(validator);
+    return timeout != null ? timeout : budget.getTimeout();
+  }
+
+  private static long nanos(Duration duration)
+  {
+    if (duration == null)
+    {
+      return Long.MAX_VALUE;
+    }
+    try
+    {
+      return duration.toNanos();
+    }
+    catch (ArithmeticException e)
+    {
+      return Long.MAX_VALUE;
+    }
+  }
+}
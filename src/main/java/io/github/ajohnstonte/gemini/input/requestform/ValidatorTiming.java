@@ -0,0 +1,81 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+import com.techempower.gemini.input.validator.Validator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time a single validator took while a form was processed under a
+ * {@link ValidationBudget}, and the outcome applied if it missed its
+ * timeout or the deadline.
+ *
+ * @author ajohnston
+ */
+public class ValidatorTiming
+{
+  private final Validator                validator;
+  private final long                     elapsedNanos;
+  private final ValidationBudget.Outcome outcome;
+
+  ValidatorTiming(Validator validator, long elapsedNanos,
+                  ValidationBudget.Outcome outcome)
+  {
+    this.validator = validator;
+    this.elapsedNanos = elapsedNanos;
+    this.outcome = outcome;
+  }
+
+  public Validator getValidator()
+  {
+    return validator;
+  }
+
+  /**
+   * @return the time spent running or waiting on the validator, which is
+   * zero for validators not run because the deadline had passed
+   */
+  public long getElapsedNanos()
+  {
+    return elapsedNanos;
+  }
+
+  public long getElapsed(TimeUnit unit)
+  {
+    return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * @return true if the validator missed its timeout or the deadline
+   */
+  public boolean isLate()
+  {
+    return outcome != null;
+  }
+
+  /**
+   * @return the outcome applied in place of the validator's own errors, or
+   * null if it finished in time
+   */
+  public ValidationBudget.Outcome getOutcome()
+  {
+    return outcome;
+  }
+
+  /**
+   * @return true if the validator missed its time and was recorded as
+   * pending rather than failed or skipped
+   */
+  public boolean isPending()
+  {
+    return outcome == ValidationBudget.Outcome.PENDING;
+  }
+
+  @Override
+  public String toString()
+  {
+    return "ValidatorTiming [" + validator + "; "
+        + getElapsed(TimeUnit.MICROSECONDS) + "us"
+        + (outcome != null ? "; " + outcome : "")
+        + "]";
+  }
+}
@@ -1,9 +1,12 @@
 package io.github.ajohnstonte.gemini.input.requestform;
 
 import io.github.ajohnstonte.gemini.input.Values;
+import io.github.ajohnstonte.helper.BooleanVocabulary;
 import io.github.ajohnstonte.helper.BoxedBooleanHelper;
 import io.github.ajohnstonte.helper.BoxedNumberHelper;
 
+import java.util.List;
+
 /**
  * Provides a streamlined means to access the value(s) of a field in a query without the need to specify the name each
  * time.
@@ -61,6 +64,15 @@ public class ValueAccess
     return getStrings(null);
   }
 
+  /**
+   * Gets a read-only list of Strings from the request, or null if there are
+   * none. Cheaper than {@link #getStrings()} where the values are only read.
+   */
+  public List<String> getStringList()
+  {
+    return getValues().getStringList(getField().getName());
+  }
+
   /**
    * Gets an array of ints from the request.  Any non-numeric values will
    * be converted to 0.
@@ -106,7 +118,7 @@ public class ValueAccess
 
   public Integer getInt(Integer defaultValue)
   {
-    return BoxedNumberHelper.parseInt(getString(), defaultValue);
+    return getValues().getInt(getField().getName(), defaultValue);
   }
 
   public Integer getInt(Integer defaultValue, Integer minimum, Integer maximum)
@@ -121,7 +133,7 @@ public class ValueAccess
 
   public Long getLong(Long defaultValue)
   {
-    return BoxedNumberHelper.parseLong(getString(), defaultValue);
+    return getValues().getLong(getField().getName(), defaultValue);
   }
 
   public Long getLong(Long defaultValue, Long minimum, Long maximum)
@@ -129,6 +141,34 @@ public class ValueAccess
     return BoxedNumberHelper.parseLong(getString(), defaultValue, minimum, maximum);
   }
 
+  /**
+   * Gets a short request value. Values that are not whole numbers, or are
+   * outside the range of a short, result in null.
+   */
+  public Short getShort()
+  {
+    return getShort(null);
+  }
+
+  public Short getShort(Short defaultValue)
+  {
+    return BoxedNumberHelper.parseShort(getString(), defaultValue);
+  }
+
+  /**
+   * Gets a byte request value. Values that are not whole numbers, or are
+   * outside the range of a byte, result in null.
+   */
+  public Byte getByte()
+  {
+    return getByte(null);
+  }
+
+  public Byte getByte(Byte defaultValue)
+  {
+    return BoxedNumberHelper.parseByte(getString(), defaultValue);
+  }
+
   public Boolean getBoolean()
   {
     return getBoolean(null);
@@ -157,6 +197,14 @@ public class ValueAccess
     return BoxedBooleanHelper.parseBoolean(getString(), defaultValue);
   }
 
+  /**
+   * Gets a boolean value using the given vocabulary of true and false words.
+   */
+  public Boolean getBoolean(BooleanVocabulary vocabulary, Boolean defaultValue)
+  {
+    return vocabulary.parse(getString(), defaultValue);
+  }
+
   /**
    * Gets an enum request value.  If the HttpServletRequest returns null for
    * this parameter, or if the provided value is invalid, null will be returned.
@@ -207,6 +255,32 @@ public class ValueAccess
    */
   public Double getDouble(Double defaultValue)
   {
-    return BoxedNumberHelper.parseDouble(getString(), defaultValue);
+    return getValues().getDouble(getField().getName(), defaultValue);
+  }
+
+  /**
+   * Gets a float request value. If the HttpServletRequest returns null for
+   * this parameter, null will be returned. The value is rounded directly to
+   * a float, rather than by way of a double.
+   *
+   * @return the value as a float.
+   */
+  public Float getFloat()
+  {
+    return getFloat(null);
+  }
+
+  /**
+   * Gets a float request value, with a default value provided.  If the
+   * HttpServletRequest returns null for this parameter, the default will
+   * be returned.
+   *
+   * @param defaultValue a value to be returned if no value is provided by
+   *                     the request.
+   * @return the value as a float.
+   */
+  public Float getFloat(Float defaultValue)
+  {
+    return getValues().getFloat(getField().getName(), defaultValue);
   }
 }
@@ -0,0 +1,43 @@
+package io.github.ajohnstonte.helper;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A read-only view of a byte array as characters, one per byte, used to
+ * parse ASCII input without decoding it into a String first. Bytes outside
+ * of the ASCII range map to characters that no parser accepts.
+ */
+final class AsciiCharSequence
+    implements CharSequence
+{
+  private final byte[] bytes;
+
+  AsciiCharSequence(byte[] bytes)
+  {
+    this.bytes = bytes;
+  }
+
+  @Override
+  public int length()
+  {
+    return bytes.length;
+  }
+
+  @Override
+  public char charAt(int index)
+  {
+    return (char)(bytes[index] & 0xFF);
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end)
+  {
+    return new String(bytes, start, end - start, StandardCharsets.ISO_8859_1);
+  }
+
+  @Override
+  public String toString()
+  {
+    return new String(bytes, StandardCharsets.ISO_8859_1);
+  }
+}
@@ -0,0 +1,259 @@
+package io.github.ajohnstonte.helper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A precompiled set of words representing true and false, used to parse
+ * boolean values without allocating. The words are grouped by length, so a
+ * value is only ever compared against the few words it could possibly be,
+ * and each comparison is made in place against the original characters.
+ *   <p>
+ * A lenient vocabulary ignores case and surrounding whitespace. A strict
+ * vocabulary accepts only exact matches. The vocabularies used by
+ * {@link BoxedBooleanHelper} are available as {@link #LENIENT} and
+ * {@link #STRICT}; others may be created with {@link #lenient} and
+ * {@link #strict}, and should be kept and reused rather than recreated for
+ * each value.
+ *
+ * @author ajohnston
+ */
+public final class BooleanVocabulary
+{
+  /**
+   * Accepts true, yes, 1, y and on, or false, no, 0, n and off, ignoring
+   * case and surrounding whitespace.
+   */
+  public static final BooleanVocabulary LENIENT = lenient(
+      new String[] { "true", "yes", "1", "y", "on" },
+      new String[] { "false", "no", "0", "n", "off" });
+
+  /**
+   * Accepts exactly true or false.
+   */
+  public static final BooleanVocabulary STRICT = strict(
+      new String[] { "true" },
+      new String[] { "false" });
+
+  private final boolean     lenient;
+  /**
+   * The words of each length, indexed by length. Lenient words are stored in
+   * lower case.
+   */
+  private final char[][][]  words;
+  /**
+   * The value of each word, in the same layout as the words.
+   */
+  private final boolean[][] results;
+
+  private BooleanVocabulary(String[] trueWords, String[] falseWords,
+                            boolean lenient)
+  {
+    this.lenient = lenient;
+    int maxLength = 0;
+    for (String word : concat(trueWords, falseWords))
+    {
+      maxLength = Math.max(maxLength, prepare(word).length());
+    }
+    List<char[]>[] wordLists = newLists(maxLength + 1);
+    List<Boolean>[] resultLists = newLists(maxLength + 1);
+    add(trueWords, true, wordLists, resultLists);
+    add(falseWords, false, wordLists, resultLists);
+    this.words = new char[maxLength + 1][][];
+    this.results = new boolean[maxLength + 1][];
+    for (int length = 0; length <= maxLength; length++)
+    {
+      words[length] = wordLists[length].toArray(new char[0][]);
+      results[length] = new boolean[resultLists[length].size()];
+      for (int i = 0; i < results[length].length; i++)
+      {
+        results[length][i] = resultLists[length].get(i);
+      }
+    }
+  }
+
+  /**
+   * Creates a vocabulary that ignores case and surrounding whitespace.
+   *
+   * @throws IllegalArgumentException if a word is empty once trimmed, or is
+   * both a true and a false word
+   */
+  public static BooleanVocabulary lenient(String[] trueWords, String[] falseWords)
+  {
+    return new BooleanVocabulary(trueWords, falseWords, true);
+  }
+
+  /**
+   * Creates a vocabulary that accepts only exact matches.
+   *
+   * @throws IllegalArgumentException if a word is empty, or is both a true
+   * and a false word
+   */
+  public static BooleanVocabulary strict(String[] trueWords, String[] falseWords)
+  {
+    return new BooleanVocabulary(trueWords, falseWords, false);
+  }
+
+  /**
+   * @return true if this vocabulary ignores case and surrounding whitespace
+   */
+  public boolean isLenient()
+  {
+    return lenient;
+  }
+
+  /**
+   * Parses the given value, returning the default value if it is null or is
+   * not one of the words in this vocabulary.
+   */
+  public Boolean parse(CharSequence chars, Boolean defaultValue)
+  {
+    return chars != null
+        ? parse(chars, 0, chars.length(), defaultValue)
+        : defaultValue;
+  }
+
+  /**
+   * Parses the characters from start (inclusive) to end (exclusive),
+   * returning the default value if they are not one of the words in this
+   * vocabulary.
+   */
+  public Boolean parse(CharSequence chars, int start, int end,
+                       Boolean defaultValue)
+  {
+    if (chars == null)
+    {
+      return defaultValue;
+    }
+    if (lenient)
+    {
+      // Skip surrounding whitespace, as per String.trim().
+      while (start < end && chars.charAt(start) <= ' ')
+      {
+        start++;
+      }
+      while (end > start && chars.charAt(end - 1) <= ' ')
+      {
+        end--;
+      }
+    }
+    final int length = end - start;
+    if (length <= 0 || length >= words.length)
+    {
+      return defaultValue;
+    }
+    final char[][] candidates = words[length];
+    for (int i = 0; i < candidates.length; i++)
+    {
+      if (matches(chars, start, candidates[i]))
+      {
+        return results[length][i];
+      }
+    }
+    return defaultValue;
+  }
+
+  /**
+   * Parses ASCII bytes from start (inclusive) to end (exclusive), returning
+   * the default value if they are not one of the words in this vocabulary.
+   */
+  public Boolean parse(byte[] bytes, int start, int end, Boolean defaultValue)
+  {
+    return bytes != null
+        ? parse(new AsciiCharSequence(bytes), start, end, defaultValue)
+        : defaultValue;
+  }
+
+  private boolean matches(CharSequence chars, int start, char[] word)
+  {
+    for (int i = 0; i < word.length; i++)
+    {
+      char c = chars.charAt(start + i);
+      if (c != word[i]
+          && !(lenient && Character.toLowerCase(c) == word[i]))
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the word as it is stored: trimmed and in lower case if lenient
+   */
+  private String prepare(String word)
+  {
+    String prepared = lenient ? lowerCase(word.trim()) : word;
+    if (prepared.isEmpty())
+    {
+      throw new IllegalArgumentException("Boolean words may not be empty.");
+    }
+    return prepared;
+  }
+
+  /**
+   * Lower cases each character individually, matching how values are
+   * compared.
+   */
+  private static String lowerCase(String word)
+  {
+    char[] chars = word.toCharArray();
+    for (int i = 0; i < chars.length; i++)
+    {
+      chars[i] = Character.toLowerCase(chars[i]);
+    }
+    return new String(chars);
+  }
+
+  private void add(String[] words, boolean result, List<char[]>[] wordLists,
+                   List<Boolean>[] resultLists)
+  {
+    for (String word : words)
+    {
+      char[] prepared = prepare(word).toCharArray();
+      List<char[]> sameLength = wordLists[prepared.length];
+      int existing = indexOf(sameLength, prepared);
+      if (existing < 0)
+      {
+        sameLength.add(prepared);
+        resultLists[prepared.length].add(result);
+      }
+      else if (resultLists[prepared.length].get(existing) != result)
+      {
+        throw new IllegalArgumentException("\"" + word
+            + "\" may not be both a true and a false word.");
+      }
+    }
+  }
+
+  private static int indexOf(List<char[]> words, char[] word)
+  {
+    for (int i = 0; i < words.size(); i++)
+    {
+      if (Arrays.equals(words.get(i), word))
+      {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> List<T>[] newLists(int count)
+  {
+    List<T>[] lists = new List[count];
+    for (int i = 0; i < count; i++)
+    {
+      lists[i] = new ArrayList<>(2);
+    }
+    return lists;
+  }
+
+  private static String[] concat(String[] first, String[] second)
+  {
+    String[] all = Arrays.copyOf(first, first.length + second.length);
+    System.arraycopy(second, 0, all, first.length, second.length);
+    return all;
+  }
+}
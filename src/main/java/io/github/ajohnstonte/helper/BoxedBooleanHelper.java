@@ -29,30 +29,43 @@ public class BoxedBooleanHelper
    */
   public static Boolean parseBoolean(String boolStr, Boolean defaultValue)
   {
-    if (  (boolStr != null)
-        && (boolStr.length() < 50)  // Long strings won't be evaluated.
+    return boolStr != null
+        ? parseBoolean(boolStr, 0, boolStr.length(), defaultValue)
+        : defaultValue;
+  }
+  
+  /**
+   * Variation of parseBoolean that parses the characters from start
+   * (inclusive) to end (exclusive). The characters are compared in place,
+   * ignoring case and surrounding whitespace, without creating a substring.
+   *
+   * @see BooleanVocabulary#LENIENT
+   */
+  public static Boolean parseBoolean(CharSequence chars, int start, int end,
+                                     Boolean defaultValue)
+  {
+    if (  (chars != null)
+        && (end - start < 50)  // Long strings won't be evaluated.
     )
     {
-      switch (boolStr.trim().toLowerCase())
-      {
-        case "true":
-        case "yes":
-        case "1":
-        case "y":
-        case "on":
-          return true;
-        case "false":
-        case "no":
-        case "0":
-        case "n":
-        case "off":
-          return false;
-      }
+      return BooleanVocabulary.LENIENT.parse(chars, start, end, defaultValue);
     }
   
     return defaultValue;
   }
   
+  /**
+   * Variation of parseBoolean that parses ASCII bytes from start (inclusive)
+   * to end (exclusive).
+   */
+  public static Boolean parseBoolean(byte[] bytes, int start, int end,
+                                     Boolean defaultValue)
+  {
+    return bytes != null
+        ? parseBoolean(new AsciiCharSequence(bytes), start, end, defaultValue)
+        : defaultValue;
+  }
+  
   /**
    * Strictly parses a String representing a boolean value, accepting only
    * "true" or "false", but permitting a default value if anything else is
@@ -60,18 +73,33 @@ public class BoxedBooleanHelper
    */
   public static Boolean parseBooleanStrict(String boolStr, Boolean defaultValue)
   {
-    if ("false".equals(boolStr))
-    {
-      return false;
-    }
-    else if ("true".equals(boolStr))
-    {
-      return true;
-    }
-    else
-    {
-      return defaultValue;
-    }
+    return boolStr != null
+        ? parseBooleanStrict(boolStr, 0, boolStr.length(), defaultValue)
+        : defaultValue;
+  }
+  
+  /**
+   * Variation of parseBooleanStrict that parses the characters from start
+   * (inclusive) to end (exclusive).
+   *
+   * @see BooleanVocabulary#STRICT
+   */
+  public static Boolean parseBooleanStrict(CharSequence chars, int start,
+                                           int end, Boolean defaultValue)
+  {
+    return BooleanVocabulary.STRICT.parse(chars, start, end, defaultValue);
+  }
+  
+  /**
+   * Variation of parseBooleanStrict that parses ASCII bytes from start
+   * (inclusive) to end (exclusive).
+   */
+  public static Boolean parseBooleanStrict(byte[] bytes, int start, int end,
+                                           Boolean defaultValue)
+  {
+    return bytes != null
+        ? parseBooleanStrict(new AsciiCharSequence(bytes), start, end, defaultValue)
+        : defaultValue;
   }
   
   /**
@@ -8,6 +8,11 @@ import com.techempower.util.LongRange;
 /**
  * BoxedNumberHelper provides helper functions for working with numbers and simple
  * mathematics, while still allowing for null-values.
+ *   <p>
+ * Each parser is also available in variations taking a CharSequence or an
+ * ASCII byte array, plus start (inclusive) and end (exclusive) offsets, so
+ * that values can be parsed straight out of a query string, file buffer or
+ * other larger input without first creating a substring.
  *
  * @see NumberHelper
  */
@@ -91,21 +96,36 @@ public class BoxedNumberHelper
     {
       return defaultValue;
     }
+    return parseInt(string, 0, string.length(), defaultValue);
+  }
+  
+  /**
+   * Variation of parseInt that parses the characters from start (inclusive) to
+   * end (exclusive), allowing values to be parsed directly out of a larger
+   * buffer without first creating a substring.
+   */
+  public static Integer parseInt(final CharSequence chars, final int start,
+                                 final int end, final Integer defaultValue)
+  {
+    // If the range is null or empty, return default.
+    if (chars == null || start >= end)
+    {
+      return defaultValue;
+    }
     
     // Check for a sign.
-    final boolean negative = string.charAt(0) == '-';
-    final int length = string.length();
+    final boolean negative = chars.charAt(start) == '-';
     
-    int index = negative ? 1 : 0;
+    int index = negative ? start + 1 : start;
     
     // Only a sign?  Default value.
-    if (index == length)
+    if (index == end)
     {
       return defaultValue;
     }
     
     // Compute digit by removing '0' from the character.
-    int digit = string.charAt(index++) - '0';
+    int digit = chars.charAt(index++) - '0';
     
     // Not a sign or digit?  Default value.
     if (  (digit < 0)
@@ -118,9 +138,9 @@ public class BoxedNumberHelper
     int accumulator = -digit;
     int cap = Integer.MIN_VALUE / 10;
     
-    while (index < length)
+    while (index < end)
     {
-      digit = string.charAt(index++) - '0';
+      digit = chars.charAt(index++) - '0';
       
       // Check for impending overflow.  If so, default value.
       if (  (digit < 0)
@@ -162,6 +182,18 @@ public class BoxedNumberHelper
     }
   }
   
+  /**
+   * Variation of parseInt that parses ASCII bytes from start (inclusive) to
+   * end (exclusive), such as a slice of a raw request or file buffer.
+   */
+  public static Integer parseInt(final byte[] bytes, final int start,
+                                 final int end, final Integer defaultValue)
+  {
+    return bytes != null
+        ? parseInt(new AsciiCharSequence(bytes), start, end, defaultValue)
+        : defaultValue;
+  }
+  
   /**
    * A simplified version of parseInt (see above) that uses null as its default
    * value if the String is not an integer or empty.
@@ -207,21 +239,36 @@ public class BoxedNumberHelper
     {
       return defaultValue;
     }
+    return parseLong(string, 0, string.length(), defaultValue);
+  }
+  
+  /**
+   * Variation of parseLong that parses the characters from start (inclusive) to
+   * end (exclusive), allowing values to be parsed directly out of a larger
+   * buffer without first creating a substring.
+   */
+  public static Long parseLong(final CharSequence chars, final int start,
+                               final int end, final Long defaultValue)
+  {
+    // If the range is null or empty, return default.
+    if (chars == null || start >= end)
+    {
+      return defaultValue;
+    }
     
     // Check for a sign.
-    final boolean negative = string.charAt(0) == '-';
-    final int length = string.length();
+    final boolean negative = chars.charAt(start) == '-';
     
-    int index = negative ? 1 : 0;
+    int index = negative ? start + 1 : start;
     
     // Only a sign?  Default value.
-    if (index == length)
+    if (index == end)
     {
       return defaultValue;
     }
     
     // Compute digit by removing '0' from the character.
-    int digit = string.charAt(index++) - '0';
+    int digit = chars.charAt(index++) - '0';
     
     // Not a sign or digit?  Default value.
     if (  (digit < 0)
@@ -234,9 +281,9 @@ public class BoxedNumberHelper
     long accumulator = -digit;
     long cap = Long.MIN_VALUE / 10;
     
-    while (index < length)
+    while (index < end)
     {
-      digit = string.charAt(index++) - '0';
+      digit = chars.charAt(index++) - '0';
       
       // Check for impending overflow.  If so, default value.
       if (  (digit < 0)
@@ -278,6 +325,18 @@ public class BoxedNumberHelper
     }
   }
   
+  /**
+   * Variation of parseLong that parses ASCII bytes from start (inclusive) to
+   * end (exclusive), such as a slice of a raw request or file buffer.
+   */
+  public static Long parseLong(final byte[] bytes, final int start,
+                               final int end, final Long defaultValue)
+  {
+    return bytes != null
+        ? parseLong(new AsciiCharSequence(bytes), start, end, defaultValue)
+        : defaultValue;
+  }
+  
   /**
    * A simplified version of parseLong (see above) that uses null as its default
    * value if the String is not a long or empty.
@@ -308,10 +367,8 @@ public class BoxedNumberHelper
   }
   
   /**
-   * Returns true if the given string represents a number, false otherwise.
-   * This uses Integer.parseInt and relies on an exception being thrown to
-   * indicate that the String is not a number.  We should eventually re-write
-   * this method to not rely on an exception for a non-exceptional case.
+   * Returns true if the given string represents a whole number that fits in
+   * a long, false otherwise.
    *   <p>
    */
   public static boolean isNumber(final String string)
@@ -320,69 +377,231 @@ public class BoxedNumberHelper
   }  // End isNumber().
   
   /**
-   * Does it's best to make an int out of what you give it. Uses
-   * Double.parseDouble() and casts the result to an int.
-   * If an Exception occurs then defaultValue is returned.
+   * Parses a String representation of a short into a boxed base-10 short.
+   * In the event of a parsing problem, including a value outside of the
+   * range of a short, the default value will be returned.  As with
+   * Short.parseShort, a leading '+' sign is accepted.
+   */
+  public static Short parseShort(final String string, final Short defaultValue)
+  {
+    return string != null
+        ? parseShort(string, 0, string.length(), defaultValue)
+        : defaultValue;
+  }
+  
+  /**
+   * Variation of parseShort that parses the characters from start
+   * (inclusive) to end (exclusive).
+   */
+  public static Short parseShort(final CharSequence chars, final int start,
+                                 final int end, final Short defaultValue)
+  {
+    return toShort(parseInt(chars, skipPlus(chars, start, end), end, null),
+        defaultValue);
+  }
+  
+  /**
+   * Variation of parseShort that parses ASCII bytes from start (inclusive)
+   * to end (exclusive).
+   */
+  public static Short parseShort(final byte[] bytes, final int start,
+                                 final int end, final Short defaultValue)
+  {
+    return toShort(parseInt(bytes, skipPlus(bytes, start, end), end, null),
+        defaultValue);
+  }
+  
+  /**
+   * A simplified version of parseShort (see above) that uses null as its
+   * default value if the String is not a short or empty.
+   */
+  public static Short parseShort(final String string)
+  {
+    return parseShort(string, null);
+  }
+  
+  private static Short toShort(final Integer value, final Short defaultValue)
+  {
+    return value != null && value >= Short.MIN_VALUE && value <= Short.MAX_VALUE
+        ? (Short)value.shortValue()
+        : defaultValue;
+  }
+  
+  /**
+   * Parses a String representation of a byte into a boxed base-10 byte.
+   * In the event of a parsing problem, including a value outside of the
+   * range of a byte, the default value will be returned.  As with
+   * Byte.parseByte, a leading '+' sign is accepted.
+   */
+  public static Byte parseByte(final String string, final Byte defaultValue)
+  {
+    return string != null
+        ? parseByte(string, 0, string.length(), defaultValue)
+        : defaultValue;
+  }
+  
+  /**
+   * Variation of parseByte that parses the characters from start (inclusive)
+   * to end (exclusive).
+   */
+  public static Byte parseByte(final CharSequence chars, final int start,
+                               final int end, final Byte defaultValue)
+  {
+    return toByte(parseInt(chars, skipPlus(chars, start, end), end, null),
+        defaultValue);
+  }
+  
+  /**
+   * Variation of parseByte that parses ASCII bytes from start (inclusive) to
+   * end (exclusive).
+   */
+  public static Byte parseByte(final byte[] bytes, final int start,
+                               final int end, final Byte defaultValue)
+  {
+    return toByte(parseInt(bytes, skipPlus(bytes, start, end), end, null),
+        defaultValue);
+  }
+  
+  /**
+   * A simplified version of parseByte (see above) that uses null as its
+   * default value if the String is not a byte or empty.
+   */
+  public static Byte parseByte(final String string)
+  {
+    return parseByte(string, null);
+  }
+  
+  /**
+   * Returns the index after a leading '+' sign, or start if there is none.
+   * A second sign is left in place so that input such as "+-1" is still
+   * rejected, as it is by the JDK.
+   */
+  private static int skipPlus(final CharSequence chars, final int start,
+                              final int end)
+  {
+    return chars != null && end - start > 1 && chars.charAt(start) == '+'
+        && chars.charAt(start + 1) != '-'
+        ? start + 1
+        : start;
+  }
+  
+  /**
+   * Variation of skipPlus for ASCII bytes.
+   */
+  private static int skipPlus(final byte[] bytes, final int start,
+                              final int end)
+  {
+    return bytes != null && end - start > 1 && bytes[start] == '+'
+        && bytes[start + 1] != '-'
+        ? start + 1
+        : start;
+  }
+  
+  private static Byte toByte(final Integer value, final Byte defaultValue)
+  {
+    return value != null && value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE
+        ? (Byte)value.byteValue()
+        : defaultValue;
+  }
+  
+  /**
+   * Does it's best to make an int out of what you give it. Parses the value
+   * as a double and casts the result to an int. If the value cannot be
+   * parsed then defaultValue is returned.
    *   <p>
    */
   public static Integer parseIntPermissive(String numStr, Integer defaultValue)
   {
-    if (numStr != null)
-    {
-      try
-      {
-        return (int)Double.parseDouble(numStr);
-      }
-      catch (NumberFormatException nfe)
-      {
-        // Do nothing.
-      }
-    }
-    return defaultValue;
+    final Double value = parseDouble(numStr, null);
+    return value != null ? (Integer)value.intValue() : defaultValue;
   }
   
   /**
-   * A pass-through to Float.parseFloat().
-   * If a NumberFormatException occurs then defaultValue is returned.
+   * Parses a String using the same syntax as Float.parseFloat(), but
+   * without relying on an exception to indicate an invalid value. If the
+   * value cannot be parsed then defaultValue is returned.
    *   <p>
    * This method was formerly in StringHelper.
    */
   public static Float parseFloat(String numStr, Float defaultValue)
   {
-    if (numStr != null)
+    return numStr != null
+        ? parseFloat(numStr, 0, numStr.length(), defaultValue)
+        : defaultValue;
+  }
+  
+  /**
+   * Variation of parseFloat that parses the characters from start
+   * (inclusive) to end (exclusive).
+   */
+  public static Float parseFloat(CharSequence chars, int start, int end,
+                                 Float defaultValue)
+  {
+    if (chars != null)
     {
-      try
-      {
-        return Float.parseFloat(numStr);
-      }
-      catch (NumberFormatException nfe)
+      final Float value = FloatingPointParser.parseFloat(chars, start, end);
+      if (value != null)
       {
-        // Do nothing.
+        return value;
       }
     }
     return defaultValue;
   }
   
   /**
-   * A pass-through to Double.parseDouble().
-   * If a NumberFormatException occurs then defaultValue is returned.
+   * Variation of parseFloat that parses ASCII bytes from start (inclusive)
+   * to end (exclusive).
+   */
+  public static Float parseFloat(byte[] bytes, int start, int end,
+                                 Float defaultValue)
+  {
+    return bytes != null
+        ? parseFloat(new AsciiCharSequence(bytes), start, end, defaultValue)
+        : defaultValue;
+  }
+  
+  /**
+   * Parses a String using the same syntax as Double.parseDouble(), but
+   * without relying on an exception to indicate an invalid value. If the
+   * value cannot be parsed then defaultValue is returned.
    */
   public static Double parseDouble(String numStr, Double defaultValue)
   {
-    if (numStr != null)
+    return numStr != null
+        ? parseDouble(numStr, 0, numStr.length(), defaultValue)
+        : defaultValue;
+  }
+  
+  /**
+   * Variation of parseDouble that parses the characters from start
+   * (inclusive) to end (exclusive).
+   */
+  public static Double parseDouble(CharSequence chars, int start, int end,
+                                   Double defaultValue)
+  {
+    if (chars != null)
     {
-      try
+      final Double value = FloatingPointParser.parseDouble(chars, start, end);
+      if (value != null)
       {
-        return Double.parseDouble(numStr);
-      }
-      catch (NumberFormatException nfe)
-      {
-        // Do nothing.
+        return value;
       }
     }
     return defaultValue;
   }
   
+  /**
+   * Variation of parseDouble that parses ASCII bytes from start (inclusive)
+   * to end (exclusive).
+   */
+  public static Double parseDouble(byte[] bytes, int start, int end,
+                                   Double defaultValue)
+  {
+    return bytes != null
+        ? parseDouble(new AsciiCharSequence(bytes), start, end, defaultValue)
+        : defaultValue;
+  }
+  
   /**
    * A simple method to round a double to x number of decimal places.
    * If null is provided, null is returned.
@@ -0,0 +1,153 @@
+package io.github.ajohnstonte.helper;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A precomputed, per-enum lookup table for resolving user-provided Strings
+ * into enum constants. Unlike {@link Enum#valueOf(Class, String)}, an
+ * invalid name simply results in the default value rather than an exception,
+ * since improperly formatted values are very common in request parameters
+ * (i.e., they are not "exceptional.")
+ *   <p>
+ * Lookups are built once per enum class and shared, so use {@link #of(Class)}
+ * rather than constructing these directly.
+ *
+ * @author ajohnston
+ */
+public class EnumLookup<E extends Enum<E>>
+{
+  private static final ClassValue<EnumLookup<?>> LOOKUPS = new ClassValue<EnumLookup<?>>()
+  {
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected EnumLookup<?> computeValue(Class<?> type)
+    {
+      return new EnumLookup(type);
+    }
+  };
+
+  private final Class<E>       type;
+  private final E[]            constants;
+  private final String[]       names;
+  private final String[]       labels;
+  private final Map<String, E> byName;
+  private final Map<String, E> byNameIgnoreCase;
+
+  private EnumLookup(Class<E> type)
+  {
+    this.type = type;
+    this.constants = type.getEnumConstants();
+    this.names = new String[constants.length];
+    this.labels = new String[constants.length];
+    this.byName = new HashMap<>(constants.length * 2);
+    this.byNameIgnoreCase = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    for (int i = 0; i < constants.length; i++)
+    {
+      E constant = constants[i];
+      names[i] = constant.name();
+      labels[i] = constant.toString();
+      byName.put(constant.name(), constant);
+      // If two constants differ only by case, the first one declared wins.
+      byNameIgnoreCase.putIfAbsent(constant.name(), constant);
+    }
+  }
+
+  /**
+   * @return the shared lookup for the given enum class
+   */
+  @SuppressWarnings("unchecked")
+  public static <E extends Enum<E>> EnumLookup<E> of(Class<E> type)
+  {
+    return (EnumLookup<E>)LOOKUPS.get(type);
+  }
+
+  /**
+   * @return the enum class this lookup resolves values for
+   */
+  public Class<E> getType()
+  {
+    return type;
+  }
+
+  /**
+   * @return the number of constants in the enum
+   */
+  public int size()
+  {
+    return constants.length;
+  }
+
+  /**
+   * @return the constant at the given ordinal
+   */
+  public E get(int ordinal)
+  {
+    return constants[ordinal];
+  }
+
+  /**
+   * @return the name of the constant at the given ordinal, as used for option
+   * values
+   */
+  public String getName(int ordinal)
+  {
+    return names[ordinal];
+  }
+
+  /**
+   * @return the string representation of the constant at the given ordinal,
+   * as used for option labels
+   */
+  public String getLabel(int ordinal)
+  {
+    return labels[ordinal];
+  }
+
+  /**
+   * Resolves a constant by its exact name. Returns null if the name is null or
+   * does not match any constant.
+   */
+  public E get(String name)
+  {
+    return get(name, null);
+  }
+
+  /**
+   * Resolves a constant by its exact name. Returns the default value if the
+   * name is null or does not match any constant.
+   */
+  public E get(String name, E defaultValue)
+  {
+    if (name == null)
+    {
+      return defaultValue;
+    }
+    E constant = byName.get(name);
+    return constant != null ? constant : defaultValue;
+  }
+
+  /**
+   * Resolves a constant by its name, ignoring case. Returns the default value
+   * if the name is null or does not match any constant.
+   */
+  public E getIgnoreCase(String name, E defaultValue)
+  {
+    if (name == null)
+    {
+      return defaultValue;
+    }
+    E constant = byNameIgnoreCase.get(name);
+    return constant != null ? constant : defaultValue;
+  }
+
+  /**
+   * Resolves a constant by its name, optionally ignoring case. Returns null if
+   * the name is null or does not match any constant.
+   */
+  public E get(String name, boolean ignoreCase)
+  {
+    return ignoreCase ? getIgnoreCase(name, null) : get(name, null);
+  }
+}
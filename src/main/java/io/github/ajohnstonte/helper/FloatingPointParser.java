@@ -0,0 +1,563 @@
+package io.github.ajohnstonte.helper;
+
+import java.math.BigInteger;
+
+/**
+ * Exception-free, correctly rounded parsing of decimal floating point
+ * numbers. Accepts exactly the same syntax as {@link Double#parseDouble} and
+ * {@link Float#parseFloat}, but returns null for invalid input rather than
+ * throwing, and parses most inputs without the JDK at all.
+ *   <p>
+ * Input is first validated and reduced to a decimal significand and
+ * exponent. Small values that are exactly representable are converted
+ * directly (Clinger's fast path). Everything else goes through the
+ * Eisel-Lemire algorithm, which is correct whenever it produces an answer.
+ * Only in the rare cases that it can't (more than 19 significant digits, or
+ * a product too close to a rounding boundary), or for hexadecimal, NaN and
+ * Infinity input, is the validated text handed to the JDK, which then cannot
+ * throw.
+ *
+ * @see <a href="https://arxiv.org/abs/2101.11408">Number Parsing at a
+ * Gigabyte per Second</a>
+ */
+final class FloatingPointParser
+{
+  //
+  // Constants.
+  //
+
+  private static final int SMALLEST_POWER_OF_FIVE = -342;
+  private static final int LARGEST_POWER_OF_FIVE  = 308;
+
+  /**
+   * 128-bit approximations of 5^q for each q in the supported range, stored
+   * as (high, low) pairs and normalized so that the high bit is set.
+   */
+  private static final long[] POWERS_OF_FIVE = computePowersOfFive();
+
+  private static final double[] DOUBLE_POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+      1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+
+  private static final float[] FLOAT_POWERS_OF_TEN = {
+      1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+  };
+
+  /**
+   * The most significant digits that fit in the 64-bit significand without
+   * any risk of overflow.
+   */
+  private static final int MAX_SIGNIFICANT_DIGITS = 19;
+
+  private static final Format DOUBLE = new Format(52, -1023, 0x7FF, -342, 308, -4, 23);
+  private static final Format FLOAT  = new Format(23, -127, 0xFF, -65, 38, -17, 10);
+
+  //
+  // Static methods.
+  //
+
+  /**
+   * Parses the characters from start (inclusive) to end (exclusive) as a
+   * double, returning null if they are not a valid Java floating point
+   * literal.
+   */
+  static Double parseDouble(CharSequence chars, int start, int end)
+  {
+    Decimal decimal = Decimal.parse(chars, start, end);
+    if (decimal == null)
+    {
+      return null;
+    }
+    if (!decimal.simple)
+    {
+      return Double.parseDouble(decimal.text(chars));
+    }
+    final long significand = decimal.significand;
+    final int exponent = decimal.exponent;
+    final boolean negative = decimal.negative;
+    // Clinger's fast path: both the significand and the power of ten are
+    // exactly representable, so a single operation rounds correctly. (The
+    // significand is unsigned, and may appear negative with 19 digits.)
+    if (exponent >= -22 && exponent <= 22
+        && significand >= 0 && significand <= (1L << 53))
+    {
+      double value = significand;
+      value = exponent < 0
+          ? value / DOUBLE_POWERS_OF_TEN[-exponent]
+          : value * DOUBLE_POWERS_OF_TEN[exponent];
+      return negative ? -value : value;
+    }
+    long bits = eiselLemire(DOUBLE, exponent, significand);
+    if (bits < 0)
+    {
+      return Double.parseDouble(decimal.text(chars));
+    }
+    double value = Double.longBitsToDouble(bits);
+    return negative ? -value : value;
+  }
+
+  /**
+   * Parses the characters from start (inclusive) to end (exclusive) as a
+   * float, returning null if they are not a valid Java floating point
+   * literal. The result is rounded directly to a float, never through a
+   * double.
+   */
+  static Float parseFloat(CharSequence chars, int start, int end)
+  {
+    Decimal decimal = Decimal.parse(chars, start, end);
+    if (decimal == null)
+    {
+      return null;
+    }
+    if (!decimal.simple)
+    {
+      return Float.parseFloat(decimal.text(chars));
+    }
+    final long significand = decimal.significand;
+    final int exponent = decimal.exponent;
+    final boolean negative = decimal.negative;
+    if (exponent >= -10 && exponent <= 10
+        && significand >= 0 && significand <= (1L << 24))
+    {
+      float value = significand;
+      value = exponent < 0
+          ? value / FLOAT_POWERS_OF_TEN[-exponent]
+          : value * FLOAT_POWERS_OF_TEN[exponent];
+      return negative ? -value : value;
+    }
+    long bits = eiselLemire(FLOAT, exponent, significand);
+    if (bits < 0)
+    {
+      return Float.parseFloat(decimal.text(chars));
+    }
+    float value = Float.intBitsToFloat((int)bits);
+    return negative ? -value : value;
+  }
+
+  /**
+   * Computes the (positive) binary representation nearest to
+   * significand * 10^exponent, or returns -1 if it cannot be determined
+   * without more precision.
+   */
+  private static long eiselLemire(Format format, int exponent, long significand)
+  {
+    if (significand == 0 || exponent < format.smallestPowerOfTen)
+    {
+      return 0;
+    }
+    if (exponent > format.largestPowerOfTen)
+    {
+      return (long)format.infinitePower << format.mantissaBits;
+    }
+    final int leadingZeros = Long.numberOfLeadingZeros(significand);
+    final long normalized = significand << leadingZeros;
+
+    // Multiply by the truncated 128-bit power of five, extending to the
+    // lower half only if the upper half is ambiguous.
+    final int index = 2 * (exponent - SMALLEST_POWER_OF_FIVE);
+    final long precisionMask = 0xFFFFFFFFFFFFFFFFL >>> (format.mantissaBits + 3);
+    long high = multiplyHighUnsigned(normalized, POWERS_OF_FIVE[index]);
+    long low = normalized * POWERS_OF_FIVE[index];
+    if ((high & precisionMask) == precisionMask)
+    {
+      long secondHigh = multiplyHighUnsigned(normalized, POWERS_OF_FIVE[index + 1]);
+      low += secondHigh;
+      if (Long.compareUnsigned(secondHigh, low) > 0)
+      {
+        high++;
+      }
+    }
+    if (low == 0xFFFFFFFFFFFFFFFFL && (exponent < -27 || exponent > 55))
+    {
+      // Too close to call with 128 bits of the power of five.
+      return -1;
+    }
+
+    final int upperBit = (int)(high >>> 63);
+    final int shift = upperBit + 64 - format.mantissaBits - 3;
+    long mantissa = high >>> shift;
+    int power2 = power(exponent) + upperBit - leadingZeros - format.minimumExponent;
+    if (power2 <= 0)
+    {
+      // Subnormal.
+      if (-power2 + 1 >= 64)
+      {
+        return 0;
+      }
+      mantissa >>>= -power2 + 1;
+      mantissa += mantissa & 1;
+      mantissa >>>= 1;
+      power2 = mantissa < (1L << format.mantissaBits) ? 0 : 1;
+      return ((long)power2 << format.mantissaBits) | (mantissa & ((1L << format.mantissaBits) - 1));
+    }
+    // Exactly halfway between two values: round to even, which is only
+    // possible within a narrow range of exponents.
+    if (Long.compareUnsigned(low, 1) <= 0
+        && exponent >= format.minimumRoundToEven
+        && exponent <= format.maximumRoundToEven
+        && (mantissa & 3) == 1
+        && (mantissa << shift) == high)
+    {
+      mantissa &= ~1L;
+    }
+    mantissa += mantissa & 1;
+    mantissa >>>= 1;
+    if (mantissa >= (2L << format.mantissaBits))
+    {
+      mantissa = 1L << format.mantissaBits;
+      power2++;
+    }
+    mantissa &= ~(1L << format.mantissaBits);
+    if (power2 >= format.infinitePower)
+    {
+      return (long)format.infinitePower << format.mantissaBits;
+    }
+    return ((long)power2 << format.mantissaBits) | mantissa;
+  }
+
+  /**
+   * @return floor(log2(10^q)) + 63, for q in the supported range
+   */
+  private static int power(int q)
+  {
+    return (((152170 + 65536) * q) >> 16) + 63;
+  }
+
+  /**
+   * @return the high 64 bits of the unsigned 128-bit product of x and y
+   */
+  private static long multiplyHighUnsigned(long x, long y)
+  {
+    final long mask = 0xFFFFFFFFL;
+    final long x0 = x & mask;
+    final long x1 = x >>> 32;
+    final long y0 = y & mask;
+    final long y1 = y >>> 32;
+    final long p00 = x0 * y0;
+    final long p01 = x0 * y1;
+    final long p10 = x1 * y0;
+    final long p11 = x1 * y1;
+    final long middle = p10 + (p00 >>> 32) + (p01 & mask);
+    return p11 + (middle >>> 32) + (p01 >>> 32);
+  }
+
+  private static long[] computePowersOfFive()
+  {
+    final int count = LARGEST_POWER_OF_FIVE - SMALLEST_POWER_OF_FIVE + 1;
+    final long[] powers = new long[count * 2];
+    final BigInteger five = BigInteger.valueOf(5);
+    final BigInteger twoTo128 = BigInteger.ONE.shiftLeft(128);
+    final BigInteger lowMask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+    for (int q = SMALLEST_POWER_OF_FIVE; q <= LARGEST_POWER_OF_FIVE; q++)
+    {
+      BigInteger value;
+      if (q < 0)
+      {
+        // The reciprocal, rounded up.
+        BigInteger power = five.pow(-q);
+        int z = power.bitLength();
+        int b = q >= -27 ? z + 127 : 2 * z + 128;
+        value = BigInteger.ONE.shiftLeft(b).divide(power).add(BigInteger.ONE);
+        while (value.compareTo(twoTo128) >= 0)
+        {
+          value = value.shiftRight(1);
+        }
+      }
+      else
+      {
+        // Truncated to the most significant 128 bits.
+        value = five.pow(q);
+        int bitLength = value.bitLength();
+        value = bitLength < 128
+            ? value.shiftLeft(128 - bitLength)
+            : value.shiftRight(bitLength - 128);
+      }
+      int index = 2 * (q - SMALLEST_POWER_OF_FIVE);
+      powers[index] = value.shiftRight(64).longValue();
+      powers[index + 1] = value.and(lowMask).longValue();
+    }
+    return powers;
+  }
+
+  /**
+   * You may not instantiate this class.
+   */
+  private FloatingPointParser()
+  {
+    // Does nothing.
+  }
+
+  /**
+   * The parameters of an IEEE 754 binary format needed by Eisel-Lemire.
+   */
+  private static final class Format
+  {
+    final int mantissaBits;
+    final int minimumExponent;
+    final int infinitePower;
+    final int smallestPowerOfTen;
+    final int largestPowerOfTen;
+    final int minimumRoundToEven;
+    final int maximumRoundToEven;
+
+    Format(int mantissaBits, int minimumExponent, int infinitePower,
+           int smallestPowerOfTen, int largestPowerOfTen,
+           int minimumRoundToEven, int maximumRoundToEven)
+    {
+      this.mantissaBits = mantissaBits;
+      this.minimumExponent = minimumExponent;
+      this.infinitePower = infinitePower;
+      this.smallestPowerOfTen = smallestPowerOfTen;
+      this.largestPowerOfTen = largestPowerOfTen;
+      this.minimumRoundToEven = minimumRoundToEven;
+      this.maximumRoundToEven = maximumRoundToEven;
+    }
+  }
+
+  /**
+   * A validated floating point literal. If simple, it is a decimal number
+   * whose value is exactly significand * 10^exponent. Otherwise (hexadecimal,
+   * NaN, Infinity, or too many significant digits) it must be handed to the
+   * JDK, which will accept it.
+   */
+  private static final class Decimal
+  {
+    boolean negative;
+    long    significand;
+    int     exponent;
+    boolean simple = true;
+    int     start;
+    int     end;
+
+    String text(CharSequence chars)
+    {
+      return chars.subSequence(start, end).toString();
+    }
+
+    /**
+     * @return the parsed literal, or null if the input is not valid
+     */
+    static Decimal parse(CharSequence chars, int start, int end)
+    {
+      if (chars == null)
+      {
+        return null;
+      }
+      // Like the JDK, ignore leading and trailing whitespace/control chars.
+      while (start < end && chars.charAt(start) <= ' ')
+      {
+        start++;
+      }
+      while (end > start && chars.charAt(end - 1) <= ' ')
+      {
+        end--;
+      }
+      if (start == end)
+      {
+        return null;
+      }
+      final Decimal decimal = new Decimal();
+      decimal.start = start;
+      decimal.end = end;
+      int index = start;
+      char c = chars.charAt(index);
+      if (c == '-' || c == '+')
+      {
+        decimal.negative = c == '-';
+        if (++index == end)
+        {
+          return null;
+        }
+        c = chars.charAt(index);
+      }
+      if (c == 'N' || c == 'I')
+      {
+        String word = c == 'N' ? "NaN" : "Infinity";
+        if (end - index != word.length() || !regionMatches(chars, index, word))
+        {
+          return null;
+        }
+        decimal.simple = false;
+        return decimal;
+      }
+      if (c == '0' && index + 1 < end
+          && (chars.charAt(index + 1) == 'x' || chars.charAt(index + 1) == 'X'))
+      {
+        if (!isHexLiteral(chars, index + 2, end))
+        {
+          return null;
+        }
+        decimal.simple = false;
+        return decimal;
+      }
+
+      // Integer and fraction digits. Leading zeros are not significant.
+      long significand = 0;
+      int significantDigits = 0;
+      int digits = 0;
+      int exponent = 0;
+      boolean fraction = false;
+      for (; index < end; index++)
+      {
+        c = chars.charAt(index);
+        if (c >= '0' && c <= '9')
+        {
+          digits++;
+          if (significantDigits > 0 || c != '0')
+          {
+            if (significantDigits < MAX_SIGNIFICANT_DIGITS)
+            {
+              significand = significand * 10 + (c - '0');
+              if (fraction)
+              {
+                exponent--;
+              }
+            }
+            else
+            {
+              // Truncated; too precise for the fast algorithms.
+              decimal.simple = false;
+              if (!fraction)
+              {
+                exponent++;
+              }
+            }
+            significantDigits++;
+          }
+          else if (fraction)
+          {
+            exponent--;
+          }
+        }
+        else if (c == '.' && !fraction)
+        {
+          fraction = true;
+        }
+        else
+        {
+          break;
+        }
+      }
+      if (digits == 0)
+      {
+        return null;
+      }
+
+      // Exponent.
+      if (index < end && (c == 'e' || c == 'E'))
+      {
+        index++;
+        boolean negativeExponent = false;
+        if (index < end && (chars.charAt(index) == '-' || chars.charAt(index) == '+'))
+        {
+          negativeExponent = chars.charAt(index) == '-';
+          index++;
+        }
+        int exponentDigits = 0;
+        long explicitExponent = 0;
+        for (; index < end; index++)
+        {
+          c = chars.charAt(index);
+          if (c < '0' || c > '9')
+          {
+            break;
+          }
+          exponentDigits++;
+          // Saturate; anything this large is zero or infinity regardless.
+          if (explicitExponent < 100_000)
+          {
+            explicitExponent = explicitExponent * 10 + (c - '0');
+          }
+        }
+        if (exponentDigits == 0)
+        {
+          return null;
+        }
+        exponent += (int)(negativeExponent ? -explicitExponent : explicitExponent);
+      }
+
+      // An optional type suffix, and then nothing else.
+      if (index < end)
+      {
+        c = chars.charAt(index);
+        if (index != end - 1 || (c != 'f' && c != 'F' && c != 'd' && c != 'D'))
+        {
+          return null;
+        }
+      }
+      decimal.significand = significand;
+      decimal.exponent = exponent;
+      return decimal;
+    }
+
+    /**
+     * Validates the remainder of a hexadecimal literal after the "0x",
+     * following the grammar the JDK uses: hex digits with an optional
+     * point, a mandatory binary exponent, and an optional type suffix.
+     */
+    private static boolean isHexLiteral(CharSequence chars, int index, int end)
+    {
+      int digits = 0;
+      boolean point = false;
+      for (; index < end; index++)
+      {
+        char c = chars.charAt(index);
+        if (Character.digit(c, 16) >= 0 && c < 128)
+        {
+          digits++;
+        }
+        else if (c == '.' && !point)
+        {
+          point = true;
+        }
+        else
+        {
+          break;
+        }
+      }
+      if (digits == 0 || index == end
+          || (chars.charAt(index) != 'p' && chars.charAt(index) != 'P'))
+      {
+        return false;
+      }
+      index++;
+      if (index < end && (chars.charAt(index) == '-' || chars.charAt(index) == '+'))
+      {
+        index++;
+      }
+      int exponentDigits = 0;
+      for (; index < end; index++)
+      {
+        char c = chars.charAt(index);
+        if (c < '0' || c > '9')
+        {
+          break;
+        }
+        exponentDigits++;
+      }
+      if (exponentDigits == 0)
+      {
+        return false;
+      }
+      if (index == end)
+      {
+        return true;
+      }
+      char c = chars.charAt(index);
+      return index == end - 1 && (c == 'f' || c == 'F' || c == 'd' || c == 'D');
+    }
+
+    private static boolean regionMatches(CharSequence chars, int index, String word)
+    {
+      for (int i = 0; i < word.length(); i++)
+      {
+        if (chars.charAt(index + i) != word.charAt(i))
+        {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -0,0 +1,202 @@
+package io.github.ajohnstonte.helper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A minimal perfect hash over a fixed set of Strings, such as the names of
+ * a form's fields. Each key maps to its own index from 0 to size - 1, found
+ * with two hashes of the key and no probing. Anything that isn't a key is
+ * rejected with a single comparison against the key at its index.
+ *   <p>
+ * Built using "hash and displace": keys are first hashed into buckets, then
+ * for each bucket, largest first, a seed is found that hashes all of its
+ * keys into free indexes. Keys may be looked up from any range of a
+ * CharSequence, so names can be matched directly within a larger input.
+ *
+ * @author ajohnston
+ */
+public final class PerfectHash
+{
+  /**
+   * Seeds tried per bucket before giving up, which in practice only happens
+   * for pathological hash functions.
+   */
+  private static final int MAX_SEED = 1 << 20;
+
+  private final String[] keys;
+  /**
+   * For each bucket, either the seed for hashing its keys, or for buckets
+   * with a single key, the key's index encoded as -(index + 1).
+   */
+  private final int[]    seeds;
+
+  /**
+   * @throws IllegalArgumentException if any of the keys are repeated or null
+   */
+  public PerfectHash(String... keys)
+  {
+    final int size = keys.length;
+    Set<String> distinct = new HashSet<>(Arrays.asList(keys));
+    if (distinct.size() != size || distinct.contains(null))
+    {
+      throw new IllegalArgumentException("Keys must be distinct and non-null.");
+    }
+    this.keys = new String[size];
+    this.seeds = new int[Math.max(1, size)];
+
+    // Group the keys into buckets.
+    List<List<String>> buckets = new ArrayList<>(seeds.length);
+    for (int i = 0; i < seeds.length; i++)
+    {
+      buckets.add(new ArrayList<>(2));
+    }
+    for (String key : keys)
+    {
+      buckets.get(bucket(key, 0, key.length())).add(key);
+    }
+    Integer[] order = new Integer[seeds.length];
+    for (int i = 0; i < order.length; i++)
+    {
+      order[i] = i;
+    }
+    Arrays.sort(order, (a, b) -> buckets.get(b).size() - buckets.get(a).size());
+
+    // Place the keys of the largest buckets first, while there's the most
+    // room for them.
+    boolean[] taken = new boolean[size];
+    int[] indexes = new int[size];
+    int nextFree = 0;
+    for (int bucket : order)
+    {
+      List<String> bucketKeys = buckets.get(bucket);
+      if (bucketKeys.size() > 1)
+      {
+        seeds[bucket] = findSeed(bucketKeys, taken, indexes);
+        for (int i = 0; i < bucketKeys.size(); i++)
+        {
+          taken[indexes[i]] = true;
+          this.keys[indexes[i]] = bucketKeys.get(i);
+        }
+      }
+      else if (bucketKeys.size() == 1)
+      {
+        while (taken[nextFree])
+        {
+          nextFree++;
+        }
+        taken[nextFree] = true;
+        this.keys[nextFree] = bucketKeys.get(0);
+        seeds[bucket] = -(nextFree + 1);
+      }
+    }
+  }
+
+  private int findSeed(List<String> bucketKeys, boolean[] taken, int[] indexes)
+  {
+    for (int seed = 1; seed < MAX_SEED; seed++)
+    {
+      boolean fits = true;
+      for (int i = 0; i < bucketKeys.size() && fits; i++)
+      {
+        String key = bucketKeys.get(i);
+        int index = index(hash(key, 0, key.length(), seed));
+        fits = !taken[index];
+        for (int j = 0; j < i && fits; j++)
+        {
+          fits = indexes[j] != index;
+        }
+        indexes[i] = index;
+      }
+      if (fits)
+      {
+        return seed;
+      }
+    }
+    throw new IllegalStateException("Unable to build a perfect hash for "
+        + bucketKeys + ".");
+  }
+
+  /**
+   * @return the number of keys
+   */
+  public int size()
+  {
+    return keys.length;
+  }
+
+  /**
+   * @return the key at the given index
+   */
+  public String getKey(int index)
+  {
+    return keys[index];
+  }
+
+  /**
+   * @return the index of the given key, or -1 if it isn't one of the keys
+   */
+  public int indexOf(CharSequence key)
+  {
+    return key != null ? indexOf(key, 0, key.length()) : -1;
+  }
+
+  /**
+   * @return the index of the key made up of the characters from start
+   * (inclusive) to end (exclusive), or -1 if they aren't one of the keys
+   */
+  public int indexOf(CharSequence chars, int start, int end)
+  {
+    if (keys.length == 0)
+    {
+      return -1;
+    }
+    int seed = seeds[bucket(chars, start, end)];
+    int index = seed < 0 ? -seed - 1 : index(hash(chars, start, end, seed));
+    String key = keys[index];
+    if (key.length() != end - start)
+    {
+      return -1;
+    }
+    for (int i = start; i < end; i++)
+    {
+      if (chars.charAt(i) != key.charAt(i - start))
+      {
+        return -1;
+      }
+    }
+    return index;
+  }
+
+  private int bucket(CharSequence chars, int start, int end)
+  {
+    return Math.floorMod(hash(chars, start, end, 0), seeds.length);
+  }
+
+  private int index(int hash)
+  {
+    return Math.floorMod(hash, keys.length);
+  }
+
+  /**
+   * A seeded FNV-1a hash, with a final mix so that the low bits depend on
+   * every character.
+   */
+  private static int hash(CharSequence chars, int start, int end, int seed)
+  {
+    int hash = 0x811C9DC5 ^ (seed * 0x9E3779B9);
+    for (int i = start; i < end; i++)
+    {
+      hash = (hash ^ chars.charAt(i)) * 0x01000193;
+    }
+    hash ^= hash >>> 16;
+    hash *= 0x85EBCA6B;
+    hash ^= hash >>> 13;
+    hash *= 0xC2B2AE35;
+    hash ^= hash >>> 16;
+    return hash;
+  }
+}
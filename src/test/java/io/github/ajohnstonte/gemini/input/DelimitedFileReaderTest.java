@@ -0,0 +1,115 @@
+package io.github.ajohnstonte.gemini.input;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DelimitedFileReaderTest
+{
+  private static final String CSV = "id,name,score\r\n"
+      + "1,Alice,9.5\r\n"
+      + "\r\n"
+      + "2,\"Bob, \"\"the builder\"\"\",7\n"
+      + "3,\"multi\nline\",\n"
+      + "4,Z\u00FC\n"
+      + "x,,1e3";
+
+  @Test
+  public void testCsv() throws IOException
+  {
+    // A tiny window forces records to be found across several mappings.
+    for (int windowSize : new int[]{ DelimitedFileReader.DEFAULT_WINDOW_SIZE, 40 })
+    {
+      Path path = write(CSV);
+      try (DelimitedFileReader reader = new DelimitedFileReader(path, ',', true, windowSize))
+      {
+        assertEquals(Arrays.asList("id", "name", "score"), reader.getColumnNames());
+        List<String> names = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>();
+        List<Double> scores = new ArrayList<>();
+        while (reader.next())
+        {
+          Values record = reader.getRecord();
+          names.add(record.get("name"));
+          ids.add(record.getInt("id", null));
+          scores.add(record.getDouble("score", null));
+        }
+        assertEquals(5, reader.getRecordNumber());
+        assertEquals(Arrays.asList("Alice", "Bob, \"the builder\"", "multi\nline", "Z\u00FC", null), names);
+        assertEquals(Arrays.asList(1, 2, 3, 4, null), ids);
+        assertEquals(Arrays.asList(9.5, 7.0, null, null, 1000.0), scores);
+      }
+      finally
+      {
+        Files.delete(path);
+      }
+    }
+  }
+
+  @Test
+  public void testTsv() throws IOException
+  {
+    Path path = write("a\tb\n1\t\"2\"\n");
+    try (DelimitedFileReader reader = DelimitedFileReader.tsv(path))
+    {
+      assertTrue(reader.next());
+      assertArrayEquals(new long[]{ 1L }, reader.getRecord().getLongs("a"));
+      assertEquals("\"2\"", reader.getRecord().get("b"));
+      assertFalse(reader.getRecord().has("c"));
+      assertFalse(reader.next());
+    }
+    finally
+    {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void testRecordTooLarge() throws IOException
+  {
+    Path path = write("a\n" + "0123456789012345678901234567890123456789\n");
+    try (DelimitedFileReader reader = new DelimitedFileReader(path, ',', true, 16))
+    {
+      assertThrows(IOException.class, reader::next);
+    }
+    finally
+    {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void testUnterminatedQuote() throws IOException
+  {
+    for (int windowSize : new int[]{ DelimitedFileReader.DEFAULT_WINDOW_SIZE, 16 })
+    {
+      Path path = write("a,b\n1,2\n\"unterminated,3\n");
+      try (DelimitedFileReader reader = new DelimitedFileReader(path, ',', true, windowSize))
+      {
+        assertTrue(reader.next());
+        assertEquals("2", reader.getRecord().get("b"));
+        IOException e = assertThrows(IOException.class, reader::next);
+        assertTrue(e.getMessage().contains("offset 8"), e.getMessage());
+      }
+      finally
+      {
+        Files.delete(path);
+      }
+    }
+  }
+
+  private static Path write(String contents) throws IOException
+  {
+    Path path = Files.createTempFile("records", ".csv");
+    Files.write(path, contents.getBytes(StandardCharsets.UTF_8));
+    return path;
+  }
+}
@@ -0,0 +1,76 @@
+package io.github.ajohnstonte.gemini.input;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FormUrlEncodedDecoderTest
+{
+  private static final String BODY =
+      "a=1&b=two+words&&c=%E2%9C%93&a=x&flag&d=&e=50%&f=%4g&g%20h=%41";
+
+  @Test
+  public void testDecode() throws IOException
+  {
+    Values fromStream = FormUrlEncodedDecoder.decode(stream(BODY), new InputLimits());
+    Values fromBuffer = FormUrlEncodedDecoder.decode(
+        ByteBuffer.wrap(BODY.getBytes(StandardCharsets.US_ASCII)), new InputLimits());
+    for (Values values : new Values[]{ fromStream, fromBuffer })
+    {
+      assertArrayEquals(new String[]{"1", "x"}, values.getStrings("a"));
+      assertEquals("two words", values.get("b"));
+      assertEquals("\u2713", values.get("c"));
+      assertEquals("", values.get("flag"));
+      assertEquals("", values.get("d"));
+      assertEquals("50%", values.get("e"));
+      assertEquals("%4g", values.get("f"));
+      assertEquals("A", values.get("g h"));
+    }
+  }
+
+  @Test
+  public void testDecodeInSmallChunks() throws IOException
+  {
+    // Escapes split across reads must still decode.
+    InputStream in = new ByteArrayInputStream(BODY.getBytes(StandardCharsets.US_ASCII))
+    {
+      @Override
+      public int read(byte[] b)
+      {
+        return read(b, 0, 1);
+      }
+    };
+    Values values = FormUrlEncodedDecoder.decode(in, new InputLimits());
+    assertEquals("\u2713", values.get("c"));
+    assertEquals("A", values.get("g h"));
+  }
+
+  @Test
+  public void testLimits()
+  {
+    assertLimit("maxTotalBytes", "a=1234", -1, new InputLimits().setMaxTotalBytes(5));
+    assertLimit("maxTotalBytes", "a=1", 100, new InputLimits().setMaxTotalBytes(5));
+    assertLimit("maxParameters", "a=1&b=2&c=3", -1, new InputLimits().setMaxParameters(2));
+    assertLimit("maxNameLength", "abcd=1", -1, new InputLimits().setMaxNameLength(3));
+    assertLimit("maxValueLength", "a=%41%41", -1, new InputLimits().setMaxValueLength(5));
+  }
+
+  private static void assertLimit(String limit, String body, long contentLength,
+                                  InputLimits limits)
+  {
+    InputLimitExceededException e = assertThrows(InputLimitExceededException.class,
+        () -> FormUrlEncodedDecoder.decode(stream(body), contentLength, limits));
+    assertEquals(limit, e.getLimit());
+  }
+
+  private static InputStream stream(String body)
+  {
+    return new ByteArrayInputStream(body.getBytes(StandardCharsets.US_ASCII));
+  }
+}
@@ -0,0 +1,89 @@
+package io.github.ajohnstonte.gemini.input;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonValuesTest
+{
+  private static final String JSON = "{"
+      + " \"name\": \"Jane \\\"J\\\" Doe\\u0021\","
+      + " \"age\": 42,"
+      + " \"height\": 1.75e0,"
+      + " \"active\": true,"
+      + " \"nothing\": null,"
+      + " \"tags\": [\"a\", 2, null, {\"x\": 1}, [3], false],"
+      + " \"address\": {\"city\": \"Springfield\", \"zip\": \"01234\","
+      + "   \"geo\": {\"lat\": -12.5}},"
+      + " \"ignored\": {\"deeply\": [[[{\"nested\": \"]}\"}]]]},"
+      + " \"es\\u0063aped\": \"key\""
+      + "}";
+
+  @Test
+  public void testValues()
+  {
+    JsonValues values = new JsonValues(JSON);
+    assertEquals("Jane \"J\" Doe!", values.get("name"));
+    assertEquals(42, values.getInt("age", null));
+    assertEquals(42L, values.getLong("age", null));
+    assertEquals("42", values.get("age"));
+    assertEquals(1.75, values.getDouble("height", null));
+    assertNull(values.getInt("height", null));
+    assertEquals("true", values.get("active"));
+    assertFalse(values.has("nothing"));
+    assertArrayEquals(new String[]{"a", "2", "false"}, values.getStrings("tags"));
+    assertArrayEquals(new int[]{0, 2, 0}, values.getInts("tags"));
+    assertEquals("Springfield", values.get("address.city"));
+    assertEquals(1234, values.getInt("address.zip", null));
+    assertEquals(-12.5f, values.getFloat("address.geo.lat", null));
+    assertFalse(values.has("address"));
+    assertFalse(values.has("address.missing"));
+    assertFalse(values.has("ignored"));
+    assertEquals("key", values.get("escaped"));
+    assertFalse(values.isMalformed());
+  }
+
+  @Test
+  public void testSinglePass()
+  {
+    Values values = new JsonValues(JSON, Arrays.asList("name", "address.city", "missing"));
+    assertEquals("Jane \"J\" Doe!", values.get("name"));
+    assertEquals("Springfield", values.get("address.city"));
+    assertNull(values.get("missing"));
+  }
+
+  @Test
+  public void testMalformed()
+  {
+    JsonValues values = new JsonValues("{\"a\": 1, \"b\": [2, ");
+    assertEquals(1, values.getInt("a", null));
+    assertFalse(values.has("c"));
+    assertTrue(values.isMalformed());
+    assertFalse(new JsonValues("[1, 2]").has("a"));
+    assertFalse(new JsonValues("").has("a"));
+  }
+
+  @Test
+  public void testMalformedLiterals()
+  {
+    for (String literal : new String[]{ "abc", "nul", "True", "01", "1.", ".5",
+        "1e", "--1", "+1", "1-2" })
+    {
+      JsonValues values = new JsonValues("{\"a\": " + literal + "}");
+      assertFalse(values.has("a"), literal);
+      assertTrue(values.isMalformed(), literal);
+      // Skipped values are checked as well.
+      values = new JsonValues("{\"b\": [" + literal + "], \"a\": 1}");
+      assertFalse(values.has("a"), literal);
+      assertTrue(values.isMalformed(), literal);
+    }
+    for (String literal : new String[]{ "0", "-0", "12", "-1.5", "1e5", "2.5E-3", "true", "false" })
+    {
+      JsonValues values = new JsonValues("{\"a\": " + literal + ", \"b\": {\"c\": " + literal + "}}");
+      assertEquals(literal, values.get("a"));
+      assertFalse(values.isMalformed(), literal);
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package io.github.ajohnstonte.gemini.input;
+
+import io.github.ajohnstonte.helper.PerfectHash;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryStringValuesTest
+{
+  @Test
+  public void testValues()
+  {
+    Values values = new QueryStringValues(
+        "a=1&b=two+words&&c=%E2%9C%93&a=x&flag&d=&e=50%&f%20g=h&i=%2B3");
+    assertTrue(values.has("a"));
+    assertFalse(values.has("z"));
+    assertEquals("1", values.get("a"));
+    assertArrayEquals(new String[]{"1", "x"}, values.getStrings("a"));
+    assertArrayEquals(new int[]{1, 0}, values.getInts("a"));
+    assertArrayEquals(new long[]{1L, 0L}, values.getLongs("a"));
+    assertEquals("two words", values.get("b"));
+    assertEquals("\u2713", values.get("c"));
+    assertTrue(values.has("flag"));
+    assertEquals("", values.get("flag"));
+    assertEquals("", values.get("d", "default"));
+    assertEquals("50%", values.get("e"));
+    assertEquals("h", values.get("f g"));
+    assertArrayEquals(new int[]{0}, values.getInts("i"));
+    assertEquals("default", values.get("z", "default"));
+    assertNull(values.getStrings("z"));
+    assertNull(values.getInts("z"));
+  }
+
+  @Test
+  public void testCopies()
+  {
+    Values values = new QueryStringValues("a=1&a=2");
+    values.getStrings("a")[0] = "changed";
+    values.getInts("a")[0] = 5;
+    assertArrayEquals(new String[]{"1", "2"}, values.getStrings("a"));
+    assertArrayEquals(new int[]{1, 2}, values.getInts("a"));
+    assertEquals(java.util.Arrays.asList("1", "2"), values.getStringList("a"));
+    assertSame(values.getStringList("a"), values.getStringList("a"));
+    assertThrows(UnsupportedOperationException.class,
+        () -> values.getStringList("a").set(0, "changed"));
+  }
+
+  @Test
+  public void testMapValuesCopies()
+  {
+    java.util.List<String> list = new java.util.ArrayList<>(
+        java.util.Arrays.asList("1", "2"));
+    Values values = new MapValues(java.util.Collections.singletonMap("a", list));
+    java.util.List<String> read = values.getStringList("a");
+    list.set(0, "changed");
+    assertEquals(java.util.Arrays.asList("1", "2"), read);
+    values.getStrings("a")[1] = "changed";
+    assertArrayEquals(new String[]{"1", "2"}, values.getStrings("a"));
+  }
+
+  @Test
+  public void testLimits() throws InputLimitExceededException
+  {
+    Values values = new QueryStringValues("a=1&a=2&b=345");
+    values.checkLimits(new InputLimits());
+    assertEquals("maxParameters", assertThrows(InputLimitExceededException.class,
+        () -> values.checkLimits(new InputLimits().setMaxParameters(2))).getLimit());
+    assertEquals("maxValuesPerName", assertThrows(InputLimitExceededException.class,
+        () -> values.checkLimits(new InputLimits().setMaxValuesPerName(1))).getLimit());
+    assertEquals("maxValueLength", assertThrows(InputLimitExceededException.class,
+        () -> values.checkLimits(new InputLimits().setMaxValueLength(2))).getLimit());
+    assertEquals("maxTotalBytes", assertThrows(InputLimitExceededException.class,
+        () -> values.checkLimits(new InputLimits().setMaxTotalBytes(7))).getLimit());
+    // Checking doesn't disturb reading.
+    assertArrayEquals(new String[]{"1", "2"}, values.getStrings("a"));
+    // Rejections are expected, so don't pay for a stack trace.
+    assertEquals(0, assertThrows(InputLimitExceededException.class,
+        () -> values.checkLimits(new InputLimits().setMaxParameters(2)))
+        .getStackTrace().length);
+  }
+
+  @Test
+  public void testValuesPerName() throws InputLimitExceededException
+  {
+    StringBuilder query = new StringBuilder("Aa=1&BB=2");
+    for (int i = 0; i < 100; i++)
+    {
+      query.append("&n").append(i).append("=").append(i);
+    }
+    // Names with equal hashes, and enough names to grow the table.
+    new QueryStringValues(query).checkLimits(
+        new InputLimits().setMaxValuesPerName(1));
+    query.append("&n42=again");
+    assertEquals("maxValuesPerName", assertThrows(InputLimitExceededException.class,
+        () -> new QueryStringValues(query).checkLimits(
+            new InputLimits().setMaxValuesPerName(1))).getLimit());
+  }
+
+  @Test
+  public void testRepeatedNames()
+  {
+    StringBuilder query = new StringBuilder();
+    for (int i = 0; i < 1_000; i++)
+    {
+      query.append("p=").append(i).append("&q=").append(-i).append('&');
+    }
+    Values values = new QueryStringValues(query);
+    int[] p = values.getInts("p");
+    int[] q = values.getInts("q");
+    assertEquals(1_000, p.length);
+    assertEquals(1_000, q.length);
+    assertEquals(999, p[999]);
+    assertEquals(-999, q[999]);
+  }
+
+  @Test
+  public void testSlots()
+  {
+    Values source = new QueryStringValues("utm=x&a=1&b%20c=2&a=3&utm=y");
+    Values values = SlotValues.of(new PerfectHash("a", "b c", "d"), source);
+    assertTrue(values instanceof SlotValues);
+    assertArrayEquals(new String[]{"1", "3"}, values.getStrings("a"));
+    assertArrayEquals(new int[]{1, 3}, values.getInts("a"));
+    assertEquals("2", values.get("b c"));
+    assertFalse(values.has("d"));
+    assertNull(values.get("d"));
+    // Names outside of the slots are still readable.
+    assertEquals("x", values.get("utm"));
+  }
+
+  @Test
+  public void testEmpty()
+  {
+    Values values = new QueryStringValues("");
+    assertFalse(values.has(""));
+    assertNull(values.get("a"));
+    assertNull(new QueryStringValues(null).get("a"));
+  }
+}
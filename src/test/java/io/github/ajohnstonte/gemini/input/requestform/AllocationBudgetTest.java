@@ -0,0 +1,191 @@
+package io.github.ajohnstonte.gemini.input.requestform;
+
+import io.github.ajohnstonte.gemini.input.MapValues;
+import io.github.ajohnstonte.gemini.input.QueryStringValues;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.UnsupportedEncodingException;
+import java.lang.management.ManagementFactory;
+import java.net.URLDecoder;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Fails if processing a standard form allocates more than its declared
+ * budget. Each scenario builds its form and processes a submission, as a
+ * request would, and is measured with the thread's allocation counter once
+ * warmed up, so that the JIT has had the chance to eliminate what it can.
+ *   <p>
+ * What a submission costs in bytes depends on the JDK, not least because
+ * strings are backed by a char[] on Java 8 and usually by half as large a
+ * byte[] since, so budgets are multiples of a baseline measured in the same
+ * run: decoding a query string into a map with nothing but the JDK, so that
+ * the yardstick can't move with the code under test. They were set with
+ * some headroom on Java 17; a change that needs more should raise the
+ * budget deliberately.
+ */
+public class AllocationBudgetTest
+{
+  private static final int WARMUP_ITERATIONS   = 20_000;
+  private static final int MEASURED_ITERATIONS = 2_000;
+  private static final String BASELINE_QUERY =
+      "username=someone&password=hunter2&remember=true&q=red+shoes"
+          + "&page=3&sort=newest&category=category4&category=category17";
+
+  private static long   baseline;
+  // Keeps the JIT from eliminating the baseline's allocations as unused.
+  private static Object baselineSink;
+
+  static class LoginForm extends RequestForm
+  {
+    TextField<String> username = new TextField<>(this, "username", String.class)
+        .setMaxLength(64);
+    TextField<String> password = new TextField<>(this, "password", String.class)
+        .setMaxLength(128);
+    Field<Boolean>    remember = new Field<>(this, "remember", Boolean.class);
+
+    {
+      username.setRequired(true);
+      password.setRequired(true);
+    }
+  }
+
+  static class SearchForm extends RequestForm
+  {
+    TextField<String>     query    = new TextField<>(this, "q", String.class)
+        .setMaxLength(200);
+    NumberField<Integer>  page     = new NumberField<>(this, "page", Integer.class)
+        .setMin(1)
+        .setMax(1_000);
+    SelectField<String>   sort     = new SelectField<>(this, "sort", String.class);
+    SelectField<String[]> category = new SelectField<>(this, "category", String[].class);
+
+    {
+      for (String option : new String[]{ "relevance", "newest", "oldest", "price", "rating" })
+      {
+        sort.addOption(option);
+      }
+      for (int i = 0; i < 50; i++)
+      {
+        category.addOption("category" + i);
+      }
+    }
+  }
+
+  public static Object[][] testAllocationBudgetParams()
+  {
+    Map<String, List<String>> search = new HashMap<>();
+    search.put("q", Collections.singletonList("red shoes"));
+    search.put("page", Collections.singletonList("3"));
+    search.put("sort", Collections.singletonList("newest"));
+    search.put("category", Arrays.asList("category4", "category17", "category42"));
+    return new Object[][]{
+        { "login, valid", 1.0,
+            (Runnable)() -> new LoginForm().process(new QueryStringValues(
+                "username=someone&password=hunter2&remember=true")) },
+        { "login, invalid", 1.1,
+            (Runnable)() -> new LoginForm().process(new QueryStringValues(
+                "username=&remember=maybe")) },
+        { "search, valid", 5.4,
+            (Runnable)() -> new SearchForm().process(new MapValues(search)) },
+        { "search, invalid", 5.8,
+            (Runnable)() -> new SearchForm().process(new QueryStringValues(
+                "page=0&sort=cheapest&category=category4&category=unknown")) },
+        { "search, setValuesFromMap", 4.8,
+            (Runnable)() -> new SearchForm().setValuesFromMap(search) },
+    };
+  }
+
+  @ParameterizedTest
+  @MethodSource("testAllocationBudgetParams")
+  public void testAllocationBudget(String scenario, double budget, Runnable submission)
+  {
+    assumeTrue(ThreadAllocation.isSupported(),
+        "Thread allocation counting isn't supported by this JVM.");
+    long perBaseline = baseline();
+    long perSubmission = measure(submission);
+    double ratio = (double)perSubmission / perBaseline;
+    assertTrue(ratio <= budget, String.format(
+        "%s allocated %d bytes per submission, %.2f times the baseline of %d,"
+            + " over its budget of %.2f.",
+        scenario, perSubmission, ratio, perBaseline, budget));
+  }
+
+  private static synchronized long baseline()
+  {
+    if (baseline == 0L)
+    {
+      baseline = measure(() -> {
+        Map<String, List<String>> decoded = new HashMap<>();
+        for (String parameter : BASELINE_QUERY.split("&"))
+        {
+          String[] pair = parameter.split("=", 2);
+          try
+          {
+            decoded.computeIfAbsent(URLDecoder.decode(pair[0], "UTF-8"),
+                name -> new ArrayList<>(1))
+                .add(URLDecoder.decode(pair[1], "UTF-8"));
+          }
+          catch (UnsupportedEncodingException e)
+          {
+            throw new IllegalStateException(e);
+          }
+        }
+        baselineSink = decoded;
+      });
+    }
+    return baseline;
+  }
+
+  private static long measure(Runnable submission)
+  {
+    for (int i = 0; i < WARMUP_ITERATIONS; i++)
+    {
+      submission.run();
+    }
+    long before = ThreadAllocation.allocatedBytes();
+    for (int i = 0; i < MEASURED_ITERATIONS; i++)
+    {
+      submission.run();
+    }
+    return Math.max(1L,
+        (ThreadAllocation.allocatedBytes() - before) / MEASURED_ITERATIONS);
+  }
+
+  /**
+   * HotSpot's per-thread allocation counter, through its extension of the
+   * standard thread bean.
+   */
+  private static final class ThreadAllocation
+  {
+    private static final com.sun.management.ThreadMXBean BEAN = bean();
+
+    private static com.sun.management.ThreadMXBean bean()
+    {
+      java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+      if (bean instanceof com.sun.management.ThreadMXBean)
+      {
+        com.sun.management.ThreadMXBean hotSpot = (com.sun.management.ThreadMXBean)bean;
+        if (hotSpot.isThreadAllocatedMemorySupported())
+        {
+          hotSpot.setThreadAllocatedMemoryEnabled(true);
+          return hotSpot;
+        }
+      }
+      return null;
+    }
+
+    static boolean isSupported()
+    {
+      return BEAN != null;
+    }
+
+    static long allocatedBytes()
+    {
+      return BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+  }
+}
@@ -3,19 +3,43 @@ package io.github.ajohnstonte.gemini.input.requestform;
 import com.techempower.data.ConnectorFactory;
 import com.techempower.gemini.*;
 import com.techempower.gemini.context.Attachments;
+import com.techempower.gemini.input.Input;
+import com.techempower.gemini.input.ValidatorSet;
+import com.techempower.gemini.input.validator.Validator;
 import com.techempower.gemini.monitor.GeminiMonitor;
 import com.techempower.gemini.mustache.MustacheManager;
 import com.techempower.gemini.pyxis.BasicUser;
 import com.techempower.gemini.session.SessionManager;
+import io.github.ajohnstonte.gemini.input.InputLimits;
+import io.github.ajohnstonte.gemini.input.MapValues;
+import io.github.ajohnstonte.gemini.input.QueryStringValues;
+import io.github.ajohnstonte.gemini.input.RejectedInput;
+import io.github.ajohnstonte.gemini.input.ValidationResult;
 import io.github.ajohnstonte.gemini.simulation.GetSimRequest;
 import com.techempower.gemini.simulation.SimClient;
 import io.github.ajohnstonte.gemini.simulation.SimParameters;
 import com.techempower.log.ComponentLog;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -281,6 +305,817 @@ public class RequestFormTest
     }
   }
 
+  @Test
+  public void testSelectFieldSelectedIndexes()
+  {
+    class MultiSelectFieldForm extends RequestForm
+    {
+      SelectField<String[]> field = new SelectField<>(this, "example", String[].class);
+      {
+        for (int i = 0; i < 500; i++)
+        {
+          field.addOption("permission-" + i);
+        }
+      }
+    }
+    {
+      MultiSelectFieldForm form = new MultiSelectFieldForm();
+      assertTrue(form.process(ctx("example", new String[]{
+          "permission-3", "permission-499", "permission-3"})).passed());
+      assertEquals(2, form.field.getSelectedIndexes().cardinality());
+      assertTrue(form.field.isSelected("permission-3"));
+      assertTrue(form.field.getOptions().get(499).isSelected());
+      assertFalse(form.field.getOptions().get(4).isSelected());
+      assertEquals(2, form.field.getSelectedOptions().size());
+    }
+    {
+      MultiSelectFieldForm form = new MultiSelectFieldForm();
+      assertTrue(form.process(ctx("example", new String[]{
+          "permission-3", "permission-500"})).failed());
+    }
+  }
+
+  enum Color
+  {
+    RED, GREEN, BLUE
+  }
+
+  @Test
+  public void testSelectFieldDuplicatesAndBits()
+  {
+    class PermissionForm extends RequestForm
+    {
+      SelectField<String[]> field = new SelectField<>(this, "example", String[].class);
+      {
+        for (int i = 0; i < 200; i++)
+        {
+          field.addOption("permission-" + i);
+        }
+      }
+    }
+    PermissionForm form = new PermissionForm();
+    assertTrue(form.process(new QueryStringValues(
+        "example=permission-3&example=permission-130&example=permission-3")).passed());
+    long[] bits = form.field.getSelectionBits();
+    assertArrayEquals(new long[]{1L << 3, 0L, 1L << 2}, bits);
+    PermissionForm restored = new PermissionForm();
+    restored.field.setSelectionBits(bits);
+    assertArrayEquals(new String[]{"permission-3", "permission-130"},
+        restored.field.getValue());
+    assertTrue(restored.field.isSelected("permission-130"));
+    PermissionForm strict = new PermissionForm();
+    strict.field.setRejectDuplicateValues(true);
+    ValidationResult result = strict.process(new QueryStringValues(
+        "example=permission-3&example=permission-130&example=permission-3"));
+    assertEquals("example may not repeat a value.",
+        result.getErrors().get(0).getMessage());
+  }
+
+  @Test
+  public void testEnumSelectField()
+  {
+    class EnumSelectFieldForm extends RequestForm
+    {
+      EnumSelectField<Color> field = new EnumSelectField<>(this, "example", Color.class);
+    }
+    {
+      EnumSelectFieldForm form = new EnumSelectFieldForm();
+      assertEquals(3, form.field.getOptions().size());
+      assertTrue(form.process(ctx("example", new String[]{"RED", "BLUE"})).passed());
+      assertEquals(EnumSet.of(Color.RED, Color.BLUE), form.field.getValue());
+      assertTrue(form.field.isSelected(Color.BLUE));
+      assertFalse(form.field.isSelected(Color.GREEN));
+    }
+    {
+      EnumSelectFieldForm form = new EnumSelectFieldForm();
+      assertTrue(form.process(ctx("example", new String[]{"RED", "PURPLE"})).failed());
+    }
+    {
+      EnumSelectFieldForm form = new EnumSelectFieldForm();
+      assertTrue(form.process(ctx("example", "red")).failed());
+    }
+    {
+      EnumSelectFieldForm form = new EnumSelectFieldForm();
+      form.field.setCaseInsensitive(true);
+      assertTrue(form.process(ctx("example", "red")).passed());
+      assertEquals(Color.RED, form.field.getEnumValue());
+    }
+    {
+      EnumSelectFieldForm form = new EnumSelectFieldForm();
+      assertTrue(form.process(ctx("example", (String) null)).passed());
+      assertNull(form.field.getValue());
+      assertTrue(form.field.getSelectedEnums().isEmpty());
+    }
+  }
+
+  @Test
+  public void testInputLimits()
+  {
+    class LimitedForm extends RequestForm
+    {
+      Field<String> field = new Field<>(this, "example", String.class)
+          .setRequired(true);
+      {
+        setInputLimits(new InputLimits().setMaxValuesPerName(2));
+      }
+    }
+    {
+      LimitedForm form = new LimitedForm();
+      assertTrue(form.process(ctx("example", new String[]{"a", "b"})).passed());
+      assertEquals("a", form.field.getValue());
+    }
+    {
+      LimitedForm form = new LimitedForm();
+      Input input = form.process(ctx("example", new String[]{"a", "b", "c"}));
+      assertTrue(input instanceof RejectedInput);
+      assertEquals("maxValuesPerName", ((RejectedInput) input).getReason().getLimit());
+      assertEquals(1, input.errors().size());
+      assertNull(form.field.getValue());
+    }
+    {
+      // Limits apply to values set directly from a query as well.
+      LimitedForm form = new LimitedForm();
+      form.setValuesFromQuery(ctx("example", new String[]{"a", "b", "c"}).query());
+      assertNull(form.field.getValue());
+    }
+  }
+
+  @Test
+  @SuppressWarnings("deprecation")
+  public void testValidatorSetOverride()
+  {
+    class LegacyForm extends RequestForm
+    {
+      Field<String> field = new Field<>(this, "example", String.class);
+
+      @Override
+      protected ValidatorSet getValidatorSet()
+      {
+        return new ValidatorSet(input -> input.addError("Legacy validator."));
+      }
+    }
+    LegacyForm form = new LegacyForm();
+    Input input = form.process(ctx("example", "a"));
+    assertTrue(input.failed());
+    assertEquals("a", form.field.getValue());
+  }
+
+  @Test
+  public void testProcessValues()
+  {
+    class MessageForm extends RequestForm
+    {
+      Field<String> name = new TextField<>(this, "name", String.class)
+          .setMinLength(2)
+          .setMaxLength(5)
+          .setRequired(true);
+      Field<Long> count = new NumberField<>(this, "count", Long.class)
+          .setMin(0L)
+          .setMax(10L);
+    }
+    {
+      MessageForm form = new MessageForm();
+      ValidationResult result = form.process(
+          new QueryStringValues("name=abc&count=3"));
+      assertTrue(result.passed());
+      assertEquals("abc", form.name.getValue());
+      assertEquals((Long) 3L, form.count.getValue());
+    }
+    {
+      MessageForm form = new MessageForm();
+      ValidationResult result = form.process(
+          new QueryStringValues("name=abcdef&count=11"));
+      assertTrue(result.failed());
+      assertEquals(2, result.errors().size());
+      assertTrue(result.erroredElements().containsKey("name"));
+      assertTrue(result.erroredElements().containsKey("count"));
+      Input input = result.toInput(null);
+      assertTrue(input.failed());
+      assertEquals(result.errors(), input.errors());
+    }
+    {
+      MessageForm form = new MessageForm();
+      form.setInputLimits(new InputLimits().setMaxParameters(1));
+      ValidationResult result = form.process(
+          new QueryStringValues("name=abc&count=3"));
+      assertTrue(result.isRejected());
+      assertEquals("maxParameters", result.getRejection().getLimit());
+      assertNull(form.name.getValue());
+    }
+    {
+      // Validators written against Gemini's Input read through its Query.
+      MessageForm form = new MessageForm();
+      form.addValidator(input -> {
+        if (input.values().get("name").equals(input.values().get("count")))
+        {
+          input.addError("The name can't be the count.");
+        }
+      });
+      assertTrue(form.process(new QueryStringValues("name=abc&count=3")).passed());
+      assertTrue(form.process(new QueryStringValues("name=10&count=10")).failed());
+    }
+  }
+
+  @Test
+  public void testNumberRangesMatchBinding()
+  {
+    class RangeForm extends RequestForm
+    {
+      Field<Float> ratio = new NumberField<>(this, "ratio", Float.class)
+          .setMax(1.0000001f);
+      Field<Short> small = new NumberField<>(this, "small", Short.class)
+          .setMax((short) 10);
+      Field<Byte> tiny = new NumberField<>(this, "tiny", Byte.class)
+          .setMax((byte) 10);
+    }
+    {
+      // Rounds to 1.0000002f when parsed as a double first, but binds to
+      // 1.0000001f, so the range check must agree with the binding.
+      RangeForm form = new RangeForm();
+      assertTrue(form.process(new QueryStringValues(
+          "ratio=1.00000017881393432617187499&small=1&tiny=1")).passed());
+      assertEquals((Float) 1.0000001f, form.ratio.getValue());
+    }
+    {
+      RangeForm form = new RangeForm();
+      assertTrue(form.process(new QueryStringValues(
+          "ratio=1&small=%2B7&tiny=%2B7")).passed());
+      assertEquals((Short) (short) 7, form.small.getValue());
+      assertEquals((Byte) (byte) 7, form.tiny.getValue());
+    }
+  }
+
+  @Test
+  public void testResultCache()
+  {
+    class SearchForm extends RequestForm
+    {
+      Field<String> query = new TextField<>(this, "q", String.class)
+          .setMaxLength(5);
+      Field<Integer> page = new NumberField<>(this, "page", Integer.class)
+          .setMin(1);
+    }
+    FormResultCache cache = new FormResultCache(2);
+    {
+      SearchForm form = new SearchForm();
+      form.setResultCache(cache);
+      assertTrue(form.process(new QueryStringValues("q=abc&page=2")).passed());
+      assertEquals(0, cache.getHitCount());
+      assertEquals(1, cache.getMissCount());
+    }
+    {
+      // The same values in a different order, with an unrelated parameter.
+      SearchForm form = new SearchForm();
+      form.setResultCache(cache);
+      assertTrue(form.process(new QueryStringValues("x=1&page=2&q=abc")).passed());
+      assertEquals(1, cache.getHitCount());
+      assertEquals("abc", form.query.getValue());
+      assertEquals((Integer) 2, form.page.getValue());
+    }
+    {
+      SearchForm form = new SearchForm();
+      form.setResultCache(cache);
+      ValidationResult result = form.process(new QueryStringValues("q=abcdef&page=0"));
+      assertEquals(2, result.errors().size());
+      result = form.process(new QueryStringValues("q=abcdef&page=0"));
+      assertEquals(2, result.errors().size());
+      assertEquals(2, cache.getHitCount());
+      assertEquals(0.5, cache.getHitRate());
+    }
+    {
+      SearchForm form = new SearchForm();
+      form.setResultCache(cache);
+      form.process(new QueryStringValues("q=xyz"));
+      assertEquals(1, cache.getEvictionCount());
+      assertEquals(2, cache.size());
+    }
+    {
+      // A form with another field has a different schema version.
+      SearchForm form = new SearchForm();
+      new Field<>(form, "sort", String.class);
+      form.setResultCache(cache);
+      long misses = cache.getMissCount();
+      form.process(new QueryStringValues("q=abc&page=2"));
+      assertEquals(misses + 1, cache.getMissCount());
+    }
+    {
+      // Custom values may hold null elements.
+      SearchForm form = new SearchForm();
+      form.setResultCache(cache);
+      form.process(new MapValues(Collections.singletonMap("q",
+          Collections.singletonList(null))));
+      assertNull(form.query.getValue());
+    }
+  }
+
+  @Test
+  public void testResultCacheConfiguration()
+  {
+    class ChoiceForm extends RequestForm
+    {
+      SelectField<String> choice = new SelectField<>(this, "choice", String.class);
+    }
+    FormResultCache cache = new FormResultCache(10);
+    ChoiceForm withOption = new ChoiceForm();
+    withOption.choice.addOption("a");
+    withOption.setResultCache(cache);
+    assertTrue(withOption.process(new QueryStringValues("choice=a")).passed());
+    // The same class with other options, such as loaded from a database,
+    // doesn't get the first instance's result.
+    ChoiceForm withoutOption = new ChoiceForm();
+    withoutOption.choice.addOption("b");
+    withoutOption.setResultCache(cache);
+    assertTrue(withoutOption.process(new QueryStringValues("choice=a")).failed());
+    assertEquals(0, cache.getHitCount());
+    // Neither configuration evicts the other's results.
+    ChoiceForm again = new ChoiceForm();
+    again.choice.addOption("a");
+    again.setResultCache(cache);
+    assertTrue(again.process(new QueryStringValues("choice=a")).passed());
+    assertEquals(1, cache.getHitCount());
+    assertSame(withOption.getSchemaVersion(), again.getSchemaVersion());
+  }
+
+  @Test
+  public void testResultCacheCopiesCollections()
+  {
+    class ColorForm extends RequestForm
+    {
+      EnumSelectField<Color> colors = new EnumSelectField<>(this, "colors", Color.class);
+    }
+    FormResultCache cache = new FormResultCache(10);
+    ColorForm first = new ColorForm();
+    first.setResultCache(cache);
+    first.process(new QueryStringValues("colors=RED"));
+    first.colors.getValue().add(Color.BLUE);
+    ColorForm second = new ColorForm();
+    second.setResultCache(cache);
+    second.process(new QueryStringValues("colors=RED"));
+    assertEquals(1, cache.getHitCount());
+    assertEquals(EnumSet.of(Color.RED), second.colors.getValue());
+    second.colors.getValue().clear();
+    ColorForm third = new ColorForm();
+    third.setResultCache(cache);
+    third.process(new QueryStringValues("colors=RED"));
+    assertEquals(EnumSet.of(Color.RED), third.colors.getValue());
+  }
+
+  @Test
+  public void testMemoizingFieldValidator()
+  {
+    AtomicInteger checks = new AtomicInteger();
+    AtomicLong now = new AtomicLong();
+    ValidationMemo memo = new ValidationMemo(100, Duration.ofSeconds(60), now::get);
+    class PostalCodeForm extends RequestForm
+    {
+      Field<String> postalCode = new Field<>(this, "postalCode", String.class)
+          .addFieldValidator(new MemoizingFieldValidator<String>(
+              (field, input) -> {
+                checks.incrementAndGet();
+                if (!"12345".equals(field.getValueFrom(input)))
+                {
+                  input.addError(field.getName(), "Unknown postal code.");
+                }
+              }, memo)
+              .setNormalizer(code -> code != null ? code.trim() : null));
+    }
+    assertTrue(new PostalCodeForm().process(new QueryStringValues("postalCode=12345")).passed());
+    assertTrue(new PostalCodeForm().process(new QueryStringValues("postalCode=+12345+")).passed());
+    assertEquals(1, checks.get());
+    ValidationResult result = new PostalCodeForm().process(new QueryStringValues("postalCode=99999"));
+    assertEquals("Unknown postal code.", result.erroredElements().get("postalCode"));
+    result = new PostalCodeForm().process(new QueryStringValues("postalCode=99999"));
+    assertEquals("Unknown postal code.", result.erroredElements().get("postalCode"));
+    assertEquals(2, checks.get());
+    assertEquals(2, memo.getHitCount());
+    // Expired outcomes are checked again.
+    now.addAndGet(Duration.ofSeconds(60).toNanos());
+    assertTrue(new PostalCodeForm().process(new QueryStringValues("postalCode=12345")).passed());
+    assertEquals(3, checks.get());
+  }
+
+  @Test
+  public void testValidationBudget()
+  {
+    class SlowForm extends RequestForm
+    {
+      Field<String> field = new Field<>(this, "example", String.class)
+          .setRequired(true);
+      {
+        // Only the slow validator has a tight timeout, so the required
+        // field check can't miss its time on a loaded machine.
+        addValidator(ValidationBudget.withTimeout(input -> {
+          try
+          {
+            Thread.sleep(100);
+          }
+          catch (InterruptedException e)
+          {
+            Thread.currentThread().interrupt();
+          }
+          input.addError("Too slow to matter.");
+        }, Duration.ofMillis(20)));
+      }
+    }
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try
+    {
+      {
+        SlowForm form = new SlowForm();
+        form.setValidationBudget(new ValidationBudget()
+            .setTimeout(Duration.ofSeconds(10))
+            .setExecutor(executor));
+        ValidationResult result = form.process(new QueryStringValues("example=a"));
+        assertEquals(1, result.errors().size());
+        assertEquals(ValidatorRunner.LATE_ERROR, result.errors().get(0));
+        assertEquals(2, form.getValidatorTimings().size());
+        assertFalse(form.getValidatorTimings().get(0).isLate());
+        assertEquals(ValidationBudget.Outcome.FAIL,
+            form.getValidatorTimings().get(1).getOutcome());
+        assertEquals("a", form.field.getValue());
+      }
+      {
+        SlowForm form = new SlowForm();
+        form.setValidationBudget(new ValidationBudget()
+            .setTimeout(Duration.ofSeconds(10))
+            .setOutcome(ValidationBudget.Outcome.PENDING)
+            .setExecutor(executor));
+        assertTrue(form.process(new QueryStringValues("example=a")).passed());
+        assertTrue(form.getValidatorTimings().get(1).isPending());
+      }
+      {
+        // Without an executor, the validator's own errors are discarded.
+        SlowForm form = new SlowForm();
+        form.setValidationBudget(new ValidationBudget()
+            .setTimeout(Duration.ofSeconds(10))
+            .setOutcome(ValidationBudget.Outcome.SKIP));
+        assertTrue(form.process(new QueryStringValues("example=a")).passed());
+      }
+      {
+        // Validators after the deadline aren't run at all.
+        SlowForm form = new SlowForm();
+        form.addValidator(ValidationBudget.withTimeout(
+            input -> input.addError("Never run."), Duration.ofSeconds(1)));
+        form.setValidationBudget(new ValidationBudget()
+            .setDeadline(Duration.ofMillis(20))
+            .setOutcome(ValidationBudget.Outcome.SKIP));
+        assertTrue(form.process(new QueryStringValues("example=a")).passed());
+        assertEquals(0L, form.getValidatorTimings().get(2).getElapsedNanos());
+      }
+    }
+    finally
+    {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testLoadShedder()
+  {
+    AtomicInteger inFlight = new AtomicInteger();
+    LoadShedder shedder = new LoadShedder(LoadSignal.inFlight(inFlight::get, 10));
+    class CommentForm extends RequestForm
+    {
+      Field<String> comment = new Field<>(this, "comment", String.class)
+          .setRequired(true)
+          .addFieldValidator(new FieldValidator<String>()
+          {
+            @Override
+            protected void process(Input input)
+            {
+              input.addError(getElementName(), "Looks like spam.");
+            }
+          }.setPriority(ValidatorPriority.OPTIONAL));
+      {
+        addValidator(input -> input.addError("Duplicate comment."));
+        setLoadShedder(shedder);
+      }
+    }
+    assertEquals(2, new CommentForm().process(new QueryStringValues("comment=a")).errors().size());
+    inFlight.set(8);
+    ValidationResult result = new CommentForm().process(new QueryStringValues("comment=a"));
+    assertEquals(Collections.singletonList("Duplicate comment."), result.errors());
+    shedder.setNormalThreshold(1.0);
+    inFlight.set(12);
+    // The standard required validator still runs.
+    result = new CommentForm().process(new QueryStringValues(""));
+    assertEquals(Collections.singletonList("comment is required."), result.errors());
+    assertEquals(3, shedder.getSubmissionCount());
+    assertEquals(2, shedder.getShedSubmissionCount());
+    assertEquals(2, shedder.getShedCount(ValidatorPriority.OPTIONAL));
+    assertEquals(1, shedder.getShedCount(ValidatorPriority.NORMAL));
+  }
+
+  @Test
+  public void testAdaptiveOrdering()
+  {
+    AdaptiveOrdering ordering = new AdaptiveOrdering()
+        .setReorderInterval(1)
+        .setMinimumSamples(1);
+    class OrderedForm extends RequestForm
+    {
+      Field<String> slow = new Field<>(this, "slow", String.class)
+          .addFieldValidator((field, input) -> {
+            // Orders of magnitude costlier than even a cold run of the
+            // cheap validator, and only ever run once.
+            try
+            {
+              Thread.sleep(50);
+            }
+            catch (InterruptedException e)
+            {
+              Thread.currentThread().interrupt();
+            }
+          });
+      Field<String> cheap = new Field<>(this, "cheap", String.class)
+          .addFieldValidator((field, input) -> input.addError("cheap", "Rejected."));
+      {
+        setFailFast(true);
+        setAdaptiveOrdering(ordering);
+      }
+    }
+    for (int i = 0; i < 5; i++)
+    {
+      ValidationResult result = new OrderedForm().process(new QueryStringValues(""));
+      assertEquals(Collections.singletonList("Rejected."), result.errors());
+    }
+    // Once measured, the cheap rejecting validator runs first and the slow
+    // one is never reached.
+    assertArrayEquals(new int[]{ 1, 0 }, ordering.getOrder());
+    assertEquals(1, ordering.getRunCount(0));
+    assertEquals(5, ordering.getRunCount(1));
+    assertEquals(1.0, ordering.getRejectionRate(1));
+  }
+
+  @Test
+  public void testMetrics()
+  {
+    FormMetrics metrics = new FormMetrics();
+    class MeasuredForm extends RequestForm
+    {
+      Field<Long> count = new NumberField<>(this, "count", Long.class)
+          .setMax(10L);
+      {
+        setMetrics(metrics);
+      }
+    }
+    new MeasuredForm().process(new QueryStringValues("count=5"));
+    new MeasuredForm().process(new QueryStringValues("count=50"));
+    FormMetrics.FormStats form = metrics.getForm(MeasuredForm.class.getName());
+    assertEquals(2, form.getSubmissionCount());
+    assertEquals(1, form.getFailureCount());
+    assertEquals(2, form.getLatency().getCount());
+    assertEquals(1, form.getField("count").getErrorCount());
+    assertEquals(2, form.getField("count").getBindLatency().getCount());
+    // The number validator, then the range validator.
+    assertEquals(0.0, form.getValidator("count#0").getRejectionRate());
+    assertEquals(0.5, form.getValidator("count#1").getRejectionRate());
+    assertEquals(2L, metrics.snapshot()
+        .get(MeasuredForm.class.getName() + ".submissions"));
+  }
+
+  @Test
+  public void testMetricsWithOverriddenValidators()
+  {
+    FormMetrics metrics = new FormMetrics();
+    class OverriddenForm extends RequestForm
+    {
+      Field<Long> count = new NumberField<>(this, "count", Long.class)
+          .setMax(10L);
+      {
+        setMetrics(metrics);
+      }
+
+      @Override
+      protected List<Validator> getValidators()
+      {
+        // Drops the range validator and adds one of its own.
+        List<Validator> validators = new ArrayList<>(super.getValidators());
+        validators.remove(1);
+        validators.add(input -> input.addError("count", "Overridden."));
+        return validators;
+      }
+    }
+    ValidationResult result = new OverriddenForm()
+        .process(new QueryStringValues("count=50"));
+    assertEquals(1, result.getErrors().size());
+    assertEquals("Overridden.", result.getErrors().get(0).getMessage());
+    FormMetrics.FormStats form = metrics.getForm(OverriddenForm.class.getName());
+    assertEquals(1, form.getValidator("count#0").getRunCount());
+    assertNull(form.getValidators().get("count#1"));
+    assertEquals(1.0, form.getValidator("validator#1").getRejectionRate());
+  }
+
+  @Test
+  public void testFieldNamesShared()
+  {
+    class NamedForm extends RequestForm
+    {
+      Field<String> name  = new Field<>(this, "name", String.class);
+      Field<Long>   count = new NumberField<>(this, "count", Long.class);
+    }
+    NamedForm first = new NamedForm();
+    assertSame(first.getFieldNames(), new NamedForm().getFieldNames());
+    // An instance with other fields gets its own hash.
+    NamedForm extended = new NamedForm();
+    new Field<>(extended, "extra", String.class);
+    assertEquals(3, extended.getFieldNames().size());
+    assertEquals(2, new NamedForm().getFieldNames().size());
+  }
+
+  @Test
+  public void testListener()
+  {
+    List<String> calls = new ArrayList<>();
+    FormListener listener = new FormListener()
+    {
+      @Override
+      public void beforeProcess(IRequestForm form)
+      {
+        calls.add("before");
+      }
+
+      @Override
+      public void afterProcess(IRequestForm form, ValidationResult result,
+                               long nanos)
+      {
+        calls.add("after " + result.failed());
+      }
+
+      @Override
+      public void fieldBound(IRequestForm form, IField<?> field, long nanos)
+      {
+        calls.add("bound " + field.getName());
+      }
+
+      @Override
+      public void validatorStarted(IRequestForm form, String name,
+                                   Validator validator)
+      {
+        calls.add("started " + name);
+      }
+
+      @Override
+      public void validatorFinished(IRequestForm form, String name,
+                                    Validator validator, long nanos,
+                                    boolean rejected)
+      {
+        calls.add("finished " + name + " " + rejected);
+      }
+
+      @Override
+      public void errorAdded(IRequestForm form, String element, String message)
+      {
+        calls.add("error " + element);
+      }
+    };
+    class ListenedForm extends RequestForm
+    {
+      Field<Long> count = new NumberField<>(this, "count", Long.class)
+          .setMax(10L);
+      {
+        addListener(listener);
+      }
+    }
+    new ListenedForm().process(new QueryStringValues("count=50"));
+    assertEquals(Arrays.asList(
+        "before",
+        "started count#0",
+        "finished count#0 false",
+        "started count#1",
+        "error count",
+        "finished count#1 true",
+        "bound count",
+        "after true"), calls);
+    ListenedForm form = new ListenedForm();
+    form.removeListener(listener);
+    assertTrue(form.getListeners().isEmpty());
+  }
+
+  @Test
+  public void testListenerOnException()
+  {
+    List<String> calls = new ArrayList<>();
+    FormListener listener = new FormListener()
+    {
+      @Override
+      public void beforeProcess(IRequestForm form)
+      {
+        calls.add("before");
+      }
+
+      @Override
+      public void afterProcess(IRequestForm form, ValidationResult result,
+                               long nanos)
+      {
+        calls.add("after");
+      }
+
+      @Override
+      public void processAborted(IRequestForm form, Throwable error,
+                                 long nanos)
+      {
+        calls.add("aborted " + error.getMessage());
+      }
+    };
+    class ThrowingForm extends RequestForm
+    {
+      Field<String> name = new Field<>(this, "name", String.class);
+      {
+        addListener(listener);
+        addValidator(input -> {
+          throw new IllegalStateException("broken");
+        });
+      }
+    }
+    IllegalStateException thrown = assertThrows(IllegalStateException.class,
+        () -> new ThrowingForm().process(new QueryStringValues("name=a")));
+    assertEquals("broken", thrown.getMessage());
+    assertEquals(Arrays.asList("before", "aborted broken"), calls);
+  }
+
+  @Test
+  public void testSlowSubmissionSampler()
+  {
+    SlowSubmissionSampler sampler = new SlowSubmissionSampler(Duration.ZERO, 2);
+    class SampledForm extends RequestForm
+    {
+      Field<Long> count = new NumberField<>(this, "count", Long.class)
+          .setMax(10L);
+      {
+        addListener(sampler);
+      }
+    }
+    new SampledForm().process(new QueryStringValues("count=1"));
+    new SampledForm().process(new QueryStringValues("count=2"));
+    new SampledForm().process(new QueryStringValues("count=500"));
+    assertEquals(3, sampler.getSampledCount());
+    List<SlowSubmission> samples = sampler.getSamples(SampledForm.class);
+    // Only the two most recent are kept, newest first.
+    assertEquals(2, samples.size());
+    SlowSubmission latest = samples.get(0);
+    assertTrue(latest.isFailed());
+    assertEquals("count:1/3", latest.getFingerprint());
+    assertEquals(1, latest.getFieldTimings().size());
+    assertEquals("count#1", latest.getValidatorTimings().get(1).getName());
+    assertTrue(latest.getValidatorTimings().get(1).isRejected());
+    assertFalse(samples.get(1).isFailed());
+    sampler.setThreshold(Duration.ofHours(1));
+    new SampledForm().process(new QueryStringValues("count=3"));
+    assertEquals(3, sampler.getSampledCount());
+    // A submission that throws leaves no capture behind on the thread.
+    class ThrowingForm extends RequestForm
+    {
+      Field<Long> count = new NumberField<>(this, "count", Long.class);
+      {
+        addListener(sampler);
+        addValidator(input -> {
+          throw new IllegalStateException();
+        });
+      }
+    }
+    sampler.setThreshold(Duration.ZERO);
+    assertThrows(IllegalStateException.class,
+        () -> new ThrowingForm().process(new QueryStringValues("count=4")));
+    sampler.afterProcess(new ThrowingForm(), null, 0L);
+    assertEquals(3, sampler.getSampledCount());
+  }
+
+  @Test
+  public void testFlightRecorderEvents() throws IOException
+  {
+    class RecordedForm extends RequestForm
+    {
+      Field<Long> count = new NumberField<>(this, "count", Long.class);
+    }
+    Path file = Files.createTempFile("forms", ".jfr");
+    try (Recording recording = new Recording())
+    {
+      recording.enable(FormProcessEvent.NAME).withThreshold(Duration.ZERO);
+      recording.enable(ParseFailureEvent.NAME);
+      recording.start();
+      new RecordedForm().process(new QueryStringValues("count=many"));
+      recording.stop();
+      recording.dump(file);
+    }
+    List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+    Files.delete(file);
+    RecordedEvent process = events.stream()
+        .filter(event -> event.getEventType().getName().equals(FormProcessEvent.NAME))
+        .findFirst()
+        .orElseThrow(AssertionError::new);
+    assertEquals(RecordedForm.class.getName(), process.getClass("form").getName());
+    assertEquals("failed", process.getString("outcome"));
+    assertEquals(1, process.getInt("errorCount"));
+    RecordedEvent parseFailure = events.stream()
+        .filter(event -> event.getEventType().getName().equals(ParseFailureEvent.NAME))
+        .findFirst()
+        .orElseThrow(AssertionError::new);
+    assertEquals("count", parseFailure.getString("field"));
+    assertEquals(Long.class.getName(), parseFailure.getClass("type").getName());
+    assertEquals(4, parseFailure.getInt("valueLength"));
+  }
+
   private Context ctx(String key, String value)
   {
     SimParameters parameters = new SimParameters();
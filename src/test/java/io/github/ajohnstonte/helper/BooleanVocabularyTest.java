@@ -0,0 +1,53 @@
+package io.github.ajohnstonte.helper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BooleanVocabularyTest
+{
+  @Test
+  public void testLenient()
+  {
+    BooleanVocabulary vocabulary = BooleanVocabulary.LENIENT;
+    assertEquals(true, vocabulary.parse("true", null));
+    assertEquals(true, vocabulary.parse("  On\t", null));
+    assertEquals(true, vocabulary.parse("YES", null));
+    assertEquals(false, vocabulary.parse("0", null));
+    assertEquals(false, vocabulary.parse("Off", null));
+    assertNull(vocabulary.parse("maybe", null));
+    assertNull(vocabulary.parse("", null));
+    assertNull(vocabulary.parse("   ", null));
+    assertNull(vocabulary.parse((String) null, null));
+    assertEquals(false, vocabulary.parse("x", false));
+  }
+
+  @Test
+  public void testStrict()
+  {
+    BooleanVocabulary vocabulary = BooleanVocabulary.STRICT;
+    assertEquals(true, vocabulary.parse("true", null));
+    assertEquals(false, vocabulary.parse("false", null));
+    assertNull(vocabulary.parse("TRUE", null));
+    assertNull(vocabulary.parse(" true", null));
+    assertNull(vocabulary.parse("yes", null));
+  }
+
+  @Test
+  public void testCustom()
+  {
+    BooleanVocabulary vocabulary = BooleanVocabulary.lenient(
+        new String[] { "Ja", "Oui" },
+        new String[] { "Nein", "Non" });
+    assertEquals(true, vocabulary.parse("ja", null));
+    assertEquals(true, vocabulary.parse(" OUI ", null));
+    assertEquals(false, vocabulary.parse("nein", null));
+    assertNull(vocabulary.parse("true", null));
+    assertEquals(true, vocabulary.parse("a=oui&b=2", 2, 5, null));
+
+    assertThrows(IllegalArgumentException.class,
+        () -> BooleanVocabulary.strict(new String[] { "x" }, new String[] { "x" }));
+    assertThrows(IllegalArgumentException.class,
+        () -> BooleanVocabulary.lenient(new String[] { " " }, new String[0]));
+  }
+}
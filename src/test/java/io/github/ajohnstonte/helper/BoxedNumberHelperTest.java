@@ -0,0 +1,142 @@
+package io.github.ajohnstonte.helper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoxedNumberHelperTest
+{
+  public static Object[] testFloatingPointParams()
+  {
+    return new Object[]{
+        "0", "-0", "-0.0", "7", "7.7", "-1", ".5", "5.", "+.5", "1e5", "1E-5",
+        "1e5f", "1e5D", "  7.7  ", "\t1\n", "NaN", "-NaN", "Infinity",
+        "+Infinity", "0x1p3", "0x.8p1", "0x1.8p1f", "1e400", "1e-400",
+        "4.9e-324", "2.4703282292062327e-324", "2.4703282292062328e-324",
+        "2.2250738585072011e-308", "2.2250738585072012e-308",
+        "1.7976931348623157e308", "1.7976931348623158e308",
+        "1.7976931348623159e308", "9007199254740993", "9999999999999999999",
+        "18446744073709551615", "123456789012345678901234567890e-10",
+        "1.00000005960464477550", "1.4e-45", "7e-46", "3.4028235e38",
+        "3.4028236e38", "16777217", "0e999999999", "1e99999999",
+        String.valueOf(Long.MAX_VALUE), String.valueOf(Double.MAX_VALUE),
+        String.valueOf(Double.MIN_VALUE), String.valueOf(Float.MAX_VALUE),
+
+        // Invalid.
+        "", " ", ".", "-", "+", "-.", "e5", "1e", "1e+", "1e5ff", "1_0", "0x",
+        "0x1", "0xp1", "0x.p1", "NaNd", "nan", "Infinityf", "1.2.3", "--1",
+        "1 2", "\u00A01",
+    };
+  }
+
+  @ParameterizedTest
+  @MethodSource("testFloatingPointParams")
+  public void testFloatingPoint(String input)
+  {
+    assertEquals(jdkDouble(input), BoxedNumberHelper.parseDouble(input, null));
+    assertEquals(jdkFloat(input), BoxedNumberHelper.parseFloat(input, null));
+  }
+
+  @Test
+  public void testFloatingPointRandom()
+  {
+    Random random = new Random(29);
+    for (int i = 0; i < 100_000; i++)
+    {
+      String fromDouble = Double.toString(Double.longBitsToDouble(random.nextLong()));
+      assertEquals(jdkDouble(fromDouble), BoxedNumberHelper.parseDouble(fromDouble, null), fromDouble);
+
+      String fromFloat = Float.toString(Float.intBitsToFloat(random.nextInt()));
+      assertEquals(jdkFloat(fromFloat), BoxedNumberHelper.parseFloat(fromFloat, null), fromFloat);
+
+      // Arbitrary digits, including more than fit in a long.
+      StringBuilder digits = new StringBuilder();
+      int length = 1 + random.nextInt(25);
+      int point = random.nextInt(length + 1);
+      for (int j = 0; j < length; j++)
+      {
+        if (j == point)
+        {
+          digits.append('.');
+        }
+        digits.append((char)('0' + random.nextInt(10)));
+      }
+      digits.append('e').append(random.nextInt(700) - 350);
+      String decimal = digits.toString();
+      assertEquals(jdkDouble(decimal), BoxedNumberHelper.parseDouble(decimal, null), decimal);
+      assertEquals(jdkFloat(decimal), BoxedNumberHelper.parseFloat(decimal, null), decimal);
+    }
+  }
+
+  public static Object[] testShortAndByteParams()
+  {
+    return new Object[][]{
+        {"7", (short) 7, (byte) 7},
+        {"-128", (short) -128, (byte) -128},
+        {"128", (short) 128, null},
+        {"32767", Short.MAX_VALUE, null},
+        {"32768", null, null},
+        {"-32769", null, null},
+        {"+127", (short) 127, (byte) 127},
+        {"+", null, null},
+        {"+-1", null, null},
+        {"++1", null, null},
+        {"1.0", null, null},
+        {"", null, null},
+        {null, null, null},
+    };
+  }
+
+  @ParameterizedTest
+  @MethodSource("testShortAndByteParams")
+  public void testShortAndByte(String input, Short expectedShort, Byte expectedByte)
+  {
+    assertEquals(expectedShort, BoxedNumberHelper.parseShort(input));
+    assertEquals(expectedByte, BoxedNumberHelper.parseByte(input));
+  }
+
+  @Test
+  public void testSlices()
+  {
+    String chars = "a=12&b=-7.5e1&c=300&d=on";
+    byte[] bytes = chars.getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+    assertEquals(12, BoxedNumberHelper.parseInt(chars, 2, 4, null));
+    assertEquals(12L, BoxedNumberHelper.parseLong(bytes, 2, 4, null));
+    assertEquals(-75.0, BoxedNumberHelper.parseDouble(chars, 7, 13, null));
+    assertEquals(-75.0f, BoxedNumberHelper.parseFloat(bytes, 7, 13, null));
+    assertEquals((short) 300, BoxedNumberHelper.parseShort(bytes, 16, 19, null));
+    assertNull(BoxedNumberHelper.parseByte(chars, 16, 19, null));
+    assertNull(BoxedNumberHelper.parseInt(chars, 0, 4, null));
+    assertNull(BoxedNumberHelper.parseInt(chars, 2, 2, null));
+    assertEquals(true, BoxedBooleanHelper.parseBoolean(bytes, 22, 24, null));
+    assertNull(BoxedBooleanHelper.parseBooleanStrict(chars, 22, 24, null));
+  }
+
+  private static Double jdkDouble(String input)
+  {
+    try
+    {
+      return Double.parseDouble(input);
+    }
+    catch (NumberFormatException e)
+    {
+      return null;
+    }
+  }
+
+  private static Float jdkFloat(String input)
+  {
+    try
+    {
+      return Float.parseFloat(input);
+    }
+    catch (NumberFormatException e)
+    {
+      return null;
+    }
+  }
+}
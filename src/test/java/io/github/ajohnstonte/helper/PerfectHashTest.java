@@ -0,0 +1,49 @@
+package io.github.ajohnstonte.helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PerfectHashTest
+{
+  @Test
+  public void testIndexes()
+  {
+    Random random = new Random(38);
+    for (int size : new int[]{ 0, 1, 2, 3, 10, 100, 1000 })
+    {
+      Set<String> keys = new LinkedHashSet<>();
+      while (keys.size() < size)
+      {
+        keys.add("field" + random.nextInt(size * 10 + 1) + (random.nextBoolean() ? "" : ".x"));
+      }
+      PerfectHash hash = new PerfectHash(keys.toArray(new String[0]));
+      assertEquals(size, hash.size());
+      BitSet used = new BitSet();
+      for (String key : keys)
+      {
+        int index = hash.indexOf(key);
+        assertTrue(index >= 0 && index < size, key);
+        assertFalse(used.get(index), key);
+        used.set(index);
+        assertEquals(key, hash.getKey(index));
+        assertEquals(index, hash.indexOf("&" + key + "=", 1, key.length() + 1));
+      }
+      assertEquals(-1, hash.indexOf("unknown"));
+      assertEquals(-1, hash.indexOf(""));
+      assertEquals(-1, hash.indexOf(null));
+    }
+  }
+
+  @Test
+  public void testDuplicates()
+  {
+    assertThrows(IllegalArgumentException.class, () -> new PerfectHash("a", "b", "a"));
+    assertThrows(IllegalArgumentException.class, () -> new PerfectHash("a", null));
+  }
+}